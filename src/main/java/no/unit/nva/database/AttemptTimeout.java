@@ -0,0 +1,37 @@
+package no.unit.nva.database;
+
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.handlers.RequestHandler2;
+
+/**
+ * Sets the timeout of every attempt of a request, including its retries, to the configured attempt timeout or to the
+ * time left until the {@link RequestDeadline}, whichever is shorter. A slow attempt then fails while there is still
+ * time to report the error, instead of running into the Lambda timeout.
+ */
+public class AttemptTimeout extends RequestHandler2 {
+
+    public static final int MIN_ATTEMPT_TIMEOUT_MILLIS = 1;
+
+    private final long attemptTimeoutMillis;
+    private final RequestDeadline deadline;
+
+    public AttemptTimeout(long attemptTimeoutMillis, RequestDeadline deadline) {
+        this.attemptTimeoutMillis = attemptTimeoutMillis;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns the timeout of the next attempt. It is never zero, since a zero timeout disables the timeout.
+     *
+     * @return the timeout in milliseconds.
+     */
+    public int timeoutMillis() {
+        long timeout = Math.min(attemptTimeoutMillis, deadline.remainingMillis());
+        return (int) Math.max(MIN_ATTEMPT_TIMEOUT_MILLIS, Math.min(Integer.MAX_VALUE, timeout));
+    }
+
+    @Override
+    public void beforeAttempt(HandlerBeforeAttemptContext context) {
+        context.getRequest().getOriginalRequest().setSdkRequestTimeout(timeoutMillis());
+    }
+}
@@ -0,0 +1,218 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import no.unit.nva.database.interfaces.DynamoEntry;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.model.BulkWriteReport;
+import no.unit.nva.model.Validable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes many entries with BatchWriteItem requests. The entries are split in batches of 25, the maximum size of a
+ * BatchWriteItem request, and the batches are written concurrently by a bounded pool of daemon threads, which is
+ * created once per writer and shared by all its writes. Each batch is written, and its unprocessed items retried, by a
+ * {@link BatchWrite}. BatchWriteItem does not support conditions, so existing entries with the same key are
+ * overwritten.
+ */
+public class BulkWriter {
+
+    public static final int MAX_BATCH_WRITE_ITEMS = 25;
+    public static final int DEFAULT_CONCURRENCY = 8;
+    public static final String INVALID_CONCURRENCY_ERROR = "Bulk write concurrency should be a positive number";
+    public static final String DUPLICATE_ENTRY_ERROR = "Duplicate entry in input";
+    public static final String UNPROCESSED_ENTRY_ERROR = "Entry was not processed after all retries";
+    public static final String BULK_WRITE_INTERRUPTED_ERROR = "Bulk write was interrupted";
+    private static final String WRITER_THREAD_NAME = "bulk-writer";
+    private static final Logger logger = LoggerFactory.getLogger(BulkWriter.class);
+
+    private final BatchWrite batchWrite;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a bulk writer.
+     *
+     * @param batchWrite  writes a single batch of at most {@link #MAX_BATCH_WRITE_ITEMS} entries.
+     * @param concurrency the maximum number of batches that are written at the same time.
+     */
+    public BulkWriter(BatchWrite batchWrite, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(INVALID_CONCURRENCY_ERROR);
+        }
+        this.batchWrite = batchWrite;
+        this.executor = createDaemonExecutor(concurrency);
+    }
+
+    /**
+     * Validates, converts and writes the entries. Invalid and duplicate entries are reported as failed without being
+     * written.
+     *
+     * @param entries    the entries to be written.
+     * @param identifier the identifier of an entry in the report, e.g. the username.
+     * @param converter  converts a valid entry to a database entry.
+     * @param <D>        the type of the entries.
+     * @return a report with the written and the failed entries.
+     */
+    public <D extends Validable> BulkWriteReport write(Collection<D> entries, Function<D, String> identifier,
+                                                       EntryConverter<D> converter) {
+        BulkWriteReport report = new BulkWriteReport();
+        Map<String, DynamoEntry> itemsByIdentifier = new LinkedHashMap<>();
+        for (D entry : entries) {
+            prepareItem(entry, identifier, converter, itemsByIdentifier, report);
+        }
+        writeItems(itemsByIdentifier, report);
+        return report;
+    }
+
+    private <D extends Validable> void prepareItem(D entry, Function<D, String> identifier,
+                                                   EntryConverter<D> converter,
+                                                   Map<String, DynamoEntry> itemsByIdentifier,
+                                                   BulkWriteReport report) {
+        if (isNull(entry)) {
+            report.addFailure(null, DatabaseServiceImpl.EMPTY_INPUT_ERROR_MESSAGE);
+            return;
+        }
+        String id = identifier.apply(entry);
+        if (!entry.isValid()) {
+            report.addFailure(id, entry.exceptionWhenInvalid().getMessage());
+        } else if (itemsByIdentifier.containsKey(id)) {
+            report.addFailure(id, DUPLICATE_ENTRY_ERROR);
+        } else {
+            try {
+                itemsByIdentifier.put(id, converter.convert(entry));
+            } catch (InvalidEntryInternalException e) {
+                report.addFailure(id, e.getMessage());
+            }
+        }
+    }
+
+    private void writeItems(Map<String, DynamoEntry> itemsByIdentifier, BulkWriteReport report) {
+        if (itemsByIdentifier.isEmpty()) {
+            return;
+        }
+        List<List<DynamoEntry>> batches = splitInBatches(new ArrayList<>(itemsByIdentifier.values()));
+        Map<String, String> failures = writeBatchesConcurrently(batches);
+        itemsByIdentifier.forEach((id, item) -> {
+            String failureReason = failures.get(item.getPrimaryHashKey());
+            if (isNull(failureReason)) {
+                report.addWritten(id);
+            } else {
+                report.addFailure(id, failureReason);
+            }
+        });
+    }
+
+    private Map<String, String> writeBatchesConcurrently(List<List<DynamoEntry>> batches) {
+        List<Future<List<FailedBatch>>> results = new ArrayList<>();
+        try {
+            for (List<DynamoEntry> batch : batches) {
+                results.add(executor.submit(() -> batchWrite.write(batch)));
+            }
+            Map<String, String> failures = new HashMap<>();
+            for (int index = 0; index < batches.size(); index++) {
+                collectFailures(batches.get(index), results.get(index), failures);
+            }
+            return failures;
+        } finally {
+            results.forEach(result -> result.cancel(true));
+        }
+    }
+
+    private void collectFailures(List<DynamoEntry> batch, Future<List<FailedBatch>> result,
+                                 Map<String, String> failures) {
+        try {
+            for (FailedBatch failedBatch : result.get()) {
+                String reason = failureReason(failedBatch.getException());
+                unprocessedPrimaryKeys(failedBatch).forEach(primaryKey -> failures.put(primaryKey, reason));
+            }
+        } catch (ExecutionException e) {
+            logger.error(e.getCause().getMessage(), e.getCause());
+            String reason = failureReason(e.getCause());
+            batch.forEach(item -> failures.put(item.getPrimaryHashKey(), reason));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.forEach(item -> failures.put(item.getPrimaryHashKey(), BULK_WRITE_INTERRUPTED_ERROR));
+        }
+    }
+
+    private static List<String> unprocessedPrimaryKeys(FailedBatch failedBatch) {
+        return Optional.ofNullable(failedBatch.getUnprocessedItems())
+            .stream()
+            .flatMap(unprocessedItems -> unprocessedItems.values().stream())
+            .flatMap(Collection::stream)
+            .map(WriteRequest::getPutRequest)
+            .filter(putRequest -> nonNull(putRequest) && nonNull(putRequest.getItem()))
+            .map(putRequest -> putRequest.getItem().get(PRIMARY_KEY_HASH_KEY))
+            .filter(Objects::nonNull)
+            .map(AttributeValue::getS)
+            .collect(Collectors.toList());
+    }
+
+    private static String failureReason(Throwable exception) {
+        return Optional.ofNullable(exception)
+            .map(Throwable::getMessage)
+            .orElse(UNPROCESSED_ENTRY_ERROR);
+    }
+
+    private static ExecutorService createDaemonExecutor(int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, WRITER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static List<List<DynamoEntry>> splitInBatches(List<DynamoEntry> items) {
+        List<List<DynamoEntry>> batches = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += MAX_BATCH_WRITE_ITEMS) {
+            batches.add(items.subList(start, Math.min(start + MAX_BATCH_WRITE_ITEMS, items.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * Converts a valid entry to a database entry.
+     *
+     * @param <D> the type of the entries.
+     */
+    @FunctionalInterface
+    public interface EntryConverter<D> {
+
+        DynamoEntry convert(D entry) throws InvalidEntryInternalException;
+    }
+
+    /**
+     * Writes a batch of entries with a BatchWriteItem request, retrying the unprocessed items.
+     */
+    @FunctionalInterface
+    public interface BatchWrite {
+
+        /**
+         * Writes the batch.
+         *
+         * @param batch the entries of the batch.
+         * @return the items that could not be written, in the format of the DynamoDBMapper.
+         */
+        List<FailedBatch> write(List<DynamoEntry> batch);
+    }
+}
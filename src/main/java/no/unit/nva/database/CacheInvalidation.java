@@ -0,0 +1,81 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+
+import java.util.Objects;
+import java.util.Optional;
+import no.unit.nva.database.interfaces.DynamoEntry;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * A change of a user or a role entry that cached copies of the entry should be dropped for.
+ */
+public class CacheInvalidation {
+
+    private final String entityType;
+    private final String key;
+
+    public CacheInvalidation(String entityType, String key) {
+        this.entityType = entityType;
+        this.key = key;
+    }
+
+    /**
+     * Creates the invalidation for an entry from its primary hash key, e.g. {@code USER#someUsername}.
+     *
+     * @param primaryHashKey the primary hash key of the changed entry.
+     * @return the invalidation, or empty when the key does not belong to a user or a role.
+     */
+    public static Optional<CacheInvalidation> fromPrimaryHashKey(String primaryHashKey) {
+        if (isNull(primaryHashKey)) {
+            return Optional.empty();
+        }
+        int delimiter = primaryHashKey.indexOf(DynamoEntry.FIELD_DELIMITER);
+        if (delimiter < 0) {
+            return Optional.empty();
+        }
+        String entityType = primaryHashKey.substring(0, delimiter);
+        String key = primaryHashKey.substring(delimiter + DynamoEntry.FIELD_DELIMITER.length());
+        if (UserDb.TYPE.equals(entityType) || RoleDb.TYPE.equals(entityType)) {
+            return Optional.of(new CacheInvalidation(entityType, key));
+        }
+        return Optional.empty();
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return Objects.equals(getEntityType(), that.getEntityType())
+            && Objects.equals(getKey(), that.getKey());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getEntityType(), getKey());
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return "CacheInvalidation{"
+            + "entityType='" + entityType + '\''
+            + ", key='" + key + '\''
+            + '}';
+    }
+}
@@ -0,0 +1,113 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import nva.commons.utils.Environment;
+
+/**
+ * A compact, shared log of the changes of users and roles. The keys of each entity type are hashed into a fixed number
+ * of buckets, and the log is a single table entry holding a generation counter for every bucket. Recording a change
+ * increments the counter of the bucket of the changed key, and a cache finds out which of its entries may be stale by
+ * comparing the counters with the ones it saw last, which costs one small read however many entries are cached.
+ */
+public class CacheInvalidationLog {
+
+    public static final int BUCKETS = 64;
+    public static final String LOG_ENTRY_KEY = "CACHE_INVALIDATION_LOG";
+    private static final String BUCKET_DELIMITER = "_";
+    private static final String ATTRIBUTE_NAME_PLACEHOLDER_PREFIX = "#b";
+    private static final String INCREMENT_PLACEHOLDER = ":one";
+    private static final String ADD_EXPRESSION_PREFIX = "ADD ";
+    private static final String INCREMENT = "1";
+
+    private final AmazonDynamoDB dynamoDbClient;
+    private final String tableName;
+
+    public CacheInvalidationLog(AmazonDynamoDB dynamoDbClient, Environment environment) {
+        this(dynamoDbClient, environment.readEnv(DatabaseService.USERS_AND_ROLES_TABLE_NAME_ENV_VARIABLE));
+    }
+
+    public CacheInvalidationLog(AmazonDynamoDB dynamoDbClient, String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    /**
+     * The name of the counter of the bucket a key belongs to.
+     *
+     * @param entityType the type of the entry, {@link UserDb#TYPE} or {@link RoleDb#TYPE}.
+     * @param key        the username or the role name.
+     * @return the name of the bucket attribute in the log entry.
+     */
+    public static String bucketOf(String entityType, String key) {
+        return entityType + BUCKET_DELIMITER + Math.floorMod(key.hashCode(), BUCKETS);
+    }
+
+    /**
+     * Increments the counters of the buckets of the changed keys with a single write.
+     *
+     * @param invalidations the changed users and roles.
+     */
+    public void recordChanges(Collection<CacheInvalidation> invalidations) {
+        Set<String> buckets = invalidations.stream()
+            .map(invalidation -> bucketOf(invalidation.getEntityType(), invalidation.getKey()))
+            .collect(Collectors.toCollection(TreeSet::new));
+        if (buckets.isEmpty()) {
+            return;
+        }
+        Map<String, String> attributeNames = new HashMap<>();
+        for (String bucket : buckets) {
+            attributeNames.put(ATTRIBUTE_NAME_PLACEHOLDER_PREFIX + attributeNames.size(), bucket);
+        }
+        String updateExpression = attributeNames.keySet().stream()
+            .map(placeholder -> placeholder + " " + INCREMENT_PLACEHOLDER)
+            .collect(Collectors.joining(", ", ADD_EXPRESSION_PREFIX, ""));
+        dynamoDbClient.updateItem(new UpdateItemRequest()
+            .withTableName(tableName)
+            .withKey(logEntryKey())
+            .withUpdateExpression(updateExpression)
+            .withExpressionAttributeNames(attributeNames)
+            .withExpressionAttributeValues(Map.of(INCREMENT_PLACEHOLDER, new AttributeValue().withN(INCREMENT))));
+    }
+
+    /**
+     * Reads the counters of all the buckets that have changed at least once.
+     *
+     * @return the counters keyed by bucket name.
+     */
+    public Map<String, Long> readGenerations() {
+        GetItemResult result = dynamoDbClient.getItem(new GetItemRequest()
+            .withTableName(tableName)
+            .withKey(logEntryKey())
+            .withConsistentRead(false));
+        Map<String, Long> generations = new HashMap<>();
+        if (isNull(result.getItem())) {
+            return generations;
+        }
+        result.getItem().forEach((attribute, value) -> {
+            if (!PRIMARY_KEY_HASH_KEY.equals(attribute) && !PRIMARY_KEY_RANGE_KEY.equals(attribute)) {
+                generations.put(attribute, Long.parseLong(value.getN()));
+            }
+        });
+        return generations;
+    }
+
+    private static Map<String, AttributeValue> logEntryKey() {
+        return Map.of(
+            PRIMARY_KEY_HASH_KEY, new AttributeValue(LOG_ENTRY_KEY),
+            PRIMARY_KEY_RANGE_KEY, new AttributeValue(LOG_ENTRY_KEY));
+    }
+}
@@ -0,0 +1,162 @@
+package no.unit.nva.database;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * A snapshot of the memory used by an {@link OffHeapUserCache} together with the heap, the direct memory and the
+ * garbage collections of the JVM, so that the effect of moving cached users off the heap can be observed.
+ */
+public class CacheMemoryStatistics {
+
+    public static final String DIRECT_BUFFER_POOL = "direct";
+
+    private final long offHeapCapacityBytes;
+    private final long offHeapAllocatedBytes;
+    private final long offHeapLiveBytes;
+    private final long indexBytes;
+    private final long heapUsedBytes;
+    private final long heapMaxBytes;
+    private final long directMemoryUsedBytes;
+    private final long garbageCollections;
+    private final long garbageCollectionMillis;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param offHeapCapacityBytes    the bytes the cache may allocate outside the heap.
+     * @param offHeapAllocatedBytes   the bytes the cache has allocated outside the heap.
+     * @param offHeapLiveBytes        the bytes of the allocated memory holding users that can still be served.
+     * @param indexBytes              the heap bytes of the index of the cache.
+     * @param heapUsedBytes           the used heap of the JVM.
+     * @param heapMaxBytes            the maximum heap of the JVM, or -1 if it is undefined.
+     * @param directMemoryUsedBytes   the direct memory used by all the direct buffers of the JVM.
+     * @param garbageCollections      the number of garbage collections since the JVM started.
+     * @param garbageCollectionMillis the time spent in garbage collections since the JVM started.
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    public CacheMemoryStatistics(long offHeapCapacityBytes, long offHeapAllocatedBytes, long offHeapLiveBytes,
+                                 long indexBytes, long heapUsedBytes, long heapMaxBytes, long directMemoryUsedBytes,
+                                 long garbageCollections, long garbageCollectionMillis) {
+        this.offHeapCapacityBytes = offHeapCapacityBytes;
+        this.offHeapAllocatedBytes = offHeapAllocatedBytes;
+        this.offHeapLiveBytes = offHeapLiveBytes;
+        this.indexBytes = indexBytes;
+        this.heapUsedBytes = heapUsedBytes;
+        this.heapMaxBytes = heapMaxBytes;
+        this.directMemoryUsedBytes = directMemoryUsedBytes;
+        this.garbageCollections = garbageCollections;
+        this.garbageCollectionMillis = garbageCollectionMillis;
+    }
+
+    /**
+     * Takes a snapshot of the memory of the JVM along with the given figures of a cache.
+     *
+     * @param offHeapCapacityBytes  the bytes the cache may allocate outside the heap.
+     * @param offHeapAllocatedBytes the bytes the cache has allocated outside the heap.
+     * @param offHeapLiveBytes      the bytes of the allocated memory holding users that can still be served.
+     * @param indexBytes            the heap bytes of the index of the cache.
+     * @return the snapshot.
+     */
+    public static CacheMemoryStatistics snapshot(long offHeapCapacityBytes, long offHeapAllocatedBytes,
+                                                 long offHeapLiveBytes, long indexBytes) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long directMemoryUsed = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> DIRECT_BUFFER_POOL.equals(pool.getName()))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, collector.getCollectionCount());
+            collectionMillis += Math.max(0, collector.getCollectionTime());
+        }
+        return new CacheMemoryStatistics(offHeapCapacityBytes, offHeapAllocatedBytes, offHeapLiveBytes, indexBytes,
+            heap.getUsed(), heap.getMax(), directMemoryUsed, collections, collectionMillis);
+    }
+
+    public long getOffHeapCapacityBytes() {
+        return offHeapCapacityBytes;
+    }
+
+    public long getOffHeapAllocatedBytes() {
+        return offHeapAllocatedBytes;
+    }
+
+    public long getOffHeapLiveBytes() {
+        return offHeapLiveBytes;
+    }
+
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    public long getHeapMaxBytes() {
+        return heapMaxBytes;
+    }
+
+    public long getDirectMemoryUsedBytes() {
+        return directMemoryUsedBytes;
+    }
+
+    public long getGarbageCollections() {
+        return garbageCollections;
+    }
+
+    public long getGarbageCollectionMillis() {
+        return garbageCollectionMillis;
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CacheMemoryStatistics that = (CacheMemoryStatistics) o;
+        return getOffHeapCapacityBytes() == that.getOffHeapCapacityBytes()
+            && getOffHeapAllocatedBytes() == that.getOffHeapAllocatedBytes()
+            && getOffHeapLiveBytes() == that.getOffHeapLiveBytes()
+            && getIndexBytes() == that.getIndexBytes()
+            && getHeapUsedBytes() == that.getHeapUsedBytes()
+            && getHeapMaxBytes() == that.getHeapMaxBytes()
+            && getDirectMemoryUsedBytes() == that.getDirectMemoryUsedBytes()
+            && getGarbageCollections() == that.getGarbageCollections()
+            && getGarbageCollectionMillis() == that.getGarbageCollectionMillis();
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getOffHeapCapacityBytes(), getOffHeapAllocatedBytes(), getOffHeapLiveBytes(),
+            getIndexBytes(), getHeapUsedBytes(), getHeapMaxBytes(), getDirectMemoryUsedBytes(),
+            getGarbageCollections(), getGarbageCollectionMillis());
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return "CacheMemoryStatistics{"
+            + "offHeapCapacityBytes=" + offHeapCapacityBytes
+            + ", offHeapAllocatedBytes=" + offHeapAllocatedBytes
+            + ", offHeapLiveBytes=" + offHeapLiveBytes
+            + ", indexBytes=" + indexBytes
+            + ", heapUsedBytes=" + heapUsedBytes
+            + ", heapMaxBytes=" + heapMaxBytes
+            + ", directMemoryUsedBytes=" + directMemoryUsedBytes
+            + ", garbageCollections=" + garbageCollections
+            + ", garbageCollectionMillis=" + garbageCollectionMillis
+            + '}';
+    }
+}
@@ -0,0 +1,509 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.CacheInvalidationLog.bucketOf;
+import static no.unit.nva.database.DatabaseServiceImpl.ROLE_NOT_FOUND_MESSAGE;
+import static no.unit.nva.database.DatabaseServiceImpl.USER_NOT_FOUND_MESSAGE;
+import static no.unit.nva.utils.EnvironmentUtils.readPositiveInteger;
+import static no.unit.nva.utils.EnvironmentUtils.readPositiveNumber;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import no.unit.nva.exceptions.ConflictException;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.InvalidInputException;
+import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.exceptions.PreconditionFailedException;
+import no.unit.nva.model.BulkWriteReport;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserListPage;
+import no.unit.nva.utils.CacheStatistics;
+import no.unit.nva.utils.ExpiringLruCache;
+import no.unit.nva.utils.KeyValueCache;
+import nva.commons.utils.Environment;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * A {@link DatabaseService} that caches the users and the roles it reads in memory. The cache lives as long as the
+ * instance, i.e. as long as the Lambda container when the instance is held by a handler. The users are dropped when
+ * the same instance writes them, and expire after a time-to-live, which bounds how long a change made by another
+ * container can go unnoticed. The roles are cached by a {@link RoleCache}, which is emptied as a whole once it is
+ * older than its time-to-live. A role missing from the cache is read from the database and added to it, and a role
+ * written through the instance is replaced in it.
+ *
+ * <p>Changes made by other containers are picked up through the {@link CacheInvalidationLog}, which is filled from the
+ * table's change stream. The log is polled at most once per {@code CACHE_INVALIDATION_POLL_SECONDS} before a lookup,
+ * and the cached users and roles whose buckets have changed are dropped, so the time-to-live can be long without
+ * changed entries being served for longer than the poll interval plus the stream delay.
+ *
+ * <p>Lookups of users and roles that do not exist are cached as well, with a shorter time-to-live, so that repeated
+ * probes for a missing key do not reach the database. A missing key is forgotten when the same instance creates it.
+ * Strongly consistent reads bypass the caches and store what they read in them.
+ *
+ * <p>The users of an institution are cached by an {@link InstitutionRosterCache}, keyed by the version of the roster
+ * of the institution, which the change stream increments for every write of a user. Listing the users of an institution
+ * costs one small read of the version while the roster has not changed. A write of a user through this instance drops
+ * the cached rosters of the institution of the user, and of its previous institution when the user is cached, without
+ * waiting for the stream.
+ *
+ * <p>The size and the time-to-live of the caches are read from the env variables {@code CACHE_MAX_ENTRIES},
+ * {@code CACHE_TTL_SECONDS} and {@code NEGATIVE_CACHE_TTL_SECONDS}, the time-to-live of the role cache from
+ * {@code ROLE_CACHE_TTL_SECONDS}, and the bounds of the roster cache from {@code ROSTER_CACHE_MAX_ENTRIES},
+ * {@code ROSTER_CACHE_MAX_USERS} and {@code ROSTER_CACHE_TTL_SECONDS}.
+ *
+ * <p>Long-running hosts that cache a large share of the users can keep them outside the heap by setting
+ * {@code OFF_HEAP_CACHE_MEGABYTES}. The users are then cached serialized by an {@link OffHeapUserCache} of that size
+ * holding at most {@code OFF_HEAP_CACHE_MAX_ENTRIES} users, instead of as objects on the heap.
+ */
+public class CachingDatabaseService implements DatabaseService {
+
+    public static final String CACHE_MAX_ENTRIES_ENV_VARIABLE = "CACHE_MAX_ENTRIES";
+    public static final String CACHE_TTL_SECONDS_ENV_VARIABLE = "CACHE_TTL_SECONDS";
+    public static final int DEFAULT_CACHE_MAX_ENTRIES = 1000;
+    public static final String NEGATIVE_CACHE_TTL_SECONDS_ENV_VARIABLE = "NEGATIVE_CACHE_TTL_SECONDS";
+    public static final long DEFAULT_CACHE_TTL_SECONDS = 30;
+    public static final long DEFAULT_NEGATIVE_CACHE_TTL_SECONDS = 5;
+    public static final String ROLE_CACHE_TTL_SECONDS_ENV_VARIABLE = "ROLE_CACHE_TTL_SECONDS";
+    public static final String CACHE_INVALIDATION_POLL_SECONDS_ENV_VARIABLE = "CACHE_INVALIDATION_POLL_SECONDS";
+    public static final String ROSTER_CACHE_MAX_ENTRIES_ENV_VARIABLE = "ROSTER_CACHE_MAX_ENTRIES";
+    public static final String ROSTER_CACHE_MAX_USERS_ENV_VARIABLE = "ROSTER_CACHE_MAX_USERS";
+    public static final String ROSTER_CACHE_TTL_SECONDS_ENV_VARIABLE = "ROSTER_CACHE_TTL_SECONDS";
+    public static final String OFF_HEAP_CACHE_MEGABYTES_ENV_VARIABLE = "OFF_HEAP_CACHE_MEGABYTES";
+    public static final String OFF_HEAP_CACHE_MAX_ENTRIES_ENV_VARIABLE = "OFF_HEAP_CACHE_MAX_ENTRIES";
+    private static final long OFF_HEAP_CACHE_DISABLED = 0;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final DatabaseService delegate;
+    private final KeyValueCache<String, UserDto> userCache;
+    private final RoleCache roleCache;
+    private final ExpiringLruCache<String, Boolean> missingUserCache;
+    private final ExpiringLruCache<String, Boolean> missingRoleCache;
+    private final InvalidationWatcher invalidationWatcher;
+    private final InstitutionRosterCache rosterCache;
+    private final InvalidationWatcher.InvalidationListener cacheInvalidator = new CacheInvalidator();
+
+    /**
+     * Creates a caching service with the bounds given in the environment.
+     *
+     * @param delegate    the service that reads from and writes to the database.
+     * @param environment the environment containing the cache bounds.
+     */
+    @JacocoGenerated
+    public CachingDatabaseService(DatabaseService delegate, Environment environment) {
+        this(delegate, environment, DynamoDbRetryPolicy.createClient(environment));
+    }
+
+    /**
+     * Creates a caching service with the bounds given in the environment.
+     *
+     * @param delegate       the service that reads from and writes to the database.
+     * @param environment    the environment containing the cache bounds.
+     * @param dynamoDbClient the client reading the cache invalidation log and the roster versions.
+     */
+    public CachingDatabaseService(DatabaseService delegate, Environment environment, AmazonDynamoDB dynamoDbClient) {
+        this(delegate,
+            createUserCache(environment),
+            new RoleCache(readRoleCacheTimeToLive(environment), TimeUnit.SECONDS),
+            new ExpiringLruCache<>(readMaxEntries(environment), readNegativeTimeToLive(environment), TimeUnit.SECONDS),
+            new ExpiringLruCache<>(readMaxEntries(environment), readNegativeTimeToLive(environment), TimeUnit.SECONDS),
+            new InvalidationWatcher(new CacheInvalidationLog(dynamoDbClient, environment),
+                readInvalidationPollInterval(environment), TimeUnit.SECONDS),
+            createRosterCache(dynamoDbClient, environment));
+    }
+
+    /**
+     * Creates a caching service with the given caches.
+     *
+     * @param delegate            the service that reads from and writes to the database.
+     * @param userCache           the cache of the existing users.
+     * @param roleCache           the cache of the existing roles.
+     * @param missingUserCache    the cache of the usernames that were not found.
+     * @param missingRoleCache    the cache of the role names that were not found.
+     * @param invalidationWatcher reports the users and roles changed by other containers.
+     * @param rosterCache         the cache of the users of the institutions.
+     */
+    public CachingDatabaseService(DatabaseService delegate, KeyValueCache<String, UserDto> userCache,
+                                  RoleCache roleCache,
+                                  ExpiringLruCache<String, Boolean> missingUserCache,
+                                  ExpiringLruCache<String, Boolean> missingRoleCache,
+                                  InvalidationWatcher invalidationWatcher,
+                                  InstitutionRosterCache rosterCache) {
+        this.delegate = delegate;
+        this.userCache = userCache;
+        this.roleCache = roleCache;
+        this.missingUserCache = missingUserCache;
+        this.missingRoleCache = missingRoleCache;
+        this.invalidationWatcher = invalidationWatcher;
+        this.rosterCache = rosterCache;
+    }
+
+    @Override
+    public UserDto getUser(UserDto queryObject) throws InvalidEntryInternalException, NotFoundException {
+        invalidationWatcher.pollIfDue(cacheInvalidator);
+        String username = queryObject.getUsername();
+        Optional<UserDto> cachedUser = userCache.get(username);
+        if (cachedUser.isPresent()) {
+            return cachedUser.get();
+        }
+        if (isKnownToBeMissing(missingUserCache, username)) {
+            throw new NotFoundException(USER_NOT_FOUND_MESSAGE + username);
+        }
+        try {
+            UserDto user = delegate.getUser(queryObject);
+            userCache.put(user.getUsername(), user);
+            return user;
+        } catch (NotFoundException e) {
+            rememberMissing(missingUserCache, username);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<UserDto> getUserAsOptional(UserDto queryObject) throws InvalidEntryInternalException {
+        invalidationWatcher.pollIfDue(cacheInvalidator);
+        String username = queryObject.getUsername();
+        Optional<UserDto> cachedUser = userCache.get(username);
+        if (cachedUser.isPresent()) {
+            return cachedUser;
+        }
+        if (isKnownToBeMissing(missingUserCache, username)) {
+            return Optional.empty();
+        }
+        Optional<UserDto> user = delegate.getUserAsOptional(queryObject);
+        user.ifPresentOrElse(existingUser -> userCache.put(existingUser.getUsername(), existingUser),
+            () -> rememberMissing(missingUserCache, username));
+        return user;
+    }
+
+    @Override
+    public Optional<UserDto> getUserAsOptional(UserDto queryObject, ConsistentReads consistency)
+        throws InvalidEntryInternalException {
+        if (consistency != ConsistentReads.CONSISTENT) {
+            return getUserAsOptional(queryObject);
+        }
+        Optional<UserDto> user = delegate.getUserAsOptional(queryObject, consistency);
+        user.ifPresentOrElse(existingUser -> userCache.put(existingUser.getUsername(), existingUser),
+            () -> invalidateUser(queryObject.getUsername()));
+        return user;
+    }
+
+    /**
+     * Returns the cached users and fetches only the users that are neither cached nor known to be missing.
+     *
+     * @param usernames the usernames of the users to be fetched.
+     * @return the found users keyed by username.
+     * @throws InvalidEntryInternalException when one of the usernames is blank.
+     */
+    @Override
+    public Map<String, UserDto> getUsers(Collection<String> usernames) throws InvalidEntryInternalException {
+        invalidationWatcher.pollIfDue(cacheInvalidator);
+        Map<String, UserDto> users = new HashMap<>();
+        List<String> uncachedUsernames = new ArrayList<>();
+        for (String username : usernames) {
+            Optional<UserDto> cachedUser = userCache.get(username);
+            if (cachedUser.isPresent()) {
+                users.put(username, cachedUser.get());
+            } else if (!isKnownToBeMissing(missingUserCache, username)) {
+                uncachedUsernames.add(username);
+            }
+        }
+        if (!uncachedUsernames.isEmpty()) {
+            Map<String, UserDto> fetchedUsers = delegate.getUsers(uncachedUsernames);
+            fetchedUsers.forEach(userCache::put);
+            users.putAll(fetchedUsers);
+            uncachedUsernames.stream()
+                .filter(username -> !fetchedUsers.containsKey(username))
+                .forEach(username -> rememberMissing(missingUserCache, username));
+        }
+        return users;
+    }
+
+    @Override
+    public RoleDto getRole(RoleDto queryObject) throws InvalidEntryInternalException, NotFoundException {
+        invalidationWatcher.pollIfDue(cacheInvalidator);
+        String roleName = queryObject.getRoleName();
+        Optional<RoleDto> cachedRole = roleCache.getRole(roleName);
+        if (cachedRole.isPresent()) {
+            return cachedRole.get();
+        }
+        if (isKnownToBeMissing(missingRoleCache, roleName)) {
+            throw new NotFoundException(ROLE_NOT_FOUND_MESSAGE + roleName);
+        }
+        try {
+            RoleDto role = delegate.getRole(queryObject);
+            roleCache.put(role);
+            return role;
+        } catch (NotFoundException e) {
+            rememberMissing(missingRoleCache, roleName);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) throws InvalidEntryInternalException {
+        invalidationWatcher.pollIfDue(cacheInvalidator);
+        String roleName = queryObject.getRoleName();
+        Optional<RoleDto> cachedRole = roleCache.getRole(roleName);
+        if (cachedRole.isPresent()) {
+            return cachedRole;
+        }
+        if (isKnownToBeMissing(missingRoleCache, roleName)) {
+            return Optional.empty();
+        }
+        Optional<RoleDto> role = delegate.getRoleAsOptional(queryObject);
+        role.ifPresentOrElse(roleCache::put,
+            () -> rememberMissing(missingRoleCache, roleName));
+        return role;
+    }
+
+    @Override
+    public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject, ConsistentReads consistency)
+        throws InvalidEntryInternalException {
+        if (consistency != ConsistentReads.CONSISTENT) {
+            return getRoleAsOptional(queryObject);
+        }
+        Optional<RoleDto> role = delegate.getRoleAsOptional(queryObject, consistency);
+        role.ifPresentOrElse(roleCache::put, () -> invalidateRole(queryObject.getRoleName()));
+        return role;
+    }
+
+    @Override
+    public List<UserDto> listUsers(String institutionId) throws InvalidEntryInternalException {
+        return rosterCache.getRoster(institutionId, () -> delegate.listUsers(institutionId));
+    }
+
+    /**
+     * Returns the usernames of the cached roster of the institution, or queries them if the roster is not cached.
+     *
+     * @param institutionId the institution.
+     * @return the usernames of the users of the institution.
+     */
+    @Override
+    public List<String> listUsernames(String institutionId) {
+        return rosterCache.getCachedRoster(institutionId)
+            .map(roster -> roster.stream().map(UserDto::getUsername).collect(Collectors.toList()))
+            .orElseGet(() -> delegate.listUsernames(institutionId));
+    }
+
+    @Override
+    public Stream<UserDto> streamUsers(String institutionId) throws InvalidEntryInternalException {
+        return rosterCache.streamRoster(institutionId, () -> delegate.streamUsers(institutionId));
+    }
+
+    @Override
+    public UserListPage listUsers(String institutionId, int pageSize, String cursor)
+        throws InvalidEntryInternalException, InvalidInputException {
+        return delegate.listUsers(institutionId, pageSize, cursor);
+    }
+
+    @Override
+    public UserDto addUser(UserDto user)
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        Set<String> changedInstitutions = institutionsChangedBy(Collections.singletonList(user));
+        try {
+            return delegate.addUser(user);
+        } finally {
+            invalidateUser(user);
+            changedInstitutions.forEach(rosterCache::invalidate);
+        }
+    }
+
+    @Override
+    public RoleDto addRole(RoleDto roleDto)
+        throws ConflictException, InvalidInputException, InvalidEntryInternalException {
+        RoleDto addedRole;
+        try {
+            addedRole = delegate.addRole(roleDto);
+        } finally {
+            invalidateRole(roleDto);
+        }
+        roleCache.put(addedRole);
+        return addedRole;
+    }
+
+    @Override
+    public BulkWriteReport addUsers(Collection<UserDto> users) {
+        Set<String> changedInstitutions = institutionsChangedBy(users);
+        BulkWriteReport report = delegate.addUsers(users);
+        report.getWritten().forEach(this::invalidateUser);
+        changedInstitutions.forEach(rosterCache::invalidate);
+        return report;
+    }
+
+    @Override
+    public BulkWriteReport addRoles(Collection<RoleDto> roles) {
+        BulkWriteReport report = delegate.addRoles(roles);
+        report.getWritten().forEach(this::invalidateRole);
+        return report;
+    }
+
+    @Override
+    public UserDto updateUser(UserDto user)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException {
+        Set<String> changedInstitutions = institutionsChangedBy(Collections.singletonList(user));
+        try {
+            return delegate.updateUser(user);
+        } finally {
+            invalidateUser(user);
+            changedInstitutions.forEach(rosterCache::invalidate);
+        }
+    }
+
+    @Override
+    public UserDto updateUser(UserDto user, String expectedVersion)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, PreconditionFailedException {
+        Set<String> changedInstitutions = institutionsChangedBy(Collections.singletonList(user));
+        try {
+            return delegate.updateUser(user, expectedVersion);
+        } finally {
+            invalidateUser(user);
+            changedInstitutions.forEach(rosterCache::invalidate);
+        }
+    }
+
+    public CacheStatistics getUserCacheStatistics() {
+        return userCache.statistics();
+    }
+
+    /**
+     * Reports the memory used by the user cache when the users are cached outside the heap.
+     *
+     * @return the memory statistics of the off-heap user cache, or empty when the users are cached on the heap.
+     */
+    public Optional<CacheMemoryStatistics> getUserCacheMemoryStatistics() {
+        return userCache instanceof OffHeapUserCache
+            ? Optional.of(((OffHeapUserCache) userCache).memoryStatistics())
+            : Optional.empty();
+    }
+
+    public CacheStatistics getRosterCacheStatistics() {
+        return rosterCache.statistics();
+    }
+
+    private void invalidateUser(UserDto user) {
+        Optional.ofNullable(user).map(UserDto::getUsername).ifPresent(this::invalidateUser);
+    }
+
+    private void invalidateUser(String username) {
+        userCache.invalidate(username);
+        missingUserCache.invalidate(username);
+    }
+
+    /*
+     * The institutions of the written users and, for the users that are cached, their institutions before the write,
+     * since a user moved to another institution changes the roster of both.
+     */
+    private Set<String> institutionsChangedBy(Collection<UserDto> users) {
+        Set<String> institutions = new HashSet<>();
+        for (UserDto user : users) {
+            if (nonNull(user)) {
+                institutions.add(user.getInstitution());
+                Optional.ofNullable(user.getUsername())
+                    .flatMap(userCache::get)
+                    .map(UserDto::getInstitution)
+                    .ifPresent(institutions::add);
+            }
+        }
+        return institutions;
+    }
+
+    private void invalidateRole(RoleDto role) {
+        Optional.ofNullable(role).map(RoleDto::getRoleName).ifPresent(this::invalidateRole);
+    }
+
+    private void invalidateRole(String roleName) {
+        roleCache.invalidateIf(roleName::equals);
+        missingRoleCache.invalidate(roleName);
+    }
+
+    private class CacheInvalidator implements InvalidationWatcher.InvalidationListener {
+
+        @Override
+        public void invalidateBuckets(Set<String> buckets) {
+            Predicate<String> changedUser = username -> buckets.contains(bucketOf(UserDb.TYPE, username));
+            Predicate<String> changedRole = roleName -> buckets.contains(bucketOf(RoleDb.TYPE, roleName));
+            userCache.invalidateIf(changedUser);
+            missingUserCache.invalidateIf(changedUser);
+            roleCache.invalidateIf(changedRole);
+            missingRoleCache.invalidateIf(changedRole);
+        }
+
+        @Override
+        public void invalidateAll() {
+            userCache.invalidateAll();
+            missingUserCache.invalidateAll();
+            roleCache.invalidateIf(roleName -> true);
+            missingRoleCache.invalidateAll();
+        }
+    }
+
+    private static boolean isKnownToBeMissing(ExpiringLruCache<String, Boolean> missingKeys, String key) {
+        return nonNull(key) && missingKeys.get(key).isPresent();
+    }
+
+    private static void rememberMissing(ExpiringLruCache<String, Boolean> missingKeys, String key) {
+        if (nonNull(key)) {
+            missingKeys.put(key, Boolean.TRUE);
+        }
+    }
+
+    private static InstitutionRosterCache createRosterCache(AmazonDynamoDB dynamoDbClient, Environment environment) {
+        int maxRosters = readPositiveInteger(environment, ROSTER_CACHE_MAX_ENTRIES_ENV_VARIABLE,
+            InstitutionRosterCache.DEFAULT_MAX_ROSTERS);
+        long timeToLive = readPositiveNumber(environment, ROSTER_CACHE_TTL_SECONDS_ENV_VARIABLE,
+            InstitutionRosterCache.DEFAULT_TIME_TO_LIVE_SECONDS);
+        int maxRosterSize = readPositiveInteger(environment, ROSTER_CACHE_MAX_USERS_ENV_VARIABLE,
+            InstitutionRosterCache.DEFAULT_MAX_ROSTER_SIZE);
+        return new InstitutionRosterCache(new InstitutionRosterVersions(dynamoDbClient, environment),
+            new ExpiringLruCache<>(maxRosters, timeToLive, TimeUnit.SECONDS), maxRosterSize);
+    }
+
+    private static KeyValueCache<String, UserDto> createUserCache(Environment environment) {
+        long offHeapMegabytes = readPositiveNumber(environment, OFF_HEAP_CACHE_MEGABYTES_ENV_VARIABLE,
+            OFF_HEAP_CACHE_DISABLED);
+        if (offHeapMegabytes == OFF_HEAP_CACHE_DISABLED) {
+            return new ExpiringLruCache<>(readMaxEntries(environment), readTimeToLive(environment), TimeUnit.SECONDS);
+        }
+        int maxEntries = readPositiveInteger(environment, OFF_HEAP_CACHE_MAX_ENTRIES_ENV_VARIABLE,
+            OffHeapUserCache.DEFAULT_MAX_ENTRIES);
+        return new OffHeapUserCache(maxEntries, offHeapMegabytes * BYTES_PER_MEGABYTE, readTimeToLive(environment),
+            TimeUnit.SECONDS);
+    }
+
+    private static int readMaxEntries(Environment environment) {
+        return readPositiveInteger(environment, CACHE_MAX_ENTRIES_ENV_VARIABLE, DEFAULT_CACHE_MAX_ENTRIES);
+    }
+
+    private static long readTimeToLive(Environment environment) {
+        return readPositiveNumber(environment, CACHE_TTL_SECONDS_ENV_VARIABLE, DEFAULT_CACHE_TTL_SECONDS);
+    }
+
+    private static long readRoleCacheTimeToLive(Environment environment) {
+        return readPositiveNumber(environment, ROLE_CACHE_TTL_SECONDS_ENV_VARIABLE,
+            RoleCache.DEFAULT_TIME_TO_LIVE_SECONDS);
+    }
+
+    private static long readInvalidationPollInterval(Environment environment) {
+        return readPositiveNumber(environment, CACHE_INVALIDATION_POLL_SECONDS_ENV_VARIABLE,
+            InvalidationWatcher.DEFAULT_POLL_INTERVAL_SECONDS);
+    }
+
+    private static long readNegativeTimeToLive(Environment environment) {
+        return readPositiveNumber(environment, NEGATIVE_CACHE_TTL_SECONDS_ENV_VARIABLE,
+            DEFAULT_NEGATIVE_CACHE_TTL_SECONDS);
+    }
+}
@@ -0,0 +1,137 @@
+package no.unit.nva.database;
+
+import static no.unit.nva.database.DatabaseServiceImpl.ROLE_NOT_FOUND_MESSAGE;
+import static no.unit.nva.database.DatabaseServiceImpl.USER_NOT_FOUND_MESSAGE;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import no.unit.nva.exceptions.ConflictException;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.InvalidInputException;
+import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.exceptions.PreconditionFailedException;
+import no.unit.nva.model.BulkWriteReport;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserListPage;
+
+/**
+ * A {@link DatabaseService} that lets concurrent identical lookups share one read of the database. While a user, a
+ * role or the users of an institution are being read, other threads asking for the same key wait for that read instead
+ * of sending their own, so a burst of requests for a popular key costs one read per key. A Lambda container serves one
+ * request at a time, so this is only useful when the service is shared by many threads, e.g. in a standalone server or
+ * under a {@link CachingDatabaseService} that is filled by many threads at once.
+ *
+ * <p>{@link #getUser(UserDto)} and {@link #getUserAsOptional(UserDto)} share their reads, and so do the two role
+ * lookups. The lists of users are shared as unmodifiable lists. Writes, strongly consistent reads, which must not
+ * return the result of a read that started before them, and the other reads are passed through.
+ */
+public class CoalescingDatabaseService implements DatabaseService {
+
+    private final DatabaseService delegate;
+    private final SingleFlight<String, Optional<UserDto>> userLookups = new SingleFlight<>();
+    private final SingleFlight<String, Optional<RoleDto>> roleLookups = new SingleFlight<>();
+    private final SingleFlight<String, List<UserDto>> rosterLookups = new SingleFlight<>();
+
+    public CoalescingDatabaseService(DatabaseService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public UserDto getUser(UserDto queryObject) throws InvalidEntryInternalException, NotFoundException {
+        return getUserAsOptional(queryObject)
+            .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername()));
+    }
+
+    @Override
+    public Optional<UserDto> getUserAsOptional(UserDto queryObject) throws InvalidEntryInternalException {
+        return userLookups.load(queryObject.getUsername(), () -> delegate.getUserAsOptional(queryObject));
+    }
+
+    @Override
+    public Optional<UserDto> getUserAsOptional(UserDto queryObject, ConsistentReads consistency)
+        throws InvalidEntryInternalException {
+        return delegate.getUserAsOptional(queryObject, consistency);
+    }
+
+    @Override
+    public RoleDto getRole(RoleDto queryObject) throws InvalidEntryInternalException, NotFoundException {
+        return getRoleAsOptional(queryObject)
+            .orElseThrow(() -> new NotFoundException(ROLE_NOT_FOUND_MESSAGE + queryObject.getRoleName()));
+    }
+
+    @Override
+    public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) throws InvalidEntryInternalException {
+        return roleLookups.load(queryObject.getRoleName(), () -> delegate.getRoleAsOptional(queryObject));
+    }
+
+    @Override
+    public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject, ConsistentReads consistency)
+        throws InvalidEntryInternalException {
+        return delegate.getRoleAsOptional(queryObject, consistency);
+    }
+
+    @Override
+    public List<UserDto> listUsers(String institutionId) throws InvalidEntryInternalException {
+        return rosterLookups.load(institutionId, () -> List.copyOf(delegate.listUsers(institutionId)));
+    }
+
+    @Override
+    public Map<String, UserDto> getUsers(Collection<String> usernames) throws InvalidEntryInternalException {
+        return delegate.getUsers(usernames);
+    }
+
+    @Override
+    public List<String> listUsernames(String institutionId) {
+        return delegate.listUsernames(institutionId);
+    }
+
+    @Override
+    public Stream<UserDto> streamUsers(String institutionId) throws InvalidEntryInternalException {
+        return delegate.streamUsers(institutionId);
+    }
+
+    @Override
+    public UserListPage listUsers(String institutionId, int pageSize, String cursor)
+        throws InvalidEntryInternalException, InvalidInputException {
+        return delegate.listUsers(institutionId, pageSize, cursor);
+    }
+
+    @Override
+    public UserDto addUser(UserDto user)
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        return delegate.addUser(user);
+    }
+
+    @Override
+    public RoleDto addRole(RoleDto roleDto)
+        throws ConflictException, InvalidInputException, InvalidEntryInternalException {
+        return delegate.addRole(roleDto);
+    }
+
+    @Override
+    public BulkWriteReport addUsers(Collection<UserDto> users) {
+        return delegate.addUsers(users);
+    }
+
+    @Override
+    public BulkWriteReport addRoles(Collection<RoleDto> roles) {
+        return delegate.addRoles(roles);
+    }
+
+    @Override
+    public UserDto updateUser(UserDto user)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException {
+        return delegate.updateUser(user);
+    }
+
+    @Override
+    public UserDto updateUser(UserDto user, String expectedVersion)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, PreconditionFailedException {
+        return delegate.updateUser(user, expectedVersion);
+    }
+}
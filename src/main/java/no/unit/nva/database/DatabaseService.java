@@ -1,13 +1,20 @@
 package no.unit.nva.database;
 
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 import no.unit.nva.exceptions.ConflictException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.exceptions.PreconditionFailedException;
+import no.unit.nva.model.BulkWriteReport;
 import no.unit.nva.model.RoleDto;
 import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserListPage;
 
 public interface DatabaseService {
 
@@ -15,19 +22,41 @@ public interface DatabaseService {
 
     UserDto getUser(UserDto queryObject) throws InvalidEntryInternalException, NotFoundException;
 
+    Map<String, UserDto> getUsers(Collection<String> usernames) throws InvalidEntryInternalException;
+
     List<UserDto> listUsers(String institutionId) throws InvalidEntryInternalException;
 
+    List<String> listUsernames(String institutionId);
+
+    Stream<UserDto> streamUsers(String institutionId) throws InvalidEntryInternalException;
+
+    UserListPage listUsers(String institutionId, int pageSize, String cursor)
+        throws InvalidEntryInternalException, InvalidInputException;
+
     Optional<UserDto> getUserAsOptional(UserDto queryObject) throws InvalidEntryInternalException;
 
-    void addUser(UserDto user) throws InvalidEntryInternalException, ConflictException, InvalidInputException;
+    Optional<UserDto> getUserAsOptional(UserDto queryObject, ConsistentReads consistency)
+        throws InvalidEntryInternalException;
+
+    UserDto addUser(UserDto user) throws InvalidEntryInternalException, ConflictException, InvalidInputException;
 
-    void addRole(RoleDto roleDto)
+    RoleDto addRole(RoleDto roleDto)
         throws ConflictException, InvalidInputException, InvalidEntryInternalException;
 
-    void updateUser(UserDto user)
+    BulkWriteReport addUsers(Collection<UserDto> users);
+
+    BulkWriteReport addRoles(Collection<RoleDto> roles);
+
+    UserDto updateUser(UserDto user)
         throws InvalidEntryInternalException, NotFoundException, InvalidInputException;
 
+    UserDto updateUser(UserDto user, String expectedVersion)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, PreconditionFailedException;
+
     RoleDto getRole(RoleDto input) throws InvalidEntryInternalException, NotFoundException;
 
     Optional<RoleDto> getRoleAsOptional(RoleDto input) throws InvalidEntryInternalException;
+
+    Optional<RoleDto> getRoleAsOptional(RoleDto input, ConsistentReads consistency)
+        throws InvalidEntryInternalException;
 }
@@ -1,43 +1,56 @@
 package no.unit.nva.database;
 
 import static java.util.Objects.isNull;
-import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
 import static no.unit.nva.database.DatabaseIndexDetails.SEARCH_USERS_BY_INSTITUTION_INDEX_NAME;
-import static nva.commons.utils.JsonUtils.objectMapper;
+import static no.unit.nva.database.DatabaseIndexDetails.SECONDARY_INDEX_1_HASH_KEY;
+import static no.unit.nva.utils.EnvironmentUtils.readPositiveInteger;
 import static nva.commons.utils.attempt.Try.attempt;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTransactionLoadExpression;
-import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
-import com.amazonaws.services.dynamodbv2.datamodeling.TransactionLoadRequest;
-import com.amazonaws.services.dynamodbv2.datamodeling.TransactionWriteRequest;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
-import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
-import com.amazonaws.services.dynamodbv2.model.Condition;
-import com.amazonaws.services.dynamodbv2.model.ConditionalOperator;
-import com.amazonaws.services.dynamodbv2.model.ReturnValue;
-import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import no.unit.nva.database.interfaces.WithType;
+import java.util.stream.Stream;
+import no.unit.nva.database.interfaces.DynamoEntry;
 import no.unit.nva.exceptions.ConflictException;
 import no.unit.nva.exceptions.EmptyInputException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.exceptions.PreconditionFailedException;
+import no.unit.nva.model.BulkWriteReport;
 import no.unit.nva.model.JsonSerializable;
 import no.unit.nva.model.RoleDto;
 import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserListPage;
 import no.unit.nva.model.Validable;
 import nva.commons.utils.Environment;
 import nva.commons.utils.JacocoGenerated;
-import nva.commons.utils.SingletonCollector;
 import nva.commons.utils.attempt.Failure;
 import nva.commons.utils.attempt.Try;
 import org.slf4j.Logger;
@@ -51,29 +64,111 @@ public class DatabaseServiceImpl extends DatabaseServiceWithTableNameOverride {
     public static final String ROLE_ALREADY_EXISTS_ERROR_MESSAGE = "Role already exists: ";
     public static final String USER_NOT_FOUND_MESSAGE = "Could not find user with username: ";
     public static final String ROLE_NOT_FOUND_MESSAGE = "Could not find role: ";
+    public static final String USER_VERSION_MISMATCH_MESSAGE = "User has been modified since version: ";
 
     public static final String GET_USER_DEBUG_MESSAGE = "Getting user:";
+    public static final String GET_USERS_DEBUG_MESSAGE = "Getting users:";
     public static final String GET_ROLE_DEBUG_MESSAGE = "Getting role:";
     public static final String ADD_USER_DEBUG_MESSAGE = "Adding user:";
     public static final String ADD_ROLE_DEBUG_MESSAGE = "Adding role:";
-    public static final String NOT_USED = "NOT_USED";
+    public static final String USERNAME_ATTRIBUTE = "username";
+    public static final String USERNAME_ATTRIBUTE_PLACEHOLDER = "#" + USERNAME_ATTRIBUTE;
+    public static final String INSTITUTION_KEY_PLACEHOLDER = "#institution";
+    public static final String INSTITUTION_VALUE_PLACEHOLDER = ":institution";
+    public static final String BULK_WRITE_CONCURRENCY_ENV_VARIABLE = "BULK_WRITE_CONCURRENCY";
+    public static final String ADD_USERS_DEBUG_MESSAGE = "Adding users in bulk:";
+    public static final String ADD_ROLES_DEBUG_MESSAGE = "Adding roles in bulk:";
+    public static final String PAGINATION_NOT_CONFIGURED_ERROR = "Pagination cursor codec is not configured";
+    public static final String UNPROCESSED_KEYS_ERROR = "Users were not fetched after all retries: ";
+    public static final String READ_INTERRUPTED_ERROR = "Fetching users was interrupted";
+    public static final int MAX_BATCH_GET_KEYS = 100;
     private static final Logger logger = LoggerFactory.getLogger(DatabaseServiceImpl.class);
     private static final String UPDATE_ROLE_DEBUG_MESSAGE = "Updating role: ";
-    private final DynamoDBMapper mapper;
-    private AmazonDynamoDB dynamoDbClient;
+    private static final String HASH_KEY_PLACEHOLDER = "#hashKey";
+    private static final String VERSION_PLACEHOLDER = "#version";
+    private static final String VERSION_VALUE_PLACEHOLDER = ":version";
+    private static final String ENTRY_DOES_NOT_EXIST = "attribute_not_exists(" + HASH_KEY_PLACEHOLDER + ")";
+    private static final String ENTRY_EXISTS = "attribute_exists(" + HASH_KEY_PLACEHOLDER + ")";
+    private static final String ENTRY_HAS_VERSION =
+        ENTRY_EXISTS + " AND " + VERSION_PLACEHOLDER + " = " + VERSION_VALUE_PLACEHOLDER;
+    private static final String ENTRY_HAS_NO_VERSION =
+        ENTRY_EXISTS + " AND attribute_not_exists(" + VERSION_PLACEHOLDER + ")";
+    private static final String INSTITUTION_CONDITION =
+        INSTITUTION_KEY_PLACEHOLDER + " = " + INSTITUTION_VALUE_PLACEHOLDER;
+    private final AmazonDynamoDB dynamoDbClient;
+    private final String tableName;
+    private final UserDbCodec userCodec;
+    private final RoleDbCodec roleCodec;
+    private final PaginationCursorCodec cursorCodec;
+    private final DynamoDbRetryPolicy unprocessedItemsRetryPolicy;
+    private final BulkWriter bulkWriter;
 
     @JacocoGenerated
     public DatabaseServiceImpl() {
-        this(AmazonDynamoDBClientBuilder.defaultClient(), new Environment());
+        this(new Environment());
     }
 
+    @JacocoGenerated
+    private DatabaseServiceImpl(Environment environment) {
+        this(DynamoDbRetryPolicy.createClient(environment), environment);
+    }
+
+    @JacocoGenerated
+    public DatabaseServiceImpl(PaginationCursorCodec cursorCodec) {
+        this(new Environment(), cursorCodec);
+    }
+
+    @JacocoGenerated
+    private DatabaseServiceImpl(Environment environment, PaginationCursorCodec cursorCodec) {
+        this(DynamoDbRetryPolicy.createClient(environment), environment, cursorCodec);
+    }
+
+    /**
+     * Creates a database service that cannot list users page by page.
+     *
+     * @param dynamoDbClient the client connected to the users and roles table.
+     * @param environment    the environment.
+     */
     public DatabaseServiceImpl(AmazonDynamoDB dynamoDbClient, Environment environment) {
-        this(createMapperOverridingHardCodedTableName(dynamoDbClient, environment));
+        this(dynamoDbClient, environment, null);
+    }
+
+    /**
+     * Creates a database service.
+     *
+     * @param dynamoDbClient the client connected to the users and roles table.
+     * @param environment    the environment.
+     * @param cursorCodec    the codec of the pagination cursors or {@code null} when the users are not listed page by
+     *                       page.
+     */
+    public DatabaseServiceImpl(AmazonDynamoDB dynamoDbClient, Environment environment,
+                               PaginationCursorCodec cursorCodec) {
+        this(dynamoDbClient, environment.readEnv(USERS_AND_ROLES_TABLE_NAME_ENV_VARIABLE), cursorCodec,
+            readPositiveInteger(environment, BULK_WRITE_CONCURRENCY_ENV_VARIABLE, BulkWriter.DEFAULT_CONCURRENCY),
+            DynamoDbRetryPolicy.forUnprocessedItems(environment));
     }
 
-    public DatabaseServiceImpl(DynamoDBMapper mapper) {
+    /**
+     * Creates a database service. The users and roles are read and written with the low-level client, and converted
+     * with the {@link UserDbCodec} and the {@link RoleDbCodec}, so no DynamoDBMapper is created.
+     *
+     * @param dynamoDbClient              the client connected to the users and roles table.
+     * @param tableName                   the name of the users and roles table.
+     * @param cursorCodec                 the codec of the pagination cursors.
+     * @param bulkWriteConcurrency        the maximum number of BatchWriteItem requests sent concurrently by a bulk
+     *                                    write.
+     * @param unprocessedItemsRetryPolicy the retry policy of the unprocessed items of batch requests.
+     */
+    public DatabaseServiceImpl(AmazonDynamoDB dynamoDbClient, String tableName, PaginationCursorCodec cursorCodec,
+                               int bulkWriteConcurrency, DynamoDbRetryPolicy unprocessedItemsRetryPolicy) {
         super();
-        this.mapper = mapper;
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.roleCodec = new RoleDbCodec();
+        this.userCodec = new UserDbCodec(roleCodec);
+        this.cursorCodec = cursorCodec;
+        this.unprocessedItemsRetryPolicy = unprocessedItemsRetryPolicy;
+        this.bulkWriter = new BulkWriter(this::writeBatch, bulkWriteConcurrency);
     }
 
     @Override
@@ -82,49 +177,235 @@ public class DatabaseServiceImpl extends DatabaseServiceWithTableNameOverride {
             .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername()));
     }
 
+    /**
+     * Fetches many users with BatchGetItem requests of at most 100 keys. Unprocessed keys are retried with exponential
+     * backoff and full jitter, as long as the deadline of the invocation and the retry budget allow it. Usernames that
+     * do not exist are not included in the result.
+     *
+     * @param usernames the usernames of the users to be fetched.
+     * @return the found users keyed by username.
+     * @throws InvalidEntryInternalException when one of the usernames is blank.
+     * @throws IllegalStateException         when some keys are still unprocessed when no retry is allowed.
+     */
     @Override
-    public List<UserDto> listUsers(String institutionId) throws InvalidEntryInternalException {
-        DynamoDBQueryExpression<UserDb> listUsersQuery = createListUsersQuery(institutionId);
-        PaginatedQueryList<UserDb> users = mapper.query(UserDb.class, listUsersQuery);
-        return users.stream()
-            .map(attempt(UserDto::fromUserDb))
+    public Map<String, UserDto> getUsers(Collection<String> usernames) throws InvalidEntryInternalException {
+        logger.debug(GET_USERS_DEBUG_MESSAGE + usernames);
+        List<Map<String, AttributeValue>> keys = createUserKeys(usernames);
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (int start = 0; start < keys.size(); start += MAX_BATCH_GET_KEYS) {
+            items.addAll(batchGetItems(keys.subList(start, Math.min(start + MAX_BATCH_GET_KEYS, keys.size()))));
+        }
+        return items.stream()
+            .map(attempt(this::toUserDto))
+            .map(attempt -> attempt.orElseThrow(this::unexpectedException))
+            .collect(Collectors.toMap(UserDto::getUsername, Function.identity()));
+    }
+
+    @Override
+    public List<UserDto> listUsers(String institutionId) {
+        return streamUsers(institutionId).collect(Collectors.toList());
+    }
+
+    /**
+     * Lists only the usernames of the users of an institution. The query projects only the username attribute from the
+     * {@code SearchUsersByInstitution} index and skips the conversion of the roles, which reduces the data transferred
+     * and deserialized compared to {@link #listUsers(String)}. It does not reduce the read capacity consumed: DynamoDB
+     * charges for the full size of the index entries read, regardless of the projection expression.
+     *
+     * @param institutionId the institution.
+     * @return the usernames of the users of the institution.
+     */
+    @Override
+    public List<String> listUsernames(String institutionId) {
+        QueryRequest listUsernamesQuery = createListUsersQuery(institutionId)
+            .withProjectionExpression(USERNAME_ATTRIBUTE_PLACEHOLDER)
+            .addExpressionAttributeNamesEntry(USERNAME_ATTRIBUTE_PLACEHOLDER, USERNAME_ATTRIBUTE);
+        return queryItems(listUsernamesQuery)
+            .map(item -> RoleDbCodec.getString(item, USERNAME_ATTRIBUTE))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the users of an institution lazily. The first query page is fetched when the stream is created and the
+     * following ones while the stream is consumed. Pages are dropped once they have been iterated, so the memory used
+     * does not grow with the number of users in the institution. The returned stream can be consumed only once.
+     *
+     * @param institutionId the institution.
+     * @return a lazily fetched stream of the users of the institution.
+     */
+    @Override
+    public Stream<UserDto> streamUsers(String institutionId) {
+        return queryItems(createListUsersQuery(institutionId))
+            .map(attempt(this::toUserDto))
+            .flatMap(Try::stream);
+    }
+
+    /**
+     * Lists one page of the users of an institution. The memory and the read capacity used by each call are bounded by
+     * the page size, regardless of the number of users in the institution.
+     *
+     * @param institutionId the institution.
+     * @param pageSize      the maximum number of users in the page.
+     * @param cursor        the continuation token of the previous page or {@code null} for the first page.
+     * @return a page of users and the continuation token for the next page.
+     * @throws InvalidInputException when the cursor is invalid or was issued for another institution.
+     * @throws IllegalStateException when the service was created without a pagination cursor codec.
+     */
+    @Override
+    public UserListPage listUsers(String institutionId, int pageSize, String cursor) throws InvalidInputException {
+        if (isNull(cursorCodec)) {
+            throw new IllegalStateException(PAGINATION_NOT_CONFIGURED_ERROR);
+        }
+        QueryRequest listUsersQuery = createListUsersQuery(institutionId)
+            .withLimit(pageSize)
+            .withExclusiveStartKey(cursorCodec.decode(institutionId, cursor));
+        QueryResult page = dynamoDbClient.query(listUsersQuery);
+        List<UserDto> users = page.getItems().stream()
+            .map(attempt(this::toUserDto))
             .flatMap(Try::stream)
             .collect(Collectors.toList());
+        return UserListPage.of(users, cursorCodec.encode(institutionId, page.getLastEvaluatedKey()));
     }
 
+    /**
+     * Creates a user with a single conditional write, which fails when the user exists already.
+     *
+     * @param user the user to be created.
+     * @return the created user, as it was written to the database.
+     * @throws InvalidEntryInternalException when the user is invalid.
+     * @throws ConflictException             when the user exists already.
+     * @throws InvalidInputException         when the input is invalid.
+     */
     @Override
-    public void addUser(UserDto user) throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+    public UserDto addUser(UserDto user)
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
         logger.debug(ADD_USER_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(user));
 
         validate(user);
-        checkUserDoesNotAlreadyExist(user);
-        mapper.save(user.toUserDb());
+        UserDb userDb = user.toUserDb();
+        putIfNotExists(userCodec.encode(userDb), USER_ALREADY_EXISTS_ERROR_MESSAGE + user.getUsername());
+        return UserDto.fromUserDb(userDb);
     }
 
+    /**
+     * Creates a role with a single conditional write, which fails when the role exists already.
+     *
+     * @param roleDto the role to be created.
+     * @return the created role, as it was written to the database.
+     * @throws ConflictException             when the role exists already.
+     * @throws InvalidInputException         when the input is invalid.
+     * @throws InvalidEntryInternalException when the role is invalid.
+     */
     @Override
-    public void addRole(RoleDto roleDto) throws ConflictException, InvalidInputException,
-                                                InvalidEntryInternalException {
+    public RoleDto addRole(RoleDto roleDto) throws ConflictException, InvalidInputException,
+                                                   InvalidEntryInternalException {
 
         logger.debug(ADD_ROLE_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(roleDto));
 
         validate(roleDto);
-        checkRoleDoesNotExist(roleDto);
-        mapper.save(roleDto.toRoleDb());
+        RoleDb roleDb = roleDto.toRoleDb();
+        putIfNotExists(roleCodec.encode(roleDb), ROLE_ALREADY_EXISTS_ERROR_MESSAGE + roleDto.getRoleName());
+        return RoleDto.fromRoleDb(roleDb);
+    }
+
+    /**
+     * Creates or overwrites many users with concurrent BatchWriteItem requests. Unlike {@link #addUser(UserDto)}, the
+     * write is not conditional, so existing users with the same username are overwritten.
+     *
+     * @param users the users to be written.
+     * @return a report with the usernames of the written and the failed users.
+     */
+    @Override
+    public BulkWriteReport addUsers(Collection<UserDto> users) {
+        logger.debug(ADD_USERS_DEBUG_MESSAGE + users.size());
+        return bulkWriter.write(users, UserDto::getUsername, UserDto::toUserDb);
+    }
+
+    /**
+     * Creates or overwrites many roles with concurrent BatchWriteItem requests. Unlike {@link #addRole(RoleDto)}, the
+     * write is not conditional, so existing roles with the same name are overwritten.
+     *
+     * @param roles the roles to be written.
+     * @return a report with the names of the written and the failed roles.
+     */
+    @Override
+    public BulkWriteReport addRoles(Collection<RoleDto> roles) {
+        logger.debug(ADD_ROLES_DEBUG_MESSAGE + roles.size());
+        return bulkWriter.write(roles, RoleDto::getRoleName, RoleDto::toRoleDb);
     }
 
+    /**
+     * Updates an existing user with a single conditional write. The write fails when the user does not exist, so an
+     * update never creates a new user.
+     *
+     * @param queryObject the updated user.
+     * @return the updated user, as it was written to the database.
+     * @throws InvalidEntryInternalException when the user is invalid.
+     * @throws NotFoundException             when the user does not exist.
+     * @throws InvalidInputException         when the input is invalid.
+     */
     @Override
-    public void updateUser(UserDto queryObject)
+    public UserDto updateUser(UserDto queryObject)
         throws InvalidEntryInternalException, NotFoundException, InvalidInputException {
 
-        logger.debug(UPDATE_ROLE_DEBUG_MESSAGE + queryObject.toJsonString(objectMapper));
+        logger.debug(UPDATE_ROLE_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
 
         validate(queryObject);
-        UserDto existingUser = getExistingUserOrSendNotFoundError(queryObject);
+        UserDb userDb = queryObject.toUserDb();
+        PutItemRequest putUser = new PutItemRequest(tableName, userCodec.encode(userDb))
+            .withConditionExpression(ENTRY_EXISTS)
+            .addExpressionAttributeNamesEntry(HASH_KEY_PLACEHOLDER, PRIMARY_KEY_HASH_KEY);
+        try {
+            dynamoDbClient.putItem(putUser);
+        } catch (ConditionalCheckFailedException e) {
+            throw new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername());
+        }
+        return UserDto.fromUserDb(userDb);
+    }
 
-        if (!existingUser.equals(queryObject)) {
-            mapper.save(queryObject.toUserDb());
+    /**
+     * Updates an existing user with a single conditional write, if the stored user has the expected version. Only
+     * when the write fails the user is read, in order to tell a missing user from a concurrent modification.
+     *
+     * <p>A user written before the version was introduced has no stored version, and a user written before the current
+     * encoding of the version has a stored version that differs from the digest of its content. In both cases the
+     * version returned as its {@code ETag} is the digest of its content, so when that digest matches the expected
+     * version the user is written again on the condition that its stored version is still the one that was read. Any
+     * write in between stores another version and makes that condition fail.
+     *
+     * @param queryObject     the updated user.
+     * @param expectedVersion the version of the user the update was based on, or {@code null} for any version.
+     * @return the updated user, as it was written to the database.
+     * @throws InvalidEntryInternalException when the user is invalid.
+     * @throws NotFoundException             when the user does not exist.
+     * @throws InvalidInputException         when the input is invalid.
+     * @throws PreconditionFailedException   when the stored user does not have the expected version.
+     */
+    @Override
+    public UserDto updateUser(UserDto queryObject, String expectedVersion)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, PreconditionFailedException {
+        if (isNull(expectedVersion)) {
+            return updateUser(queryObject);
         }
+        logger.debug(UPDATE_ROLE_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
 
+        validate(queryObject);
+        UserDb userDb = queryObject.toUserDb();
+        PutItemRequest putUser = new PutItemRequest(tableName, userCodec.encode(userDb))
+            .withConditionExpression(ENTRY_HAS_VERSION)
+            .addExpressionAttributeNamesEntry(HASH_KEY_PLACEHOLDER, PRIMARY_KEY_HASH_KEY)
+            .addExpressionAttributeNamesEntry(VERSION_PLACEHOLDER, UserDb.VERSION_ATTRIBUTE)
+            .addExpressionAttributeValuesEntry(VERSION_VALUE_PLACEHOLDER, new AttributeValue(expectedVersion));
+        try {
+            dynamoDbClient.putItem(putUser);
+        } catch (ConditionalCheckFailedException e) {
+            UserDb storedUser = getExistingUserOrSendNotFoundError(queryObject);
+            if (!hasContentOfVersion(storedUser, expectedVersion)) {
+                throw new PreconditionFailedException(USER_VERSION_MISMATCH_MESSAGE + expectedVersion);
+            }
+            updateUserWithStoredVersion(userDb, storedUser.getVersion(), expectedVersion);
+        }
+        return UserDto.fromUserDb(userDb);
     }
 
     @Override
@@ -135,35 +416,163 @@ public class DatabaseServiceImpl extends DatabaseServiceWithTableNameOverride {
 
     @Override
     public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) throws InvalidEntryInternalException {
-        logger.debug(GET_ROLE_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
-        RoleDb searchObject = queryObject.toRoleDb();
-        DynamoDBQueryExpression<RoleDb> searchRoleByName = createGetQuery(searchObject);
+        return getRoleAsOptional(queryObject, ConsistentReads.EVENTUAL);
+    }
 
-        PaginatedQueryList<RoleDb> searchRoleByNameResult = mapper.query(RoleDb.class, searchRoleByName);
-        return convertQueryResultToOptionalRole(queryObject, searchRoleByNameResult);
+    /**
+     * Fetches a role with a single GetItem request on the primary key.
+     *
+     * @param queryObject the role to be fetched. Only the role-name is used.
+     * @param consistency {@link ConsistentReads#CONSISTENT} for a strongly consistent read.
+     * @return the stored role or empty if the role does not exist.
+     * @throws InvalidEntryInternalException when the query object is invalid.
+     */
+    @Override
+    public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject, ConsistentReads consistency)
+        throws InvalidEntryInternalException {
+        logger.debug(GET_ROLE_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
+        Map<String, AttributeValue> item = getItem(roleCodec.key(queryObject.toRoleDb()), consistency);
+        return convertItemToOptionalRole(item, queryObject);
     }
 
     @Override
     public Optional<UserDto> getUserAsOptional(UserDto queryObject) throws InvalidEntryInternalException {
-        logger.debug(
-            GET_USER_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
-        DynamoDBQueryExpression<UserDb> searchUserRequest = createGetQuery(queryObject.toUserDb());
-        List<UserDb> userSearchResult = mapper.query(UserDb.class, searchUserRequest);
-        return convertQueryResultToOptionalUser(userSearchResult, queryObject);
+        return getUserAsOptional(queryObject, ConsistentReads.EVENTUAL);
     }
 
-    private DynamoDBQueryExpression<UserDb> createListUsersQuery(String institution)
+    /**
+     * Fetches a user with a single GetItem request on the primary key.
+     *
+     * @param queryObject the user to be fetched. Only the username is used.
+     * @param consistency {@link ConsistentReads#CONSISTENT} for a strongly consistent read.
+     * @return the stored user or empty if the user does not exist.
+     * @throws InvalidEntryInternalException when the query object is invalid.
+     */
+    @Override
+    public Optional<UserDto> getUserAsOptional(UserDto queryObject, ConsistentReads consistency)
         throws InvalidEntryInternalException {
-        UserDb queryObject = UserDb.newBuilder().withUsername(NOT_USED).withInstitution(institution).build();
-        return new DynamoDBQueryExpression<UserDb>()
+        logger.debug(GET_USER_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
+        Map<String, AttributeValue> item = getItem(userCodec.key(queryObject.toUserDb()), consistency);
+        return convertItemToOptionalUser(item, queryObject);
+    }
+
+    private QueryRequest createListUsersQuery(String institution) {
+        return new QueryRequest(tableName)
             .withIndexName(SEARCH_USERS_BY_INSTITUTION_INDEX_NAME)
-            .withHashKeyValues(queryObject)
+            .withKeyConditionExpression(INSTITUTION_CONDITION)
+            .addExpressionAttributeNamesEntry(INSTITUTION_KEY_PLACEHOLDER, SECONDARY_INDEX_1_HASH_KEY)
+            .addExpressionAttributeValuesEntry(INSTITUTION_VALUE_PLACEHOLDER, new AttributeValue(institution))
             .withConsistentRead(false);
     }
 
-    private void checkUserDoesNotAlreadyExist(UserDto user) throws InvalidEntryInternalException, ConflictException {
-        if (userAlreadyExists(user)) {
-            throw new ConflictException(USER_ALREADY_EXISTS_ERROR_MESSAGE + user.getUsername());
+    private List<Map<String, AttributeValue>> createUserKeys(Collection<String> usernames)
+        throws InvalidEntryInternalException {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        for (String username : new LinkedHashSet<>(usernames)) {
+            keys.add(userCodec.key(UserDb.newBuilder().withUsername(username).build()));
+        }
+        return keys;
+    }
+
+    /*
+     * Fetches the query pages one at a time, as the stream is consumed.
+     */
+    private Stream<Map<String, AttributeValue>> queryItems(QueryRequest query) {
+        return Stream.iterate(dynamoDbClient.query(query), Objects::nonNull, page -> nextQueryPage(query, page))
+            .flatMap(page -> page.getItems().stream());
+    }
+
+    private QueryResult nextQueryPage(QueryRequest query, QueryResult page) {
+        return hasMorePages(page.getLastEvaluatedKey())
+            ? dynamoDbClient.query(query.clone().withExclusiveStartKey(page.getLastEvaluatedKey()))
+            : null;
+    }
+
+    private static boolean hasMorePages(Map<String, AttributeValue> lastEvaluatedKey) {
+        return nonNull(lastEvaluatedKey) && !lastEvaluatedKey.isEmpty();
+    }
+
+    private List<Map<String, AttributeValue>> batchGetItems(List<Map<String, AttributeValue>> keys) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        Map<String, KeysAndAttributes> requestItems = Map.of(tableName, new KeysAndAttributes().withKeys(keys));
+        for (int retries = 0; ; retries++) {
+            BatchGetItemResult result = dynamoDbClient.batchGetItem(new BatchGetItemRequest(requestItems));
+            items.addAll(result.getResponses().getOrDefault(tableName, Collections.emptyList()));
+            requestItems = result.getUnprocessedKeys();
+            if (isNull(requestItems) || requestItems.isEmpty()) {
+                return items;
+            }
+            if (!unprocessedItemsRetryPolicy.shouldRetryUnprocessedItems(retries)) {
+                throw new IllegalStateException(UNPROCESSED_KEYS_ERROR + requestItems);
+            }
+            pauseBeforeRetry(unprocessedItemsRetryPolicy.delayBeforeNextRetry(retries));
+        }
+    }
+
+    private static void pauseBeforeRetry(long delayMillis) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(READ_INTERRUPTED_ERROR, e);
+        }
+    }
+
+    /*
+     * Writes a batch of the bulk writer, retrying the unprocessed items while the retry policy allows it, and reports
+     * the items that could not be written in the same format as the DynamoDBMapper.
+     */
+    private List<FailedBatch> writeBatch(List<DynamoEntry> batch) {
+        List<WriteRequest> writeRequests = batch.stream()
+            .map(entry -> new WriteRequest(new PutRequest(encode(entry))))
+            .collect(Collectors.toList());
+        Map<String, List<WriteRequest>> requestItems = Map.of(tableName, writeRequests);
+        for (int retries = 0; ; retries++) {
+            BatchWriteItemResult result;
+            try {
+                result = dynamoDbClient.batchWriteItem(new BatchWriteItemRequest(requestItems));
+            } catch (AmazonClientException e) {
+                return List.of(failedBatch(requestItems, e));
+            }
+            requestItems = result.getUnprocessedItems();
+            if (isNull(requestItems) || requestItems.isEmpty()) {
+                return Collections.emptyList();
+            }
+            if (!unprocessedItemsRetryPolicy.shouldRetryUnprocessedItems(retries)) {
+                return List.of(failedBatch(requestItems, null));
+            }
+            try {
+                Thread.sleep(unprocessedItemsRetryPolicy.delayBeforeNextRetry(retries));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return List.of(failedBatch(requestItems, e));
+            }
+        }
+    }
+
+    private Map<String, AttributeValue> encode(DynamoEntry entry) {
+        return entry instanceof UserDb ? userCodec.encode((UserDb) entry) : roleCodec.encode((RoleDb) entry);
+    }
+
+    private static FailedBatch failedBatch(Map<String, List<WriteRequest>> unprocessedItems, Exception exception) {
+        FailedBatch failedBatch = new FailedBatch();
+        failedBatch.setUnprocessedItems(unprocessedItems);
+        failedBatch.setException(exception);
+        return failedBatch;
+    }
+
+    /*
+     * Creates the entry with a single conditional write. The condition makes the write fail when an entry with the
+     * same primary key exists already, also when the entry is created concurrently by another request.
+     */
+    private void putIfNotExists(Map<String, AttributeValue> item, String conflictMessage) throws ConflictException {
+        PutItemRequest putEntry = new PutItemRequest(tableName, item)
+            .withConditionExpression(ENTRY_DOES_NOT_EXIST)
+            .addExpressionAttributeNamesEntry(HASH_KEY_PLACEHOLDER, PRIMARY_KEY_HASH_KEY);
+        try {
+            dynamoDbClient.putItem(putEntry);
+        } catch (ConditionalCheckFailedException e) {
+            throw new ConflictException(conflictMessage);
         }
     }
 
@@ -180,60 +589,74 @@ public class DatabaseServiceImpl extends DatabaseServiceWithTableNameOverride {
         return isNull(roleDto) || !roleDto.isValid();
     }
 
-    private UserDto getExistingUserOrSendNotFoundError(UserDto queryObject)
+    private UserDb getExistingUserOrSendNotFoundError(UserDto queryObject)
         throws NotFoundException, InvalidEntryInternalException {
-        return getUserAsOptional(queryObject)
-            .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername()));
+        Map<String, AttributeValue> item = getItem(userCodec.key(queryObject.toUserDb()), ConsistentReads.CONSISTENT);
+        if (isNull(item)) {
+            throw new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername());
+        }
+        return attempt(() -> userCodec.decode(item)).orElseThrow(this::unexpectedException);
     }
 
-    private Optional<RoleDto> convertQueryResultToOptionalRole(RoleDto queryObject,
-                                                               List<RoleDb> searchRoleByNameResult) {
-        return searchRoleByNameResult
-            .stream()
-            .map(attempt(RoleDto::fromRoleDb))
-            .map(attempt -> attempt.orElseThrow(this::unexpectedException))
-            .collect(SingletonCollector.tryCollect())
-            .toOptional(failure -> logger.debug(ROLE_NOT_FOUND_MESSAGE + queryObject.getRoleName()));
+    private static boolean hasContentOfVersion(UserDb storedUser, String expectedVersion)
+        throws InvalidEntryInternalException {
+        return expectedVersion.equals(storedUser.copy().build().getVersion());
     }
 
-    private Optional<UserDto> convertQueryResultToOptionalUser(List<UserDb> userSearchResult, UserDto queryObject) {
-        return userSearchResult
-            .stream()
-            .map(attempt(UserDto::fromUserDb))
-            .map(attempt -> attempt.orElseThrow(this::unexpectedException))
-            .collect(SingletonCollector.tryCollect())
-            .toOptional(failure -> logger.debug(USER_NOT_FOUND_MESSAGE + queryObject.getUsername()));
+    /*
+     * Writes the user on the condition that the stored version is still the one that was read, or that there is still
+     * no stored version.
+     */
+    private void updateUserWithStoredVersion(UserDb userDb, String storedVersion, String expectedVersion)
+        throws PreconditionFailedException {
+        PutItemRequest putUser = new PutItemRequest(tableName, userCodec.encode(userDb))
+            .addExpressionAttributeNamesEntry(HASH_KEY_PLACEHOLDER, PRIMARY_KEY_HASH_KEY)
+            .addExpressionAttributeNamesEntry(VERSION_PLACEHOLDER, UserDb.VERSION_ATTRIBUTE);
+        if (isNull(storedVersion)) {
+            putUser.withConditionExpression(ENTRY_HAS_NO_VERSION);
+        } else {
+            putUser.withConditionExpression(ENTRY_HAS_VERSION)
+                .addExpressionAttributeValuesEntry(VERSION_VALUE_PLACEHOLDER, new AttributeValue(storedVersion));
+        }
+        try {
+            dynamoDbClient.putItem(putUser);
+        } catch (ConditionalCheckFailedException e) {
+            throw new PreconditionFailedException(USER_VERSION_MISMATCH_MESSAGE + expectedVersion);
+        }
     }
 
-    private void checkRoleDoesNotExist(RoleDto roleDto) throws ConflictException, InvalidEntryInternalException {
-        if (roleAlreadyExists(roleDto)) {
-            throw new ConflictException(ROLE_ALREADY_EXISTS_ERROR_MESSAGE + roleDto.getRoleName());
-        }
+    private Map<String, AttributeValue> getItem(Map<String, AttributeValue> key, ConsistentReads consistency) {
+        GetItemRequest getItem = new GetItemRequest(tableName, key)
+            .withConsistentRead(ConsistentReads.CONSISTENT.equals(consistency));
+        return dynamoDbClient.getItem(getItem).getItem();
     }
 
-    private boolean roleAlreadyExists(RoleDto roleDto) throws InvalidEntryInternalException {
-        return getRoleAsOptional(roleDto).isPresent();
+    private UserDto toUserDto(Map<String, AttributeValue> item) throws InvalidEntryInternalException {
+        return UserDto.fromUserDb(userCodec.decode(item));
     }
 
-    private boolean userAlreadyExists(UserDto user) throws InvalidEntryInternalException {
-        return this.getUserAsOptional(user).isPresent();
+    private RoleDto toRoleDto(Map<String, AttributeValue> item) throws InvalidEntryInternalException {
+        return RoleDto.fromRoleDb(roleCodec.decode(item));
     }
 
-    private static String convertToStringOrWriteErrorMessage(JsonSerializable queryObject) {
-        return Optional.ofNullable(queryObject).map(JsonSerializable::toString).orElse(EMPTY_INPUT_ERROR_MESSAGE);
+    private Optional<RoleDto> convertItemToOptionalRole(Map<String, AttributeValue> item, RoleDto queryObject) {
+        if (isNull(item)) {
+            logger.debug(ROLE_NOT_FOUND_MESSAGE + queryObject.getRoleName());
+            return Optional.empty();
+        }
+        return Optional.of(attempt(() -> toRoleDto(item)).orElseThrow(this::unexpectedException));
     }
 
-    private static <I extends WithType> DynamoDBQueryExpression<I> createGetQuery(I searchObject) {
-        return new DynamoDBQueryExpression<I>()
-            .withHashKeyValues(searchObject)
-            .withRangeKeyCondition(PRIMARY_KEY_RANGE_KEY, entityTypeAsRangeKey(searchObject));
+    private Optional<UserDto> convertItemToOptionalUser(Map<String, AttributeValue> item, UserDto queryObject) {
+        if (isNull(item)) {
+            logger.debug(USER_NOT_FOUND_MESSAGE + queryObject.getUsername());
+            return Optional.empty();
+        }
+        return Optional.of(attempt(() -> toUserDto(item)).orElseThrow(this::unexpectedException));
     }
 
-    private static <I extends WithType> Condition entityTypeAsRangeKey(I searchObject) {
-        Condition comparisonCondition = new Condition();
-        comparisonCondition.setComparisonOperator(ComparisonOperator.EQ);
-        comparisonCondition.setAttributeValueList(List.of(new AttributeValue(searchObject.getType())));
-        return comparisonCondition;
+    private static String convertToStringOrWriteErrorMessage(JsonSerializable queryObject) {
+        return Optional.ofNullable(queryObject).map(JsonSerializable::toString).orElse(EMPTY_INPUT_ERROR_MESSAGE);
     }
 
     private <I> IllegalStateException unexpectedException(Failure<I> failure) {
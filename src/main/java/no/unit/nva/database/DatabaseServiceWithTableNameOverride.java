@@ -29,7 +29,19 @@ public abstract class DatabaseServiceWithTableNameOverride implements DatabaseSe
      */
     public static DynamoDBMapper createMapperOverridingHardCodedTableName(AmazonDynamoDB dynamoDbClient,
                                                                           Environment environment) {
-        String tableName = environment.readEnv(USERS_AND_ROLES_TABLE_NAME_ENV_VARIABLE);
+        return createMapperOverridingHardCodedTableName(dynamoDbClient,
+            environment.readEnv(USERS_AND_ROLES_TABLE_NAME_ENV_VARIABLE));
+    }
+
+    /**
+     * Creates a DynamoDBMapper connected to the given table instead of the one in the model class definitions.
+     *
+     * @param dynamoDbClient any AmazonDynamoDB client implementation.
+     * @param tableName      the name of the users and roles table.
+     * @return a DynamoDBMapper that is connected to the table.
+     */
+    public static DynamoDBMapper createMapperOverridingHardCodedTableName(AmazonDynamoDB dynamoDbClient,
+                                                                          String tableName) {
         attempt(() -> requireNonNull(dynamoDbClient))
             .orElseThrow(DatabaseServiceWithTableNameOverride::logErrorAndThrowException);
         DynamoDBMapperConfig dynamoDbMapperConfig = DynamoDBMapperConfig.builder()
@@ -0,0 +1,234 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static no.unit.nva.utils.EnvironmentUtils.readPositiveInteger;
+import static no.unit.nva.utils.EnvironmentUtils.readPositiveNumber;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
+import com.amazonaws.retry.RetryPolicy.BackoffStrategy;
+import com.amazonaws.retry.RetryPolicy.RetryCondition;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongUnaryOperator;
+import nva.commons.utils.Environment;
+import nva.commons.utils.JacocoGenerated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Retries the DynamoDB requests that fail with throttling, server or network errors, with exponential backoff and full
+ * jitter. A retry is sent only if the retry budget allows it and if the longest possible delay before it, together
+ * with a margin for the retried request itself, ends before the {@link RequestDeadline} of the invocation, so that a
+ * throttled request fails with its error instead of running into the Lambda timeout.
+ *
+ * <p>The same rules apply to the unprocessed items of BatchGetItem and BatchWriteItem requests, which DynamoDB returns
+ * instead of an error, see {@link #forUnprocessedItems(Environment)}. All the policies of a container share one
+ * {@link RetryBudget}.
+ */
+public class DynamoDbRetryPolicy implements RetryCondition, BackoffStrategy {
+
+    public static final String MAX_RETRIES_ENV_VARIABLE = "DYNAMODB_MAX_RETRIES";
+    public static final String BASE_DELAY_MILLIS_ENV_VARIABLE = "DYNAMODB_RETRY_BASE_DELAY_MILLIS";
+    public static final String MAX_DELAY_MILLIS_ENV_VARIABLE = "DYNAMODB_RETRY_MAX_DELAY_MILLIS";
+    public static final String DEADLINE_MARGIN_MILLIS_ENV_VARIABLE = "DYNAMODB_RETRY_DEADLINE_MARGIN_MILLIS";
+    public static final String RETRY_BUDGET_ENV_VARIABLE = "DYNAMODB_RETRY_BUDGET";
+    public static final String RETRY_BUDGET_REFILL_ENV_VARIABLE = "DYNAMODB_RETRY_BUDGET_REFILL_PER_SECOND";
+    public static final String ATTEMPT_TIMEOUT_MILLIS_ENV_VARIABLE = "DYNAMODB_ATTEMPT_TIMEOUT_MILLIS";
+    public static final int DEFAULT_MAX_RETRIES = 8;
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 25;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 1_000;
+    public static final long DEFAULT_DEADLINE_MARGIN_MILLIS = 250;
+    public static final long DEFAULT_ATTEMPT_TIMEOUT_MILLIS = 5_000;
+    public static final int DEFAULT_UNPROCESSED_ITEMS_MAX_RETRIES = 10;
+    public static final long DEFAULT_UNPROCESSED_ITEMS_MAX_DELAY_MILLIS = 5_000;
+    public static final String UNPROCESSED_ITEMS_CAUSE = "unprocessed items";
+    public static final String DEADLINE_REACHED_MESSAGE = "Not retrying DynamoDB request, the invocation times out in "
+                                                          + "%d ms: %s";
+    public static final String BUDGET_SPENT_MESSAGE = "Not retrying DynamoDB request, the retry budget is spent: %s";
+    private static final int MAX_SHIFT = 30;
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbRetryPolicy.class);
+    private static RetryBudget sharedBudget;
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long deadlineMarginMillis;
+    private final RetryBudget budget;
+    private final RequestDeadline deadline;
+    private final LongUnaryOperator random;
+
+    /**
+     * Creates a retry policy.
+     *
+     * @param maxRetries           the maximum number of retries of a request.
+     * @param baseDelayMillis      the upper bound of the delay before the first retry.
+     * @param maxDelayMillis       the upper bound of the delay before any retry.
+     * @param deadlineMarginMillis the time that must be left for the retried request after the delay.
+     * @param budget               the budget shared by the retries of all requests.
+     * @param deadline             the deadline of the invocation.
+     * @param random               returns a random value between zero and its argument, both inclusive.
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    public DynamoDbRetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, long deadlineMarginMillis,
+                               RetryBudget budget, RequestDeadline deadline, LongUnaryOperator random) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.deadlineMarginMillis = deadlineMarginMillis;
+        this.budget = budget;
+        this.deadline = deadline;
+        this.random = random;
+    }
+
+    /**
+     * Creates the retry policy of the service from the environment, bound to the deadline of the Lambda invocation.
+     *
+     * @param environment the environment.
+     * @return the retry policy.
+     */
+    public static DynamoDbRetryPolicy fromEnvironment(Environment environment) {
+        return new DynamoDbRetryPolicy(
+            readPositiveInteger(environment, MAX_RETRIES_ENV_VARIABLE, DEFAULT_MAX_RETRIES),
+            readPositiveNumber(environment, BASE_DELAY_MILLIS_ENV_VARIABLE, DEFAULT_BASE_DELAY_MILLIS),
+            readPositiveNumber(environment, MAX_DELAY_MILLIS_ENV_VARIABLE, DEFAULT_MAX_DELAY_MILLIS),
+            readPositiveNumber(environment, DEADLINE_MARGIN_MILLIS_ENV_VARIABLE, DEFAULT_DEADLINE_MARGIN_MILLIS),
+            sharedBudget(environment),
+            RequestDeadline.INVOCATION,
+            bound -> ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    /**
+     * Creates the retry policy of the unprocessed items of BatchGetItem and BatchWriteItem requests. Unprocessed items
+     * are retried more times and with a longer maximum delay than failed requests, but they take from the same budget
+     * and stop at the same deadline.
+     *
+     * @param environment the environment.
+     * @return the retry policy.
+     */
+    public static DynamoDbRetryPolicy forUnprocessedItems(Environment environment) {
+        return new DynamoDbRetryPolicy(
+            DEFAULT_UNPROCESSED_ITEMS_MAX_RETRIES,
+            readPositiveNumber(environment, BASE_DELAY_MILLIS_ENV_VARIABLE, DEFAULT_BASE_DELAY_MILLIS),
+            DEFAULT_UNPROCESSED_ITEMS_MAX_DELAY_MILLIS,
+            readPositiveNumber(environment, DEADLINE_MARGIN_MILLIS_ENV_VARIABLE, DEFAULT_DEADLINE_MARGIN_MILLIS),
+            sharedBudget(environment),
+            RequestDeadline.INVOCATION,
+            bound -> ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    /**
+     * Returns the retry budget shared by all the retry policies of the container. It is created from the environment
+     * the first time it is requested.
+     *
+     * @param environment the environment.
+     * @return the shared retry budget.
+     */
+    public static synchronized RetryBudget sharedBudget(Environment environment) {
+        if (isNull(sharedBudget)) {
+            sharedBudget = new RetryBudget(
+                readPositiveInteger(environment, RETRY_BUDGET_ENV_VARIABLE, RetryBudget.DEFAULT_CAPACITY),
+                readPositiveInteger(environment, RETRY_BUDGET_REFILL_ENV_VARIABLE,
+                    RetryBudget.DEFAULT_REFILL_PER_SECOND),
+                System::nanoTime);
+        }
+        return sharedBudget;
+    }
+
+    /**
+     * Creates a DynamoDB client that retries its requests with the retry policy read from the environment, and whose
+     * attempts time out before the deadline of the invocation.
+     *
+     * @param environment the environment.
+     * @return the client.
+     */
+    @JacocoGenerated
+    public static AmazonDynamoDB createClient(Environment environment) {
+        ClientConfiguration configuration = new ClientConfiguration()
+            .withRetryPolicy(fromEnvironment(environment).toSdkRetryPolicy());
+        AttemptTimeout attemptTimeout = new AttemptTimeout(
+            readPositiveNumber(environment, ATTEMPT_TIMEOUT_MILLIS_ENV_VARIABLE, DEFAULT_ATTEMPT_TIMEOUT_MILLIS),
+            RequestDeadline.INVOCATION);
+        return AmazonDynamoDBClientBuilder.standard()
+            .withClientConfiguration(configuration)
+            .withRequestHandlers(attemptTimeout)
+            .build();
+    }
+
+    /**
+     * Returns the upper bound of the delay before a retry.
+     *
+     * @param baseDelayMillis  the upper bound of the delay before the first retry.
+     * @param maxDelayMillis   the upper bound of the delay before any retry.
+     * @param retriesAttempted the number of retries sent so far.
+     * @return the exponential backoff before the next retry, capped by the maximum delay.
+     */
+    public static long backoffCeilingMillis(long baseDelayMillis, long maxDelayMillis, int retriesAttempted) {
+        return Math.min(maxDelayMillis, baseDelayMillis << Math.min(retriesAttempted, MAX_SHIFT));
+    }
+
+    public RetryPolicy toSdkRetryPolicy() {
+        return new RetryPolicy(this, this, maxRetries, false);
+    }
+
+    @Override
+    public boolean shouldRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                               int retriesAttempted) {
+        return isRetryable(originalRequest, exception, retriesAttempted)
+               && allowsRetry(retriesAttempted, exception.getMessage());
+    }
+
+    @Override
+    public long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                     int retriesAttempted) {
+        return delayBeforeNextRetry(retriesAttempted);
+    }
+
+    /**
+     * Decides whether the unprocessed items of a batch request are sent again.
+     *
+     * @param retriesAttempted the number of retries sent so far.
+     * @return {@code true} if the retries, the deadline and the budget allow another retry.
+     */
+    public boolean shouldRetryUnprocessedItems(int retriesAttempted) {
+        return allowsRetry(retriesAttempted, UNPROCESSED_ITEMS_CAUSE);
+    }
+
+    /**
+     * Returns the delay before a retry, a random value between zero and the exponential backoff.
+     *
+     * @param retriesAttempted the number of retries sent so far.
+     * @return the delay in milliseconds.
+     */
+    public long delayBeforeNextRetry(int retriesAttempted) {
+        return random.applyAsLong(backoffCeilingMillis(baseDelayMillis, maxDelayMillis, retriesAttempted));
+    }
+
+    private boolean allowsRetry(int retriesAttempted, String cause) {
+        if (retriesAttempted >= maxRetries) {
+            return false;
+        }
+        long remainingMillis = deadline.remainingMillis();
+        long requiredMillis = backoffCeilingMillis(baseDelayMillis, maxDelayMillis, retriesAttempted)
+                              + deadlineMarginMillis;
+        if (remainingMillis < requiredMillis) {
+            logger.warn(String.format(DEADLINE_REACHED_MESSAGE, remainingMillis, cause));
+            return false;
+        }
+        if (!budget.tryAcquire()) {
+            logger.warn(String.format(BUDGET_SPENT_MESSAGE, cause));
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isRetryable(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                       int retriesAttempted) {
+        return PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION.shouldRetry(originalRequest, exception,
+            retriesAttempted);
+    }
+}
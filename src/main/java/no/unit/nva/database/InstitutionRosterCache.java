@@ -0,0 +1,226 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import no.unit.nva.database.InstitutionRosterVersions.RosterVersion;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.utils.CacheStatistics;
+import no.unit.nva.utils.ExpiringLruCache;
+
+/**
+ * Caches the users of institutions keyed by institution and roster version. A lookup reads the version counter of the
+ * institution, which is a single small GetItem request, and the users are only queried again when a write of a user of
+ * the institution has incremented the counter since they were cached. Rosters with more users than the given limit are
+ * not cached, so that a large institution does not fill the memory of the container.
+ *
+ * <p>The counters are incremented from the change stream of the table, some time after the write, and the index that
+ * the rosters are read from is updated asynchronously as well. A roster read under a version is therefore only cached
+ * once the index settle time has passed since the last increment of the counter and since the last write of a user of
+ * the institution through this cache, so a roster read before the index has caught up is not served under a version
+ * that already includes the change.
+ */
+public class InstitutionRosterCache {
+
+    public static final int DEFAULT_MAX_ROSTERS = 100;
+    public static final int DEFAULT_MAX_ROSTER_SIZE = 10_000;
+    public static final long DEFAULT_TIME_TO_LIVE_SECONDS = 60;
+    public static final long DEFAULT_INDEX_SETTLE_MILLIS = 5000;
+    private static final String KEY_DELIMITER = "|";
+
+    private final InstitutionRosterVersions rosterVersions;
+    private final ExpiringLruCache<String, List<UserDto>> rosters;
+    private final int maxRosterSize;
+    private final long indexSettleMillis;
+    private final LongSupplier wallClock;
+    private final ExpiringLruCache<String, Long> localChanges;
+
+    /**
+     * Creates a roster cache.
+     *
+     * @param rosterVersions the version counters of the rosters.
+     * @param rosters        the cache holding the rosters. Its time-to-live bounds how long a roster written without
+     *                       incrementing the counter can be served.
+     * @param maxRosterSize  the maximum number of users of a cached roster.
+     */
+    public InstitutionRosterCache(InstitutionRosterVersions rosterVersions,
+                                  ExpiringLruCache<String, List<UserDto>> rosters, int maxRosterSize) {
+        this(rosterVersions, rosters, maxRosterSize, DEFAULT_INDEX_SETTLE_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a roster cache.
+     *
+     * @param rosterVersions    the version counters of the rosters.
+     * @param rosters           the cache holding the rosters.
+     * @param maxRosterSize     the maximum number of users of a cached roster.
+     * @param indexSettleMillis the time after a change during which a read roster is not cached.
+     * @param wallClock         the source of the current time in milliseconds since the epoch.
+     */
+    public InstitutionRosterCache(InstitutionRosterVersions rosterVersions,
+                                  ExpiringLruCache<String, List<UserDto>> rosters, int maxRosterSize,
+                                  long indexSettleMillis, LongSupplier wallClock) {
+        this.rosterVersions = rosterVersions;
+        this.rosters = rosters;
+        this.maxRosterSize = maxRosterSize;
+        this.indexSettleMillis = indexSettleMillis;
+        this.wallClock = wallClock;
+        this.localChanges = new ExpiringLruCache<>(DEFAULT_MAX_ROSTERS, Math.max(1, indexSettleMillis),
+            TimeUnit.MILLISECONDS, () -> TimeUnit.MILLISECONDS.toNanos(wallClock.getAsLong()));
+    }
+
+    /**
+     * Returns the cached roster of the current version or loads and caches it.
+     *
+     * @param institutionId the institution.
+     * @param loader        reads all the users of the institution.
+     * @return the users of the institution.
+     * @throws InvalidEntryInternalException when the loader fails.
+     */
+    public List<UserDto> getRoster(String institutionId, RosterLoader<List<UserDto>> loader)
+        throws InvalidEntryInternalException {
+        CurrentVersion current = currentVersion(institutionId);
+        Optional<List<UserDto>> cachedRoster = rosters.get(current.key);
+        if (cachedRoster.isPresent()) {
+            return cachedRoster.get();
+        }
+        List<UserDto> roster = loader.load();
+        if (current.settled) {
+            cacheIfNotTooLarge(current.key, roster);
+        }
+        return roster;
+    }
+
+    /**
+     * Returns the cached roster of the current version, or streams the users from the loader and caches them once the
+     * stream has been read to its end.
+     *
+     * @param institutionId the institution.
+     * @param loader        streams all the users of the institution.
+     * @return the users of the institution.
+     * @throws InvalidEntryInternalException when the loader fails.
+     */
+    public Stream<UserDto> streamRoster(String institutionId, RosterLoader<Stream<UserDto>> loader)
+        throws InvalidEntryInternalException {
+        CurrentVersion current = currentVersion(institutionId);
+        Optional<List<UserDto>> cachedRoster = rosters.get(current.key);
+        if (cachedRoster.isPresent()) {
+            return cachedRoster.get().stream();
+        }
+        if (!current.settled) {
+            return loader.load();
+        }
+        Iterator<UserDto> recordingIterator = new RecordingIterator(current.key, loader.load().iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(recordingIterator, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Returns the cached roster of the current version, without loading it.
+     *
+     * @param institutionId the institution.
+     * @return the users of the institution, or empty if the current roster is not cached.
+     */
+    public Optional<List<UserDto>> getCachedRoster(String institutionId) {
+        return rosters.get(currentVersion(institutionId).key);
+    }
+
+    /**
+     * Drops the cached rosters of an institution after a write of one of its users, since the counter is only
+     * incremented once the change stream has processed the write, and keeps rosters read during the index settle time
+     * from being cached.
+     *
+     * @param institutionId the institution. Ignored if null.
+     */
+    public void invalidate(String institutionId) {
+        if (isNull(institutionId)) {
+            return;
+        }
+        String keyPrefix = institutionId + KEY_DELIMITER;
+        rosters.invalidateIf(key -> key.startsWith(keyPrefix));
+        localChanges.put(institutionId, wallClock.getAsLong());
+    }
+
+    public CacheStatistics statistics() {
+        return rosters.statistics();
+    }
+
+    private CurrentVersion currentVersion(String institutionId) {
+        RosterVersion version = rosterVersions.read(institutionId);
+        long lastChange = Math.max(version.getChangedAt(),
+            localChanges.get(institutionId).orElse(InstitutionRosterVersions.NEVER_CHANGED));
+        boolean settled = wallClock.getAsLong() - lastChange >= indexSettleMillis;
+        return new CurrentVersion(institutionId + KEY_DELIMITER + version.getVersion(), settled);
+    }
+
+    private void cacheIfNotTooLarge(String key, List<UserDto> roster) {
+        if (roster.size() <= maxRosterSize) {
+            rosters.put(key, List.copyOf(roster));
+        }
+    }
+
+    @FunctionalInterface
+    public interface RosterLoader<T> {
+
+        T load() throws InvalidEntryInternalException;
+    }
+
+    private static class CurrentVersion {
+
+        private final String key;
+        private final boolean settled;
+
+        CurrentVersion(String key, boolean settled) {
+            this.key = key;
+            this.settled = settled;
+        }
+    }
+
+    /**
+     * Passes the users of a streamed roster through and caches them when the last one has been read. Recording stops
+     * as soon as the roster is larger than the limit.
+     */
+    private class RecordingIterator implements Iterator<UserDto> {
+
+        private final String key;
+        private final Iterator<UserDto> source;
+        private List<UserDto> recorded = new ArrayList<>();
+
+        RecordingIterator(String key, Iterator<UserDto> source) {
+            this.key = key;
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = source.hasNext();
+            if (!hasNext && nonNull(recorded)) {
+                cacheIfNotTooLarge(key, recorded);
+                recorded = null;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public UserDto next() {
+            UserDto user = source.next();
+            if (nonNull(recorded)) {
+                recorded.add(user);
+                if (recorded.size() > maxRosterSize) {
+                    recorded = null;
+                }
+            }
+            return user;
+        }
+    }
+}
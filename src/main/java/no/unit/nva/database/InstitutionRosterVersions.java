@@ -0,0 +1,151 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import nva.commons.utils.Environment;
+
+/**
+ * Version counters of the rosters of the institutions. Every institution has a small table entry with a counter that
+ * is incremented atomically whenever a user of the institution is added, updated or moved to another institution, so a
+ * cached roster is current as long as the counter has the value it had when the roster was read. The entry also holds
+ * the time of the last increment, so that a roster read shortly after a change, which the index may not reflect yet,
+ * is not cached.
+ */
+public class InstitutionRosterVersions {
+
+    public static final String ROSTER_ENTRY_KEY_PREFIX = "INSTITUTION_ROSTER#";
+    public static final String VERSION_ATTRIBUTE = "rosterVersion";
+    public static final String CHANGED_AT_ATTRIBUTE = "rosterChangedAt";
+    public static final long INITIAL_VERSION = 0;
+    public static final long NEVER_CHANGED = 0;
+    private static final String VERSION_ATTRIBUTE_PLACEHOLDER = "#version";
+    private static final String CHANGED_AT_ATTRIBUTE_PLACEHOLDER = "#changedAt";
+    private static final String INCREMENT_PLACEHOLDER = ":one";
+    private static final String NOW_PLACEHOLDER = ":now";
+    private static final String INCREMENT_EXPRESSION =
+        "ADD " + VERSION_ATTRIBUTE_PLACEHOLDER + " " + INCREMENT_PLACEHOLDER
+            + " SET " + CHANGED_AT_ATTRIBUTE_PLACEHOLDER + " = " + NOW_PLACEHOLDER;
+    private static final String PROJECTION_EXPRESSION =
+        VERSION_ATTRIBUTE_PLACEHOLDER + ", " + CHANGED_AT_ATTRIBUTE_PLACEHOLDER;
+    private static final Map<String, String> ATTRIBUTE_NAMES = Map.of(
+        VERSION_ATTRIBUTE_PLACEHOLDER, VERSION_ATTRIBUTE,
+        CHANGED_AT_ATTRIBUTE_PLACEHOLDER, CHANGED_AT_ATTRIBUTE);
+    private static final String INCREMENT = "1";
+
+    private final AmazonDynamoDB dynamoDbClient;
+    private final String tableName;
+    private final LongSupplier wallClock;
+
+    public InstitutionRosterVersions(AmazonDynamoDB dynamoDbClient, Environment environment) {
+        this(dynamoDbClient, environment.readEnv(DatabaseService.USERS_AND_ROLES_TABLE_NAME_ENV_VARIABLE));
+    }
+
+    public InstitutionRosterVersions(AmazonDynamoDB dynamoDbClient, String tableName) {
+        this(dynamoDbClient, tableName, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates the version counters.
+     *
+     * @param dynamoDbClient the client of the users and roles table.
+     * @param tableName      the name of the users and roles table.
+     * @param wallClock      the source of the current time in milliseconds since the epoch.
+     */
+    public InstitutionRosterVersions(AmazonDynamoDB dynamoDbClient, String tableName, LongSupplier wallClock) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.wallClock = wallClock;
+    }
+
+    /**
+     * Increments the counter of every institution with one write per institution.
+     *
+     * @param institutionIds the institutions whose rosters have changed. Missing institutions are ignored.
+     */
+    public void increment(Collection<String> institutionIds) {
+        institutionIds.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .forEach(this::increment);
+    }
+
+    /**
+     * Reads the counter of an institution with a strongly consistent read, so that a change is seen as soon as the
+     * write that made it has returned.
+     *
+     * @param institutionId the institution.
+     * @return the current version, or {@link #INITIAL_VERSION} if the roster has never changed.
+     */
+    public RosterVersion read(String institutionId) {
+        GetItemResult result = dynamoDbClient.getItem(new GetItemRequest()
+            .withTableName(tableName)
+            .withKey(rosterEntryKey(institutionId))
+            .withProjectionExpression(PROJECTION_EXPRESSION)
+            .withExpressionAttributeNames(ATTRIBUTE_NAMES)
+            .withConsistentRead(true));
+        if (isNull(result.getItem()) || !result.getItem().containsKey(VERSION_ATTRIBUTE)) {
+            return new RosterVersion(INITIAL_VERSION, NEVER_CHANGED);
+        }
+        return new RosterVersion(readNumber(result.getItem(), VERSION_ATTRIBUTE, INITIAL_VERSION),
+            readNumber(result.getItem(), CHANGED_AT_ATTRIBUTE, NEVER_CHANGED));
+    }
+
+    private void increment(String institutionId) {
+        dynamoDbClient.updateItem(new UpdateItemRequest()
+            .withTableName(tableName)
+            .withKey(rosterEntryKey(institutionId))
+            .withUpdateExpression(INCREMENT_EXPRESSION)
+            .withExpressionAttributeNames(ATTRIBUTE_NAMES)
+            .withExpressionAttributeValues(Map.of(
+                INCREMENT_PLACEHOLDER, new AttributeValue().withN(INCREMENT),
+                NOW_PLACEHOLDER, new AttributeValue().withN(String.valueOf(wallClock.getAsLong())))));
+    }
+
+    private static long readNumber(Map<String, AttributeValue> item, String attribute, long defaultValue) {
+        AttributeValue value = item.get(attribute);
+        return isNull(value) || isNull(value.getN()) ? defaultValue : Long.parseLong(value.getN());
+    }
+
+    private static Map<String, AttributeValue> rosterEntryKey(String institutionId) {
+        AttributeValue key = new AttributeValue(ROSTER_ENTRY_KEY_PREFIX + institutionId);
+        return Map.of(PRIMARY_KEY_HASH_KEY, key, PRIMARY_KEY_RANGE_KEY, key);
+    }
+
+    /**
+     * The version of the roster of an institution and the time it was last changed.
+     */
+    public static class RosterVersion {
+
+        private final long version;
+        private final long changedAt;
+
+        public RosterVersion(long version, long changedAt) {
+            this.version = version;
+            this.changedAt = changedAt;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * The time of the last change.
+         *
+         * @return milliseconds since the epoch, or {@link #NEVER_CHANGED}.
+         */
+        public long getChangedAt() {
+            return changedAt;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the {@link CacheInvalidationLog} at most once per interval and tells a cache which buckets of keys have
+ * changed since the previous poll. When the log cannot be read, the cache is told to drop everything, because it can
+ * no longer tell which of its entries are up to date.
+ */
+public class InvalidationWatcher {
+
+    public static final long DEFAULT_POLL_INTERVAL_SECONDS = 2;
+    public static final String INVALID_POLL_INTERVAL_ERROR = "Poll interval should be a positive duration";
+    public static final String POLL_FAILED_WARNING = "Could not read the cache invalidation log";
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationWatcher.class);
+
+    private final CacheInvalidationLog invalidationLog;
+    private final long pollIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private Map<String, Long> lastGenerations;
+    private boolean polled;
+    private long nextPollAt;
+
+    public InvalidationWatcher(CacheInvalidationLog invalidationLog, long pollInterval, TimeUnit timeUnit) {
+        this(invalidationLog, pollInterval, timeUnit, System::nanoTime);
+    }
+
+    /**
+     * Creates a watcher.
+     *
+     * @param invalidationLog the shared log of the changes.
+     * @param pollInterval    the minimum time between two reads of the log.
+     * @param timeUnit        the unit of the poll interval.
+     * @param nanoClock       the source of the current time in nanoseconds.
+     */
+    public InvalidationWatcher(CacheInvalidationLog invalidationLog, long pollInterval, TimeUnit timeUnit,
+                               LongSupplier nanoClock) {
+        if (pollInterval < 1) {
+            throw new IllegalArgumentException(INVALID_POLL_INTERVAL_ERROR);
+        }
+        this.invalidationLog = invalidationLog;
+        this.pollIntervalNanos = timeUnit.toNanos(pollInterval);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Reads the log, if the poll interval has passed, and reports the changed buckets to the listener.
+     *
+     * @param listener the cache to be invalidated.
+     */
+    public synchronized void pollIfDue(InvalidationListener listener) {
+        long now = nanoClock.getAsLong();
+        if (polled && now - nextPollAt < 0) {
+            return;
+        }
+        polled = true;
+        nextPollAt = now + pollIntervalNanos;
+        Map<String, Long> generations;
+        try {
+            generations = invalidationLog.readGenerations();
+        } catch (RuntimeException e) {
+            logger.warn(POLL_FAILED_WARNING, e);
+            lastGenerations = null;
+            listener.invalidateAll();
+            return;
+        }
+        if (isNull(lastGenerations)) {
+            listener.invalidateAll();
+        } else {
+            Set<String> changedBuckets = changedBuckets(lastGenerations, generations);
+            if (!changedBuckets.isEmpty()) {
+                listener.invalidateBuckets(changedBuckets);
+            }
+        }
+        lastGenerations = generations;
+    }
+
+    private static Set<String> changedBuckets(Map<String, Long> previous, Map<String, Long> current) {
+        Set<String> changedBuckets = new HashSet<>();
+        current.forEach((bucket, generation) -> {
+            if (!Objects.equals(previous.get(bucket), generation)) {
+                changedBuckets.add(bucket);
+            }
+        });
+        return changedBuckets;
+    }
+
+    /**
+     * A cache whose entries are invalidated by an {@link InvalidationWatcher}.
+     */
+    public interface InvalidationListener {
+
+        void invalidateBuckets(Set<String> buckets);
+
+        void invalidateAll();
+    }
+}
@@ -0,0 +1,440 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.utils.CacheStatistics;
+import no.unit.nva.utils.KeyValueCache;
+
+/**
+ * A cache of users that keeps the users serialized in direct {@link ByteBuffer} slabs outside the heap, so that a cache
+ * of hundreds of thousands of users does not need a large heap and is not traversed by the garbage collector. The heap
+ * only holds an open-addressing index of two {@code long} arrays, mapping the hash of a username to the slab and the
+ * offset of the serialized user. A user is decoded into a new {@link UserDto} every time it is read.
+ *
+ * <p>The slabs are filled in turn like a ring buffer. When the last slab is full, the first slab is reused and the
+ * users stored in it are evicted, so the oldest users are evicted first. The space of a user that has been replaced or
+ * invalidated is reclaimed when its slab is reused. When the index holds the maximum number of users, the users of the
+ * oldest slab are evicted as well.
+ *
+ * <p>The slabs are allocated when they are first written to, and count against the direct memory limit of the JVM,
+ * which can be set with {@code -XX:MaxDirectMemorySize}.
+ */
+public class OffHeapUserCache implements KeyValueCache<String, UserDto> {
+
+    public static final int DEFAULT_SLAB_BYTES = 16 * 1024 * 1024;
+    public static final int DEFAULT_MAX_ENTRIES = 500_000;
+    public static final String INVALID_MAX_ENTRIES_ERROR = "Cache size should be a positive number";
+    public static final String INVALID_CAPACITY_ERROR = "Cache capacity should be at least the size of one slab";
+    public static final String INVALID_SLAB_SIZE_ERROR = "Slab size should be a positive number";
+    public static final String INVALID_TIME_TO_LIVE_ERROR = "Cache time-to-live should be a positive duration";
+    public static final String CORRUPT_ENTRY_ERROR = "Cached user could not be decoded: ";
+
+    private static final long EMPTY_SLOT = 0;
+    private static final int MAX_INDEX_CAPACITY = 1 << 30;
+    private static final int NULL_STRING_LENGTH = -1;
+    private static final int RECORD_LENGTH_OFFSET = 0;
+    private static final int EXPIRES_AT_OFFSET = Integer.BYTES;
+    private static final int USERNAME_OFFSET = EXPIRES_AT_OFFSET + Long.BYTES;
+    private static final int USERNAME_FIELD = 0;
+    private static final int INSTITUTION_FIELD = 1;
+    private static final int FIRST_ROLE_FIELD = 2;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MIX_SHIFT = 33;
+    private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+    private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+    private final int maxEntries;
+    private final int slabBytes;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+    private final ByteBuffer[] slabs;
+    private final int[] slabEntries;
+    private final long[] keyHashes;
+    private final long[] locations;
+    private final int indexMask;
+
+    private int writeSlab;
+    private int writeOffset;
+    private int size;
+    private long liveBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public OffHeapUserCache(int maxEntries, long capacityBytes, long timeToLive, TimeUnit timeUnit) {
+        this(maxEntries, capacityBytes, slabBytesFor(capacityBytes), timeToLive, timeUnit, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries    the maximum number of users.
+     * @param capacityBytes the bytes the slabs may use in total. It is rounded down to a whole number of slabs.
+     * @param slabBytes     the size of a slab, which is also the size of the largest user that can be cached.
+     * @param timeToLive    the time a user is served after it has been stored.
+     * @param timeUnit      the unit of the time-to-live.
+     * @param nanoClock     the source of the current time in nanoseconds.
+     */
+    public OffHeapUserCache(int maxEntries, long capacityBytes, int slabBytes, long timeToLive, TimeUnit timeUnit,
+                            LongSupplier nanoClock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException(INVALID_MAX_ENTRIES_ERROR);
+        }
+        if (slabBytes < 1) {
+            throw new IllegalArgumentException(INVALID_SLAB_SIZE_ERROR);
+        }
+        if (capacityBytes < slabBytes) {
+            throw new IllegalArgumentException(INVALID_CAPACITY_ERROR);
+        }
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException(INVALID_TIME_TO_LIVE_ERROR);
+        }
+        int indexCapacity = indexCapacityFor(maxEntries);
+        this.maxEntries = Math.min(maxEntries, indexCapacity / 2);
+        this.slabBytes = slabBytes;
+        this.timeToLiveNanos = timeUnit.toNanos(timeToLive);
+        this.nanoClock = nanoClock;
+        int slabCount = (int) Math.min(Integer.MAX_VALUE, capacityBytes / slabBytes);
+        this.slabs = new ByteBuffer[slabCount];
+        this.slabEntries = new int[slabCount];
+        this.keyHashes = new long[indexCapacity];
+        this.locations = new long[indexCapacity];
+        this.indexMask = indexCapacity - 1;
+    }
+
+    /**
+     * Returns a copy of the cached user, if it has not expired.
+     *
+     * @param username the username.
+     * @return the cached user or empty.
+     */
+    @Override
+    public synchronized Optional<UserDto> get(String username) {
+        int slot = findSlot(username);
+        if (slot < 0) {
+            misses++;
+            return Optional.empty();
+        }
+        ByteBuffer record = recordAt(locations[slot]);
+        if (nanoClock.getAsLong() - record.getLong(EXPIRES_AT_OFFSET) >= 0) {
+            removeSlot(slot);
+            expirations++;
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(decodeUser(record));
+    }
+
+    /**
+     * Serializes the user into the current slab. A user larger than a slab is not cached.
+     *
+     * @param username the username.
+     * @param user     the user.
+     */
+    @Override
+    public synchronized void put(String username, UserDto user) {
+        if (isNull(username)) {
+            return;
+        }
+        invalidate(username);
+        byte[][] fields = encodeFields(username, user);
+        int recordLength = recordLength(fields);
+        if (recordLength > slabBytes) {
+            return;
+        }
+        if (writeOffset + recordLength > slabBytes) {
+            writeSlab = (writeSlab + 1) % slabs.length;
+            writeOffset = 0;
+            evictSlab(writeSlab);
+        }
+        while (size >= maxEntries) {
+            evictOldestSlab();
+        }
+        ByteBuffer record = slab(writeSlab).duplicate();
+        record.position(writeOffset);
+        record.putInt(recordLength);
+        record.putLong(nanoClock.getAsLong() + timeToLiveNanos);
+        putString(record, fields[USERNAME_FIELD]);
+        putString(record, fields[INSTITUTION_FIELD]);
+        record.putInt(fields.length - FIRST_ROLE_FIELD);
+        for (int field = FIRST_ROLE_FIELD; field < fields.length; field++) {
+            putString(record, fields[field]);
+        }
+        insert(hashOf(username), location(writeSlab, writeOffset));
+        slabEntries[writeSlab]++;
+        size++;
+        liveBytes += recordLength;
+        writeOffset += recordLength;
+    }
+
+    @Override
+    public synchronized void invalidate(String username) {
+        int slot = findSlot(username);
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateIf(Predicate<String> keyFilter) {
+        removeIf(location -> keyFilter.test(readUsername(recordAt(location))));
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        Arrays.fill(keyHashes, EMPTY_SLOT);
+        Arrays.fill(locations, 0);
+        Arrays.fill(slabEntries, 0);
+        size = 0;
+        liveBytes = 0;
+        writeSlab = 0;
+        writeOffset = 0;
+    }
+
+    @Override
+    public synchronized CacheStatistics statistics() {
+        return new CacheStatistics(hits, misses, evictions, expirations, size);
+    }
+
+    /**
+     * Reports the memory used by the cache outside and inside the heap, along with the heap, the direct memory and the
+     * garbage collections of the JVM.
+     *
+     * @return a snapshot of the memory statistics.
+     */
+    public synchronized CacheMemoryStatistics memoryStatistics() {
+        long allocatedBytes = Arrays.stream(slabs).filter(Objects::nonNull).mapToLong(ByteBuffer::capacity).sum();
+        long indexBytes = (long) (keyHashes.length + locations.length) * Long.BYTES;
+        return CacheMemoryStatistics.snapshot((long) slabs.length * slabBytes, allocatedBytes, liveBytes,
+            indexBytes);
+    }
+
+    private ByteBuffer slab(int slabNumber) {
+        if (isNull(slabs[slabNumber])) {
+            slabs[slabNumber] = ByteBuffer.allocateDirect(slabBytes);
+        }
+        return slabs[slabNumber];
+    }
+
+    private ByteBuffer recordAt(long location) {
+        ByteBuffer record = slabs[slabOf(location)].duplicate();
+        record.position(offsetOf(location));
+        return record.slice();
+    }
+
+    private void evictSlab(int slabNumber) {
+        if (slabEntries[slabNumber] > 0) {
+            int entriesBefore = size;
+            removeIf(location -> slabOf(location) == slabNumber);
+            evictions += entriesBefore - size;
+        }
+    }
+
+    private void evictOldestSlab() {
+        for (int step = 1; step <= slabs.length; step++) {
+            int slabNumber = (writeSlab + step) % slabs.length;
+            if (slabEntries[slabNumber] > 0) {
+                evictSlab(slabNumber);
+                return;
+            }
+        }
+    }
+
+    private int findSlot(String username) {
+        if (isNull(username)) {
+            return -1;
+        }
+        long hash = hashOf(username);
+        for (int slot = homeSlot(hash); keyHashes[slot] != EMPTY_SLOT; slot = (slot + 1) & indexMask) {
+            if (keyHashes[slot] == hash) {
+                return username.equals(readUsername(recordAt(locations[slot]))) ? slot : -1;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Two usernames with the same 64-bit hash share a slot, and storing one replaces the other.
+     */
+    private void insert(long hash, long location) {
+        int slot = homeSlot(hash);
+        while (keyHashes[slot] != EMPTY_SLOT) {
+            if (keyHashes[slot] == hash) {
+                removeSlot(slot);
+                insert(hash, location);
+                return;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        keyHashes[slot] = hash;
+        locations[slot] = location;
+    }
+
+    /*
+     * Visits every slot once. A removal can shift a later entry into the current slot, so the slot is checked again
+     * after a removal. Entries shifted across the end of the index are visited twice, which is harmless.
+     */
+    private void removeIf(LongPredicate locationFilter) {
+        int slot = 0;
+        while (slot < keyHashes.length) {
+            if (keyHashes[slot] != EMPTY_SLOT && locationFilter.test(locations[slot])) {
+                removeSlot(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    /*
+     * Removes the entry of a slot and shifts the following entries of its probe sequence backwards, so that linear
+     * probing needs no tombstones.
+     */
+    private void removeSlot(int slot) {
+        long location = locations[slot];
+        slabEntries[slabOf(location)]--;
+        liveBytes -= recordAt(location).getInt(RECORD_LENGTH_OFFSET);
+        size--;
+        int hole = slot;
+        for (int next = (hole + 1) & indexMask; keyHashes[next] != EMPTY_SLOT; next = (next + 1) & indexMask) {
+            int home = homeSlot(keyHashes[next]);
+            if (((next - home) & indexMask) >= ((next - hole) & indexMask)) {
+                keyHashes[hole] = keyHashes[next];
+                locations[hole] = locations[next];
+                hole = next;
+            }
+        }
+        keyHashes[hole] = EMPTY_SLOT;
+        locations[hole] = 0;
+    }
+
+    private int homeSlot(long hash) {
+        return (int) (hash ^ (hash >>> Integer.SIZE)) & indexMask;
+    }
+
+    private static UserDto decodeUser(ByteBuffer record) {
+        record.position(USERNAME_OFFSET);
+        String username = getString(record);
+        String institution = getString(record);
+        int roleCount = record.getInt();
+        try {
+            List<RoleDto> roles = new ArrayList<>(roleCount);
+            for (int role = 0; role < roleCount; role++) {
+                roles.add(RoleDto.newBuilder().withName(getString(record)).build());
+            }
+            return UserDto.newBuilder().withUsername(username).withInstitution(institution).withRoles(roles).build();
+        } catch (InvalidEntryInternalException e) {
+            throw new IllegalStateException(CORRUPT_ENTRY_ERROR + username, e);
+        }
+    }
+
+    private static String readUsername(ByteBuffer record) {
+        record.position(USERNAME_OFFSET);
+        return getString(record);
+    }
+
+    /*
+     * A record holds its length, its expiry time, the username it is cached under, the institution, the number of roles
+     * and the role names. A string is written as the length of its UTF-8 bytes followed by the bytes, or as -1 when it
+     * is null.
+     */
+    private static byte[][] encodeFields(String username, UserDto user) {
+        List<RoleDto> roles = Optional.ofNullable(user.getRoles()).orElse(List.of());
+        byte[][] fields = new byte[FIRST_ROLE_FIELD + roles.size()][];
+        fields[USERNAME_FIELD] = utf8(username);
+        fields[INSTITUTION_FIELD] = utf8(user.getInstitution());
+        for (int role = 0; role < roles.size(); role++) {
+            fields[FIRST_ROLE_FIELD + role] = utf8(roles.get(role).getRoleName());
+        }
+        return fields;
+    }
+
+    private static int recordLength(byte[][] fields) {
+        long length = USERNAME_OFFSET + Integer.BYTES;
+        for (byte[] field : fields) {
+            length += Integer.BYTES + (isNull(field) ? 0 : field.length);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, length);
+    }
+
+    private static void putString(ByteBuffer record, byte[] field) {
+        record.putInt(isNull(field) ? NULL_STRING_LENGTH : field.length);
+        if (nonNull(field)) {
+            record.put(field);
+        }
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length == NULL_STRING_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /*
+     * FNV-1a over the characters, followed by the finalizer of MurmurHash3 to spread the bits over the whole hash. The
+     * empty slot marker is never returned.
+     */
+    private static long hashOf(String username) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < username.length(); i++) {
+            hash ^= username.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash == EMPTY_SLOT ? 1 : hash;
+    }
+
+    private static long location(int slabNumber, int offset) {
+        return ((long) slabNumber << Integer.SIZE) | (offset & 0xffffffffL);
+    }
+
+    private static int slabOf(long location) {
+        return (int) (location >>> Integer.SIZE);
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    private static int indexCapacityFor(int maxEntries) {
+        long minCapacity = 2L * maxEntries;
+        int capacity = 1;
+        while (capacity < minCapacity && capacity < MAX_INDEX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int slabBytesFor(long capacityBytes) {
+        return (int) Math.max(1, Math.min(DEFAULT_SLAB_BYTES, capacityBytes));
+    }
+}
@@ -0,0 +1,169 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.function.Predicate.not;
+import static nva.commons.utils.JsonUtils.objectMapper;
+import static nva.commons.utils.attempt.Try.attempt;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import no.unit.nva.exceptions.InvalidInputException;
+import nva.commons.utils.Environment;
+import nva.commons.utils.attempt.Failure;
+import nva.commons.utils.aws.SecretsReader;
+
+/**
+ * Converts the {@code LastEvaluatedKey} of a query to an opaque continuation token and back. The token carries an
+ * HMAC over the key and the institution it was issued for, so a modified token, or a token issued for another
+ * institution, is rejected instead of being used as {@code ExclusiveStartKey}.
+ *
+ * <p>The signing secret is shared by all the instances of the service, so that a cursor issued by one instance is
+ * accepted by the others. It is read from Secrets Manager, from the secret and the key named in the env variables
+ * {@code PAGINATION_CURSOR_SECRET_NAME} and {@code PAGINATION_CURSOR_SECRET_KEY}.
+ */
+public class PaginationCursorCodec {
+
+    public static final String INVALID_CURSOR_ERROR = "Invalid pagination cursor";
+    public static final String SECRET_NAME_ENV_VARIABLE = "PAGINATION_CURSOR_SECRET_NAME";
+    public static final String SECRET_KEY_ENV_VARIABLE = "PAGINATION_CURSOR_SECRET_KEY";
+    public static final String MISSING_SECRET_ERROR = "Pagination cursor secret is missing";
+    public static final String MISSING_ENV_VARIABLE_ERROR = "Missing env variable: ";
+    public static final String SECRET_NOT_READ_ERROR = "Could not read the pagination cursor secret";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SIGNATURE_DELIMITER = ".";
+    private static final String SIGNATURE_DELIMITER_REGEX = "\\.";
+    private static final int CURSOR_PARTS = 2;
+    private static final TypeReference<Map<String, String>> KEY_VALUES_TYPE = new TypeReference<>() {};
+    private static final ObjectReader KEY_VALUES_READER = objectMapper.readerFor(KEY_VALUES_TYPE);
+    private static final ObjectWriter KEY_VALUES_WRITER = objectMapper.writerFor(KEY_VALUES_TYPE);
+
+    private final SecretKeySpec signingKey;
+
+    /**
+     * Creates a codec signing the cursors with the given secret.
+     *
+     * @param secret the signing secret.
+     * @throws IllegalStateException when the secret is missing or blank.
+     */
+    public PaginationCursorCodec(String secret) {
+        if (isNull(secret) || secret.isBlank()) {
+            throw new IllegalStateException(MISSING_SECRET_ERROR);
+        }
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Creates a codec with the secret stored in Secrets Manager.
+     *
+     * @param secretsManager the Secrets Manager client.
+     * @param environment    the environment naming the secret and its key.
+     * @return a {@link PaginationCursorCodec}
+     * @throws IllegalStateException when the secret is not configured or cannot be read.
+     */
+    public static PaginationCursorCodec fromSecretsManager(AWSSecretsManager secretsManager,
+                                                           Environment environment) {
+        String secretName = readRequiredEnv(environment, SECRET_NAME_ENV_VARIABLE);
+        String secretKey = readRequiredEnv(environment, SECRET_KEY_ENV_VARIABLE);
+        SecretsReader secretsReader = new SecretsReader(secretsManager);
+        String secret = attempt(() -> secretsReader.fetchSecret(secretName, secretKey))
+            .orElseThrow(failure -> new IllegalStateException(SECRET_NOT_READ_ERROR, failure.getException()));
+        return new PaginationCursorCodec(secret);
+    }
+
+    /**
+     * Creates a continuation token for the next page of a query.
+     *
+     * @param institution      the institution the query was issued for.
+     * @param lastEvaluatedKey the {@code LastEvaluatedKey} of the query result.
+     * @return a continuation token or {@code null} when there are no more pages.
+     */
+    public String encode(String institution, Map<String, AttributeValue> lastEvaluatedKey) {
+        if (isNull(lastEvaluatedKey) || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> keyValues = lastEvaluatedKey.entrySet().stream()
+            .collect(Collectors.toMap(Entry::getKey, entry -> entry.getValue().getS()));
+        byte[] payload = attempt(() -> KEY_VALUES_WRITER.writeValueAsBytes(keyValues))
+            .orElseThrow(this::unexpectedException);
+        return base64Encode(payload) + SIGNATURE_DELIMITER + base64Encode(sign(institution, payload));
+    }
+
+    /**
+     * Validates a continuation token and returns the key that the next query should start from.
+     *
+     * @param institution the institution the query is issued for.
+     * @param cursor      a continuation token created by {@link #encode(String, Map)}.
+     * @return the {@code ExclusiveStartKey} for the query or {@code null} when the cursor is {@code null}.
+     * @throws InvalidInputException when the cursor is malformed, modified or issued for another institution.
+     */
+    public Map<String, AttributeValue> decode(String institution, String cursor) throws InvalidInputException {
+        if (isNull(cursor)) {
+            return null;
+        }
+        String[] parts = cursor.split(SIGNATURE_DELIMITER_REGEX);
+        if (parts.length != CURSOR_PARTS) {
+            throw new InvalidInputException(INVALID_CURSOR_ERROR);
+        }
+        byte[] payload = base64Decode(parts[0]);
+        byte[] signature = base64Decode(parts[1]);
+        if (!MessageDigest.isEqual(sign(institution, payload), signature)) {
+            throw new InvalidInputException(INVALID_CURSOR_ERROR);
+        }
+        Map<String, String> keyValues = attempt(() -> KEY_VALUES_READER.<Map<String, String>>readValue(payload))
+            .orElseThrow(fail -> new InvalidInputException(INVALID_CURSOR_ERROR));
+        return keyValues.entrySet().stream()
+            .collect(Collectors.toMap(Entry::getKey, entry -> new AttributeValue(entry.getValue())));
+    }
+
+    private byte[] sign(String institution, byte[] payload) {
+        Mac mac = newMac();
+        mac.update(institution.getBytes(StandardCharsets.UTF_8));
+        mac.update(SIGNATURE_DELIMITER.getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readRequiredEnv(Environment environment, String variable) {
+        return environment.readEnvOpt(variable)
+            .filter(not(String::isBlank))
+            .orElseThrow(() -> new IllegalStateException(MISSING_ENV_VARIABLE_ERROR + variable));
+    }
+
+    private static String base64Encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] base64Decode(String encoded) throws InvalidInputException {
+        try {
+            return Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(INVALID_CURSOR_ERROR);
+        }
+    }
+
+    private <T> IllegalStateException unexpectedException(Failure<T> failure) {
+        throw new IllegalStateException(failure.getException());
+    }
+}
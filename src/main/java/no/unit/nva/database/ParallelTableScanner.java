@@ -0,0 +1,188 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.DatabaseServiceWithTableNameOverride.createMapperOverridingHardCodedTableName;
+import static nva.commons.utils.attempt.Try.attempt;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Consumer;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import nva.commons.utils.Environment;
+import nva.commons.utils.attempt.Failure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Walks the whole users-and-roles table with a DynamoDB parallel scan. The table is split in a number of segments that
+ * are scanned concurrently on a bounded thread pool. Every item is passed to a {@link TableScanConsumer} according to
+ * its type, and a {@link TableScanProgress} snapshot is reported after every page.
+ */
+public class ParallelTableScanner {
+
+    public static final int DEFAULT_TOTAL_SEGMENTS = 8;
+    public static final String INVALID_TOTAL_SEGMENTS_ERROR = "Total segments should be a positive number";
+    public static final String SCAN_FAILED_ERROR = "Scan of segment failed";
+    public static final String SCAN_INTERRUPTED_ERROR = "Scan was interrupted";
+    public static final String INVALID_ENTRY_ERROR = "Invalid entry found while scanning the table: ";
+    private static final String TYPE_ATTRIBUTE = "type";
+    private static final Logger logger = LoggerFactory.getLogger(ParallelTableScanner.class);
+
+    private final AmazonDynamoDB dynamoDbClient;
+    private final DynamoDBMapper mapper;
+    private final String tableName;
+    private final int totalSegments;
+
+    public ParallelTableScanner(AmazonDynamoDB dynamoDbClient, Environment environment) {
+        this(dynamoDbClient, environment, DEFAULT_TOTAL_SEGMENTS);
+    }
+
+    /**
+     * Creates a scanner for the table given by the {@code USERS_AND_ROLES_TABLE} environment variable.
+     *
+     * @param dynamoDbClient the DynamoDB client.
+     * @param environment    the environment containing the table name.
+     * @param totalSegments  the number of segments and of the threads that scan them.
+     */
+    public ParallelTableScanner(AmazonDynamoDB dynamoDbClient, Environment environment, int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException(INVALID_TOTAL_SEGMENTS_ERROR);
+        }
+        this.dynamoDbClient = dynamoDbClient;
+        this.mapper = createMapperOverridingHardCodedTableName(dynamoDbClient, environment);
+        this.tableName = environment.readEnv(DatabaseService.USERS_AND_ROLES_TABLE_NAME_ENV_VARIABLE);
+        this.totalSegments = totalSegments;
+    }
+
+    /**
+     * Scans the whole table. The method returns when all segments have been scanned. Every scan counts its own
+     * progress, so a scanner can be used for several scans, also concurrently.
+     *
+     * @param consumer         receives the users and the roles of the table.
+     * @param progressListener receives a progress snapshot after every scanned page. It is called concurrently from
+     *                         the scanning threads.
+     * @return the final progress of the scan.
+     */
+    public TableScanProgress scan(TableScanConsumer consumer, Consumer<TableScanProgress> progressListener) {
+        ExecutorService executor = Executors.newFixedThreadPool(totalSegments);
+        ScanCounters counters = new ScanCounters(totalSegments);
+        try {
+            List<Future<Void>> segments = new ArrayList<>();
+            for (int segment = 0; segment < totalSegments; segment++) {
+                segments.add(executor.submit(scanSegment(segment, consumer, progressListener, counters)));
+            }
+            for (Future<Void> segment : segments) {
+                segment.get();
+            }
+            return counters.currentProgress();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(SCAN_FAILED_ERROR, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(SCAN_INTERRUPTED_ERROR, e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Void> scanSegment(int segment, TableScanConsumer consumer,
+                                       Consumer<TableScanProgress> progressListener, ScanCounters counters) {
+        return () -> {
+            Map<String, AttributeValue> exclusiveStartKey = null;
+            do {
+                ScanResult page = dynamoDbClient.scan(createScanRequest(segment, exclusiveStartKey));
+                page.getItems().forEach(item -> dispatch(item, consumer, counters));
+                counters.countPage(page);
+                exclusiveStartKey = page.getLastEvaluatedKey();
+                if (isLastPage(exclusiveStartKey)) {
+                    counters.completedSegments.incrementAndGet();
+                }
+                progressListener.accept(counters.currentProgress());
+            } while (!isLastPage(exclusiveStartKey) && !Thread.currentThread().isInterrupted());
+            return null;
+        };
+    }
+
+    private ScanRequest createScanRequest(int segment, Map<String, AttributeValue> exclusiveStartKey) {
+        return new ScanRequest()
+            .withTableName(tableName)
+            .withSegment(segment)
+            .withTotalSegments(totalSegments)
+            .withExclusiveStartKey(exclusiveStartKey)
+            .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+    }
+
+    private void dispatch(Map<String, AttributeValue> item, TableScanConsumer consumer, ScanCounters counters) {
+        String type = Optional.ofNullable(item.get(TYPE_ATTRIBUTE))
+            .map(AttributeValue::getS)
+            .orElse(null);
+        if (UserDb.TYPE.equals(type)) {
+            UserDb userDb = mapper.marshallIntoObject(UserDb.class, item);
+            consumer.acceptUser(attempt(() -> UserDto.fromUserDb(userDb)).orElseThrow(this::invalidEntry));
+            counters.users.incrementAndGet();
+        } else if (RoleDb.TYPE.equals(type)) {
+            RoleDb roleDb = mapper.marshallIntoObject(RoleDb.class, item);
+            consumer.acceptRole(attempt(() -> RoleDto.fromRoleDb(roleDb)).orElseThrow(this::invalidEntry));
+            counters.roles.incrementAndGet();
+        } else {
+            counters.skippedItems.incrementAndGet();
+        }
+    }
+
+    private static boolean isLastPage(Map<String, AttributeValue> lastEvaluatedKey) {
+        return isNull(lastEvaluatedKey) || lastEvaluatedKey.isEmpty();
+    }
+
+    private <T> IllegalStateException invalidEntry(Failure<T> failure) {
+        logger.error(INVALID_ENTRY_ERROR, failure.getException());
+        throw new IllegalStateException(INVALID_ENTRY_ERROR, failure.getException());
+    }
+
+    /*
+     * The counters of a single scan, updated concurrently by the threads scanning its segments.
+     */
+    private static class ScanCounters {
+
+        private final int totalSegments;
+        private final AtomicInteger completedSegments = new AtomicInteger();
+        private final AtomicLong scannedItems = new AtomicLong();
+        private final AtomicLong users = new AtomicLong();
+        private final AtomicLong roles = new AtomicLong();
+        private final AtomicLong skippedItems = new AtomicLong();
+        private final DoubleAdder consumedCapacityUnits = new DoubleAdder();
+
+        ScanCounters(int totalSegments) {
+            this.totalSegments = totalSegments;
+        }
+
+        void countPage(ScanResult page) {
+            scannedItems.addAndGet(page.getScannedCount());
+            if (nonNull(page.getConsumedCapacity())) {
+                consumedCapacityUnits.add(page.getConsumedCapacity().getCapacityUnits());
+            }
+        }
+
+        TableScanProgress currentProgress() {
+            return new TableScanProgress(totalSegments, completedSegments.get(), scannedItems.get(), users.get(),
+                roles.get(), skippedItems.get(), consumedCapacityUnits.sum());
+        }
+    }
+}
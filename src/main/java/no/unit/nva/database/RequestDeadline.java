@@ -0,0 +1,94 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The time left until the current Lambda invocation times out. A Lambda container serves one invocation at a time, so
+ * the handlers run every invocation {@link #within} the shared {@link #INVOCATION} deadline, and it is seen by all the
+ * DynamoDB calls of the invocation, including the ones sent by the threads of a bulk write.
+ *
+ * <p>The deadline is cleared when the invocation returns, so work that runs outside of an invocation, such as the
+ * initialization of a handler or a background refresh that outlives the invocation that triggered it, has no deadline
+ * instead of the expired deadline of an earlier invocation.
+ */
+public class RequestDeadline {
+
+    public static final RequestDeadline INVOCATION = new RequestDeadline(System::nanoTime);
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final LongSupplier nanoClock;
+    private volatile long deadlineNanos;
+    private volatile boolean started;
+
+    public RequestDeadline(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Starts the deadline from the remaining time of a Lambda invocation. Without a context there is no deadline.
+     *
+     * @param context the context of the invocation, or {@code null}.
+     */
+    public void start(Context context) {
+        if (isNull(context)) {
+            clear();
+        } else {
+            start(context.getRemainingTimeInMillis());
+        }
+    }
+
+    /**
+     * Runs an invocation with the deadline started from its context, and clears the deadline when it returns.
+     *
+     * @param context    the context of the invocation, or {@code null}.
+     * @param invocation the work of the invocation.
+     * @param <E>        the exception thrown by the invocation.
+     * @throws E when the invocation fails.
+     */
+    public <E extends Exception> void within(Context context, Invocation<E> invocation) throws E {
+        start(context);
+        try {
+            invocation.run();
+        } finally {
+            clear();
+        }
+    }
+
+    public void start(long remainingMillis) {
+        deadlineNanos = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        started = true;
+    }
+
+    public void clear() {
+        started = false;
+    }
+
+    /**
+     * Returns the time left until the deadline.
+     *
+     * @return the milliseconds left, zero when the deadline has passed, or {@link #NO_DEADLINE} when it has not been
+     *     started.
+     */
+    public long remainingMillis() {
+        if (!started) {
+            return NO_DEADLINE;
+        }
+        long remainingNanos = deadlineNanos - nanoClock.getAsLong();
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+    }
+
+    /**
+     * The work of a Lambda invocation.
+     *
+     * @param <E> the exception thrown by the invocation.
+     */
+    @FunctionalInterface
+    public interface Invocation<E extends Exception> {
+
+        void run() throws E;
+    }
+}
@@ -0,0 +1,60 @@
+package no.unit.nva.database;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket that limits the rate of retries. Every retry takes a token and the bucket is refilled at a fixed
+ * rate, so a short burst of throttling is retried, but a sustained one fails fast instead of multiplying the load on
+ * the table. The tokens are counted in the nanoseconds it takes to refill them, so that no rounding is needed.
+ */
+public class RetryBudget {
+
+    public static final int DEFAULT_CAPACITY = 20;
+    public static final int DEFAULT_REFILL_PER_SECOND = 5;
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final LongSupplier nanoClock;
+    private long availableNanos;
+    private long lastRefillNanos;
+
+    public RetryBudget() {
+        this(DEFAULT_CAPACITY, DEFAULT_REFILL_PER_SECOND, System::nanoTime);
+    }
+
+    /**
+     * Creates a full retry budget.
+     *
+     * @param capacity        the maximum number of retries in a burst.
+     * @param refillPerSecond the number of retries added to the budget every second.
+     * @param nanoClock       the clock measuring the elapsed time.
+     */
+    public RetryBudget(int capacity, int refillPerSecond, LongSupplier nanoClock) {
+        this.nanosPerToken = Math.max(1, TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.capacityNanos = capacity * nanosPerToken;
+        this.nanoClock = nanoClock;
+        this.availableNanos = capacityNanos;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a retry from the budget.
+     *
+     * @return {@code true} if the budget allows a retry, {@code false} if it has been spent.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (availableNanos < nanosPerToken) {
+            return false;
+        }
+        availableNanos -= nanosPerToken;
+        return true;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        availableNanos = Math.min(capacityNanos, availableNanos + now - lastRefillNanos);
+        lastRefillNanos = now;
+    }
+}
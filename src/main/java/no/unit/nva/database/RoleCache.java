@@ -0,0 +1,130 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import no.unit.nva.model.RoleDto;
+
+/**
+ * An in-memory cache of the roles read from or written to the database, emptied as a whole once it is older than its
+ * time-to-live. Roles are added one at a time, as they are read, so filling the cache never scans the table. Every
+ * change builds a new immutable map that replaces the previous one atomically, so lookups never wait for a change.
+ *
+ * <p>The age of the cache is checked by {@link #resetIfExpired()} on every lookup instead of by a background thread,
+ * which would not run while Lambda freezes the container. The roles of an expired cache are read from the database
+ * again on their next lookup.
+ */
+public class RoleCache {
+
+    public static final long DEFAULT_TIME_TO_LIVE_SECONDS = 300;
+    public static final String INVALID_TIME_TO_LIVE_ERROR = "Time-to-live should be a positive duration";
+
+    private final long timeToLiveMillis;
+    private final LongSupplier wallClock;
+    private final AtomicReference<Snapshot> snapshot;
+
+    public RoleCache(long timeToLive, TimeUnit timeUnit) {
+        this(timeToLive, timeUnit, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param timeToLive the age after which the cache is emptied.
+     * @param timeUnit   the unit of the time-to-live.
+     * @param wallClock  the current time in milliseconds.
+     */
+    public RoleCache(long timeToLive, TimeUnit timeUnit, LongSupplier wallClock) {
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException(INVALID_TIME_TO_LIVE_ERROR);
+        }
+        this.timeToLiveMillis = timeUnit.toMillis(timeToLive);
+        this.wallClock = wallClock;
+        this.snapshot = new AtomicReference<>(Snapshot.empty(wallClock.getAsLong()));
+    }
+
+    /**
+     * Returns a cached role. The cache is emptied first if it has expired.
+     *
+     * @param roleName the name of the role.
+     * @return the cached role or empty if the role is not cached.
+     */
+    public Optional<RoleDto> getRole(String roleName) {
+        resetIfExpired();
+        return isNull(roleName) ? Optional.empty() : Optional.ofNullable(snapshot.get().rolesByName.get(roleName));
+    }
+
+    /**
+     * Caches a role that has been read from or written to the database, replacing a cached role with the same name.
+     * The cache is emptied first if it has expired, so that the role is not dropped with the expired roles.
+     *
+     * @param role a role that exists in the database.
+     */
+    public void put(RoleDto role) {
+        if (isNull(role) || isNull(role.getRoleName())) {
+            return;
+        }
+        resetIfExpired();
+        snapshot.updateAndGet(current -> current.with(role));
+    }
+
+    /**
+     * Removes the matching roles from the cache. A removed role is read from the database on its next lookup.
+     *
+     * @param roleNameFilter selects the roles to be removed.
+     */
+    public void invalidateIf(Predicate<String> roleNameFilter) {
+        snapshot.updateAndGet(current -> current.without(roleNameFilter));
+    }
+
+    /**
+     * Empties the cache if it is older than its time-to-live. Of concurrent callers, only one replaces the expired
+     * cache.
+     */
+    public void resetIfExpired() {
+        long now = wallClock.getAsLong();
+        Snapshot current = snapshot.get();
+        if (now - current.createdAt >= timeToLiveMillis) {
+            snapshot.compareAndSet(current, Snapshot.empty(now));
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Map<String, RoleDto> rolesByName;
+        private final long createdAt;
+
+        private Snapshot(Map<String, RoleDto> rolesByName, long createdAt) {
+            this.rolesByName = rolesByName;
+            this.createdAt = createdAt;
+        }
+
+        static Snapshot empty(long createdAt) {
+            return new Snapshot(Map.of(), createdAt);
+        }
+
+        Snapshot with(RoleDto role) {
+            if (role.equals(rolesByName.get(role.getRoleName()))) {
+                return this;
+            }
+            Map<String, RoleDto> updated = new HashMap<>(rolesByName);
+            updated.put(role.getRoleName(), role);
+            return new Snapshot(Map.copyOf(updated), createdAt);
+        }
+
+        Snapshot without(Predicate<String> roleNameFilter) {
+            if (rolesByName.keySet().stream().noneMatch(roleNameFilter)) {
+                return this;
+            }
+            Map<String, RoleDto> updated = new HashMap<>(rolesByName);
+            updated.keySet().removeIf(roleNameFilter);
+            return new Snapshot(Map.copyOf(updated), createdAt);
+        }
+    }
+}
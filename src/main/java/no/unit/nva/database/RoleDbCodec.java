@@ -0,0 +1,74 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.HashMap;
+import java.util.Map;
+import no.unit.nva.database.interfaces.AttributeValueCodec;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+
+/**
+ * Converts a {@link RoleDb} to and from an item without the reflection of the DynamoDBMapper. A role is stored both as
+ * an item of its own and as an element of the roles of a user, in the same format.
+ */
+public class RoleDbCodec implements AttributeValueCodec<RoleDb> {
+
+    public static final String NAME_ATTRIBUTE = "name";
+    public static final String TYPE_ATTRIBUTE = "type";
+    public static final String MISSING_PRIMARY_KEY_ERROR = "Item does not have a primary hash key: ";
+
+    @Override
+    public Map<String, AttributeValue> encode(RoleDb role) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        putString(item, PRIMARY_KEY_HASH_KEY, role.getPrimaryHashKey());
+        putString(item, PRIMARY_KEY_RANGE_KEY, role.getPrimaryRangeKey());
+        putString(item, NAME_ATTRIBUTE, role.getName());
+        putString(item, TYPE_ATTRIBUTE, role.getType());
+        return item;
+    }
+
+    @Override
+    public RoleDb decode(Map<String, AttributeValue> item) throws InvalidEntryInternalException {
+        RoleDb role = new RoleDb();
+        role.setPrimaryHashKey(requirePrimaryHashKey(item));
+        role.setName(getString(item, NAME_ATTRIBUTE));
+        return role;
+    }
+
+    @Override
+    public Map<String, AttributeValue> key(RoleDb role) {
+        return Map.of(
+            PRIMARY_KEY_HASH_KEY, new AttributeValue(role.getPrimaryHashKey()),
+            PRIMARY_KEY_RANGE_KEY, new AttributeValue(role.getPrimaryRangeKey()));
+    }
+
+    /**
+     * Adds a string attribute to an item. Like the DynamoDBMapper, null values are left out of the item.
+     *
+     * @param item      the item.
+     * @param attribute the attribute name.
+     * @param value     the value or {@code null}.
+     */
+    static void putString(Map<String, AttributeValue> item, String attribute, String value) {
+        if (nonNull(value)) {
+            item.put(attribute, new AttributeValue(value));
+        }
+    }
+
+    static String getString(Map<String, AttributeValue> item, String attribute) {
+        AttributeValue value = item.get(attribute);
+        return isNull(value) ? null : value.getS();
+    }
+
+    static String requirePrimaryHashKey(Map<String, AttributeValue> item) throws InvalidEntryInternalException {
+        String primaryHashKey = getString(item, PRIMARY_KEY_HASH_KEY);
+        if (isNull(primaryHashKey)) {
+            throw new InvalidEntryInternalException(MISSING_PRIMARY_KEY_ERROR + item.keySet());
+        }
+        return primaryHashKey;
+    }
+}
@@ -0,0 +1,80 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+
+/**
+ * Runs at most one load per key at a time. The first caller of a key performs the load, and the callers that arrive
+ * while the load is in flight wait for it and receive the same result or the same exception. A key is forgotten as
+ * soon as its load completes, so nothing is cached.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the loaded values.
+ */
+public class SingleFlight<K, V> {
+
+    public static final String LOAD_FAILED_ERROR = "Shared load failed";
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the value of a key, or waits for the load of the key that is already in flight.
+     *
+     * @param key    the key. Loads of a {@code null} key are not shared.
+     * @param loader loads the value. It is only called if no load of the key is in flight.
+     * @return the loaded value.
+     * @throws InvalidEntryInternalException when the load fails with this exception.
+     */
+    public V load(K key, Loader<V> loader) throws InvalidEntryInternalException {
+        if (isNull(key)) {
+            return loader.load();
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existingFlight = inFlight.putIfAbsent(key, flight);
+        if (nonNull(existingFlight)) {
+            return awaitResult(existingFlight);
+        }
+        try {
+            V value = loader.load();
+            flight.complete(value);
+            return value;
+        } catch (InvalidEntryInternalException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(new IllegalStateException(LOAD_FAILED_ERROR));
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V awaitResult(CompletableFuture<V> flight) throws InvalidEntryInternalException {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvalidEntryInternalException) {
+                throw (InvalidEntryInternalException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(LOAD_FAILED_ERROR, cause);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+
+        V load() throws InvalidEntryInternalException;
+    }
+}
@@ -0,0 +1,17 @@
+package no.unit.nva.database;
+
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+
+/**
+ * Receives the entries found by a {@link ParallelTableScanner}. The methods are called concurrently from the threads
+ * scanning the different segments, so implementations must be thread-safe. A segment does not fetch its next page
+ * before the entries of the current page have been consumed, so a slow consumer slows down the scan instead of
+ * letting unconsumed entries pile up in memory.
+ */
+public interface TableScanConsumer {
+
+    void acceptUser(UserDto user);
+
+    void acceptRole(RoleDto role);
+}
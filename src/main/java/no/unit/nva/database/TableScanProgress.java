@@ -0,0 +1,106 @@
+package no.unit.nva.database;
+
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * A snapshot of the progress of a {@link ParallelTableScanner}.
+ */
+public class TableScanProgress {
+
+    private final int totalSegments;
+    private final int completedSegments;
+    private final long scannedItems;
+    private final long users;
+    private final long roles;
+    private final long skippedItems;
+    private final double consumedCapacityUnits;
+
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    public TableScanProgress(int totalSegments, int completedSegments, long scannedItems, long users, long roles,
+                             long skippedItems, double consumedCapacityUnits) {
+        this.totalSegments = totalSegments;
+        this.completedSegments = completedSegments;
+        this.scannedItems = scannedItems;
+        this.users = users;
+        this.roles = roles;
+        this.skippedItems = skippedItems;
+        this.consumedCapacityUnits = consumedCapacityUnits;
+    }
+
+    public int getTotalSegments() {
+        return totalSegments;
+    }
+
+    public int getCompletedSegments() {
+        return completedSegments;
+    }
+
+    public long getScannedItems() {
+        return scannedItems;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public long getRoles() {
+        return roles;
+    }
+
+    /**
+     * Items that are neither users nor roles.
+     *
+     * @return the number of the items that were not passed to the consumer.
+     */
+    public long getSkippedItems() {
+        return skippedItems;
+    }
+
+    public double getConsumedCapacityUnits() {
+        return consumedCapacityUnits;
+    }
+
+    public boolean isCompleted() {
+        return completedSegments == totalSegments;
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TableScanProgress that = (TableScanProgress) o;
+        return getTotalSegments() == that.getTotalSegments()
+            && getCompletedSegments() == that.getCompletedSegments()
+            && getScannedItems() == that.getScannedItems()
+            && getUsers() == that.getUsers()
+            && getRoles() == that.getRoles()
+            && getSkippedItems() == that.getSkippedItems()
+            && Double.compare(that.getConsumedCapacityUnits(), getConsumedCapacityUnits()) == 0;
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getTotalSegments(), getCompletedSegments(), getScannedItems(), getUsers(), getRoles(),
+            getSkippedItems(), getConsumedCapacityUnits());
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return "TableScanProgress{"
+            + "segments=" + completedSegments + "/" + totalSegments
+            + ", scannedItems=" + scannedItems
+            + ", users=" + users
+            + ", roles=" + roles
+            + ", skippedItems=" + skippedItems
+            + ", consumedCapacityUnits=" + consumedCapacityUnits
+            + '}';
+    }
+}
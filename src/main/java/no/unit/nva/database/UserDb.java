@@ -1,6 +1,7 @@
 package no.unit.nva.database;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
 import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
 import static no.unit.nva.database.DatabaseIndexDetails.SEARCH_USERS_BY_INSTITUTION_INDEX_NAME;
@@ -15,13 +16,16 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import no.unit.nva.database.UserDb.Builder;
 import no.unit.nva.database.interfaces.DynamoEntry;
 import no.unit.nva.database.interfaces.WithCopy;
 import no.unit.nva.database.interfaces.WithType;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.utils.ContentDigests;
 import nva.commons.utils.JacocoGenerated;
 
 @DynamoDBTable(tableName = "OverridenByEnvironmentVariable")
@@ -30,11 +34,13 @@ public class UserDb extends DynamoEntry implements WithCopy<Builder>, WithType {
     public static final String TYPE = "USER";
     public static final String INVALID_USER_EMPTY_USERNAME = "Invalid user entry: Empty username is not allowed";
     public static final String INVALID_PRIMARY_HASH_KEY = "PrimaryHashKey of user should start with \"USER\"";
+    public static final String VERSION_ATTRIBUTE = "version";
 
     private String primaryHashKey;
     private String username;
     private String institution;
     private List<RoleDb> roles;
+    private String version;
 
     public UserDb() {
         super();
@@ -46,6 +52,7 @@ public class UserDb extends DynamoEntry implements WithCopy<Builder>, WithType {
         setInstitution(builder.institution);
         setRoles(builder.roles);
         setPrimaryHashKey(builder.primaryHashKey);
+        setVersion(builder.version);
     }
 
     public static Builder newBuilder() {
@@ -159,6 +166,31 @@ public class UserDb extends DynamoEntry implements WithCopy<Builder>, WithType {
         this.institution = institution;
     }
 
+    /**
+     * The version of the entry. The version is a digest of the username, the institution and the roles of the user, so
+     * every change of the user changes the version and the version can be calculated without reading the stored entry.
+     * A user without roles has the same version whether the roles are missing or empty. Every field is length-prefixed
+     * in the digest, so no two different users have the same version whatever characters their fields contain. Entries
+     * written before the version was introduced do not have a stored version; their version is the digest of their
+     * content.
+     *
+     * @return the version of the entry.
+     */
+    @JacocoGenerated
+    @DynamoDBAttribute(attributeName = VERSION_ATTRIBUTE)
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Method for using only for DynamoDb mapper. Do not use. Use the builder instead.
+     *
+     * @param version the version of the entry.
+     */
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
     @Override
     public UserDb.Builder copy() {
         return newBuilder()
@@ -198,6 +230,7 @@ public class UserDb extends DynamoEntry implements WithCopy<Builder>, WithType {
         private String institution;
         private List<RoleDb> roles;
         private String primaryHashKey;
+        private String version;
 
         private Builder() {
         }
@@ -213,15 +246,26 @@ public class UserDb extends DynamoEntry implements WithCopy<Builder>, WithType {
         }
 
         public Builder withRoles(Collection<RoleDb> roles) {
-            this.roles = new ArrayList<>(roles);
+            this.roles = nonNull(roles) ? new ArrayList<>(roles) : null;
             return this;
         }
 
         public UserDb build() throws InvalidEntryInternalException {
             this.primaryHashKey = formatPrimaryHashKey();
+            this.version = calculateVersion();
             return new UserDb(this);
         }
 
+        private String calculateVersion() {
+            List<String> fields = new ArrayList<>();
+            fields.add(username);
+            fields.add(institution);
+            Optional.ofNullable(roles).orElse(Collections.emptyList()).stream()
+                .map(RoleDb::getName)
+                .forEach(fields::add);
+            return ContentDigests.sha256OfFields(fields);
+        }
+
         private String formatPrimaryHashKey() throws InvalidEntryInternalException {
             if (isNull(username) || username.isBlank()) {
                 throw new InvalidEntryInternalException(INVALID_USER_EMPTY_USERNAME);
@@ -0,0 +1,94 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import static no.unit.nva.database.DatabaseIndexDetails.SECONDARY_INDEX_1_HASH_KEY;
+import static no.unit.nva.database.DatabaseIndexDetails.SECONDARY_INDEX_1_RANGE_KEY;
+import static no.unit.nva.database.RoleDbCodec.getString;
+import static no.unit.nva.database.RoleDbCodec.putString;
+import static no.unit.nva.database.RoleDbCodec.requirePrimaryHashKey;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import no.unit.nva.database.interfaces.AttributeValueCodec;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+
+/**
+ * Converts a {@link UserDb} to and from an item without the reflection of the DynamoDBMapper. The roles are stored as a
+ * list of maps, each one encoded by the {@link RoleDbCodec}.
+ */
+public class UserDbCodec implements AttributeValueCodec<UserDb> {
+
+    public static final String USERNAME_ATTRIBUTE = "username";
+    public static final String INSTITUTION_ATTRIBUTE = "institution";
+    public static final String ROLES_ATTRIBUTE = "roles";
+
+    private final RoleDbCodec roleCodec;
+
+    public UserDbCodec() {
+        this(new RoleDbCodec());
+    }
+
+    public UserDbCodec(RoleDbCodec roleCodec) {
+        this.roleCodec = roleCodec;
+    }
+
+    @Override
+    public Map<String, AttributeValue> encode(UserDb user) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        putString(item, PRIMARY_KEY_HASH_KEY, user.getPrimaryHashKey());
+        putString(item, PRIMARY_KEY_RANGE_KEY, user.getPrimaryRangeKey());
+        putString(item, SECONDARY_INDEX_1_HASH_KEY, user.getSearchByInstitutionHashKey());
+        putString(item, SECONDARY_INDEX_1_RANGE_KEY, user.getSearchByInstitutionRangeKey());
+        putString(item, RoleDbCodec.TYPE_ATTRIBUTE, user.getType());
+        putString(item, USERNAME_ATTRIBUTE, user.getUsername());
+        putString(item, INSTITUTION_ATTRIBUTE, user.getInstitution());
+        putString(item, UserDb.VERSION_ATTRIBUTE, user.getVersion());
+        if (nonNull(user.getRoles())) {
+            item.put(ROLES_ATTRIBUTE, encodeRoles(user.getRoles()));
+        }
+        return item;
+    }
+
+    @Override
+    public UserDb decode(Map<String, AttributeValue> item) throws InvalidEntryInternalException {
+        UserDb user = new UserDb();
+        user.setPrimaryHashKey(requirePrimaryHashKey(item));
+        user.setUsername(getString(item, USERNAME_ATTRIBUTE));
+        user.setInstitution(getString(item, INSTITUTION_ATTRIBUTE));
+        user.setVersion(getString(item, UserDb.VERSION_ATTRIBUTE));
+        user.setRoles(decodeRoles(item.get(ROLES_ATTRIBUTE)));
+        return user;
+    }
+
+    @Override
+    public Map<String, AttributeValue> key(UserDb user) {
+        return Map.of(
+            PRIMARY_KEY_HASH_KEY, new AttributeValue(user.getPrimaryHashKey()),
+            PRIMARY_KEY_RANGE_KEY, new AttributeValue(user.getPrimaryRangeKey()));
+    }
+
+    private AttributeValue encodeRoles(List<RoleDb> roles) {
+        List<AttributeValue> encodedRoles = new ArrayList<>(roles.size());
+        for (RoleDb role : roles) {
+            encodedRoles.add(new AttributeValue().withM(roleCodec.encode(role)));
+        }
+        return new AttributeValue().withL(encodedRoles);
+    }
+
+    private List<RoleDb> decodeRoles(AttributeValue roles) throws InvalidEntryInternalException {
+        if (isNull(roles) || isNull(roles.getL())) {
+            return null;
+        }
+        List<RoleDb> decodedRoles = new ArrayList<>(roles.getL().size());
+        for (AttributeValue role : roles.getL()) {
+            decodedRoles.add(roleCodec.decode(role.getM()));
+        }
+        return decodedRoles;
+    }
+}
@@ -0,0 +1,26 @@
+package no.unit.nva.database.interfaces;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.Map;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+
+/**
+ * Converts an entry to and from the item format of the low-level DynamoDB client. The items are the same as the ones
+ * written and read by the DynamoDBMapper, so entries written by one can be read by the other.
+ *
+ * @param <T> the type of the entries.
+ */
+public interface AttributeValueCodec<T> {
+
+    Map<String, AttributeValue> encode(T entry);
+
+    T decode(Map<String, AttributeValue> item) throws InvalidEntryInternalException;
+
+    /**
+     * Returns the primary key of an entry.
+     *
+     * @param entry the entry.
+     * @return the hash key and the range key attributes of the entry.
+     */
+    Map<String, AttributeValue> key(T entry);
+}
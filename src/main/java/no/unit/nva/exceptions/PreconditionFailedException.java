@@ -0,0 +1,16 @@
+package no.unit.nva.exceptions;
+
+import nva.commons.exceptions.ApiGatewayException;
+import org.apache.http.HttpStatus;
+
+public class PreconditionFailedException extends ApiGatewayException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    @Override
+    protected Integer statusCode() {
+        return HttpStatus.SC_PRECONDITION_FAILED;
+    }
+}
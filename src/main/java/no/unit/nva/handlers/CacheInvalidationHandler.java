@@ -0,0 +1,150 @@
+package no.unit.nva.handlers;
+
+import static java.util.Objects.nonNull;
+import static nva.commons.utils.JsonUtils.objectMapper;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import no.unit.nva.database.CacheInvalidation;
+import no.unit.nva.database.CacheInvalidationLog;
+import no.unit.nva.database.DatabaseIndexDetails;
+import no.unit.nva.database.DynamoDbRetryPolicy;
+import no.unit.nva.database.InstitutionRosterVersions;
+import no.unit.nva.database.RequestDeadline;
+import no.unit.nva.database.UserDb;
+import no.unit.nva.database.interfaces.DynamoEntry;
+import nva.commons.utils.Environment;
+import nva.commons.utils.JacocoGenerated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Consumes the change stream of the users-and-roles table and records the changed users and roles in the
+ * {@link CacheInvalidationLog}. Entries that are not users or roles, such as the log entry itself, are ignored. A
+ * failed write to the log fails the invocation, so that the batch of records is retried. The event source in the
+ * template filters out the records of other entries, so the writes of the handler do not invoke it again, and retries a
+ * failed batch a bounded number of times, splitting it in halves, before sending it to a dead-letter queue. The cached
+ * entries of a batch that was never recorded expire with their time-to-live.
+ *
+ * <p>The handler also increments the {@link InstitutionRosterVersions} of the institutions of the changed users, read
+ * from the old and the new image of the records, so that the rosters of both institutions of a moved user change
+ * version, whichever write path made the change. The increments are best effort: a failed increment is logged and the
+ * cached rosters of the institution expire with their time-to-live.
+ */
+public class CacheInvalidationHandler implements RequestStreamHandler {
+
+    public static final String RECORDS_FIELD = "Records";
+    public static final String DYNAMODB_FIELD = "dynamodb";
+    public static final String KEYS_FIELD = "Keys";
+    public static final String STRING_VALUE_FIELD = "S";
+    public static final String NEW_IMAGE_FIELD = "NewImage";
+    public static final String OLD_IMAGE_FIELD = "OldImage";
+    public static final String INSTITUTION_FIELD = "institution";
+    public static final String INVALIDATIONS_RECORDED_MESSAGE = "Cache invalidations recorded: ";
+    public static final String ROSTER_VERSION_INCREMENT_FAILED_MESSAGE = "Could not increment roster versions of: ";
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationHandler.class);
+
+    private final CacheInvalidationLog invalidationLog;
+    private final InstitutionRosterVersions rosterVersions;
+
+    @JacocoGenerated
+    public CacheInvalidationHandler() {
+        this(new Environment());
+    }
+
+    @JacocoGenerated
+    private CacheInvalidationHandler(Environment environment) {
+        this(DynamoDbRetryPolicy.createClient(environment), environment);
+    }
+
+    @JacocoGenerated
+    private CacheInvalidationHandler(AmazonDynamoDB dynamoDbClient, Environment environment) {
+        this(new CacheInvalidationLog(dynamoDbClient, environment),
+            new InstitutionRosterVersions(dynamoDbClient, environment));
+    }
+
+    public CacheInvalidationHandler(CacheInvalidationLog invalidationLog, InstitutionRosterVersions rosterVersions) {
+        this.invalidationLog = invalidationLog;
+        this.rosterVersions = rosterVersions;
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        RequestDeadline.INVOCATION.within(context, () -> processStreamEvent(input));
+    }
+
+    private void processStreamEvent(InputStream input) throws IOException {
+        JsonNode streamEvent = objectMapper.readTree(input);
+        List<CacheInvalidation> invalidations = parseInvalidations(streamEvent);
+        invalidationLog.recordChanges(invalidations);
+        logger.info(INVALIDATIONS_RECORDED_MESSAGE + invalidations.size());
+        incrementRosterVersions(parseChangedInstitutions(streamEvent));
+    }
+
+    /**
+     * Extracts the changed users and roles from a DynamoDB stream event.
+     *
+     * @param streamEvent the stream event.
+     * @return the distinct changed users and roles, in the order of the records.
+     */
+    public static List<CacheInvalidation> parseInvalidations(JsonNode streamEvent) {
+        Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+        for (JsonNode record : streamEvent.path(RECORDS_FIELD)) {
+            String primaryHashKey = record.path(DYNAMODB_FIELD)
+                .path(KEYS_FIELD)
+                .path(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY)
+                .path(STRING_VALUE_FIELD)
+                .asText(null);
+            CacheInvalidation.fromPrimaryHashKey(primaryHashKey).ifPresent(invalidations::add);
+        }
+        return new ArrayList<>(invalidations);
+    }
+
+    /**
+     * Extracts the institutions whose rosters have changed from a DynamoDB stream event, that is the institutions of
+     * the old and the new image of every changed user.
+     *
+     * @param streamEvent the stream event.
+     * @return the distinct institutions, in the order of the records.
+     */
+    public static List<String> parseChangedInstitutions(JsonNode streamEvent) {
+        Set<String> institutions = new LinkedHashSet<>();
+        String userKeyPrefix = UserDb.TYPE + DynamoEntry.FIELD_DELIMITER;
+        for (JsonNode record : streamEvent.path(RECORDS_FIELD)) {
+            JsonNode change = record.path(DYNAMODB_FIELD);
+            String primaryHashKey = change.path(KEYS_FIELD)
+                .path(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY)
+                .path(STRING_VALUE_FIELD)
+                .asText("");
+            if (primaryHashKey.startsWith(userKeyPrefix)) {
+                addInstitution(change.path(OLD_IMAGE_FIELD), institutions);
+                addInstitution(change.path(NEW_IMAGE_FIELD), institutions);
+            }
+        }
+        return new ArrayList<>(institutions);
+    }
+
+    private static void addInstitution(JsonNode image, Set<String> institutions) {
+        String institution = image.path(INSTITUTION_FIELD).path(STRING_VALUE_FIELD).asText(null);
+        if (nonNull(institution)) {
+            institutions.add(institution);
+        }
+    }
+
+    private void incrementRosterVersions(List<String> institutions) {
+        try {
+            rosterVersions.increment(institutions);
+        } catch (RuntimeException e) {
+            logger.warn(ROSTER_VERSION_INCREMENT_FAILED_MESSAGE + institutions, e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package no.unit.nva.handlers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.Map;
+import nva.commons.handlers.RequestInfo;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+
+/**
+ * The result of a conditional {@code GET}: an entity, its version, and whether the {@code If-None-Match} header of the
+ * request lists that version. It is serialized as the entity, or as an empty body when the client's copy is current,
+ * since a {@code 304 Not Modified} response must not have a body.
+ *
+ * @param <T> the type of the entity.
+ */
+@JsonSerialize(using = ConditionalEntity.ConditionalEntitySerializer.class)
+public final class ConditionalEntity<T> {
+
+    public static final String EMPTY_BODY = "";
+    public static final String REVALIDATE_PRIVATE_COPY = "private, no-cache";
+
+    private final T entity;
+    private final String version;
+    private final boolean notModified;
+
+    private ConditionalEntity(T entity, String version, boolean notModified) {
+        this.entity = entity;
+        this.version = version;
+        this.notModified = notModified;
+    }
+
+    /**
+     * Creates the result of a conditional request for an entity.
+     *
+     * @param entity      the current entity.
+     * @param version     the current version of the entity.
+     * @param requestInfo the request, with the versions known to the client in {@code If-None-Match}.
+     * @param <T>         the type of the entity.
+     * @return the result of the request.
+     */
+    public static <T> ConditionalEntity<T> of(T entity, String version, RequestInfo requestInfo) {
+        return new ConditionalEntity<>(entity, version,
+            EntityTags.anyMatches(requestInfo, HttpHeaders.IF_NONE_MATCH, version));
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    public int getStatusCode() {
+        return notModified ? HttpStatus.SC_NOT_MODIFIED : HttpStatus.SC_OK;
+    }
+
+    /**
+     * Returns the headers of both the {@code 200 OK} and the {@code 304 Not Modified} response: the version of the
+     * entity as {@code ETag}, and a {@code Cache-Control} that lets only the client keep a copy, to be revalidated with
+     * {@code If-None-Match} before it is used.
+     *
+     * @return the headers of the response.
+     */
+    public Map<String, String> getHeaders() {
+        return Map.of(
+            HttpHeaders.ETAG, EntityTags.format(version),
+            HttpHeaders.CACHE_CONTROL, REVALIDATE_PRIVATE_COPY);
+    }
+
+    public static class ConditionalEntitySerializer extends StdSerializer<ConditionalEntity<?>> {
+
+        public ConditionalEntitySerializer() {
+            super(ConditionalEntity.class, false);
+        }
+
+        @Override
+        public void serialize(ConditionalEntity<?> value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+            if (value.notModified) {
+                generator.writeRawValue(EMPTY_BODY);
+            } else {
+                provider.defaultSerializeValue(value.entity, generator);
+            }
+        }
+    }
+}
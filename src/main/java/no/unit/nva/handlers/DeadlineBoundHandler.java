@@ -0,0 +1,30 @@
+package no.unit.nva.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import no.unit.nva.database.RequestDeadline;
+import nva.commons.handlers.ApiGatewayHandler;
+import nva.commons.utils.Environment;
+import org.slf4j.Logger;
+
+/**
+ * An API Gateway handler that runs every invocation within the {@link RequestDeadline#INVOCATION} deadline, so that the
+ * DynamoDB calls of the invocation stop retrying before the Lambda timeout.
+ *
+ * @param <I> the type of the request body.
+ * @param <O> the type of the response body.
+ */
+public abstract class DeadlineBoundHandler<I, O> extends ApiGatewayHandler<I, O> {
+
+    public DeadlineBoundHandler(Class<I> iclass, Environment environment, Logger logger) {
+        super(iclass, environment, logger);
+    }
+
+    @Override
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
+        throws IOException {
+        RequestDeadline.INVOCATION.within(context, () -> super.handleRequest(inputStream, outputStream, context));
+    }
+}
@@ -0,0 +1,81 @@
+package no.unit.nva.handlers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+import nva.commons.handlers.RequestInfo;
+
+/**
+ * Formats and parses the entity tags of the {@code ETag}, {@code If-Match} and {@code If-None-Match} headers.
+ */
+public final class EntityTags {
+
+    public static final String ANY_ENTITY_TAG = "*";
+    public static final String WEAK_ENTITY_TAG_PREFIX = "W/";
+    private static final String ENTITY_TAG_QUOTE = "\"";
+    private static final String ENTITY_TAG_LIST_DELIMITER = ",";
+
+    private EntityTags() {
+    }
+
+    public static String format(String version) {
+        return ENTITY_TAG_QUOTE + version + ENTITY_TAG_QUOTE;
+    }
+
+    /**
+     * Reads the entity tag of a conditional request header. Header names are matched case-insensitively, since HTTP/2
+     * clients send them in lower case.
+     *
+     * @param requestInfo the request.
+     * @param headerName  the conditional header, e.g. {@code If-Match}.
+     * @return the unquoted entity tag, or empty if the header is missing or matches any entity ({@code *}).
+     */
+    public static Optional<String> extract(RequestInfo requestInfo, String headerName) {
+        return headerValues(requestInfo, headerName)
+            .filter(entityTag -> !entityTag.isEmpty() && !ANY_ENTITY_TAG.equals(entityTag))
+            .map(EntityTags::removeQuotes)
+            .findFirst();
+    }
+
+    /**
+     * Checks a header holding a list of entity tags, such as {@code If-None-Match}, against the current version of a
+     * resource. Entity tags are compared weakly, i.e. a {@code W/} prefix is ignored.
+     *
+     * @param requestInfo the request.
+     * @param headerName  the conditional header, e.g. {@code If-None-Match}.
+     * @param version     the current version of the resource.
+     * @return true if the header is {@code *} or lists the version.
+     */
+    public static boolean anyMatches(RequestInfo requestInfo, String headerName, String version) {
+        return headerValues(requestInfo, headerName)
+            .flatMap(value -> Arrays.stream(value.split(ENTITY_TAG_LIST_DELIMITER)))
+            .map(String::strip)
+            .map(EntityTags::removeWeakPrefix)
+            .anyMatch(entityTag -> ANY_ENTITY_TAG.equals(entityTag) || removeQuotes(entityTag).equals(version));
+    }
+
+    private static Stream<String> headerValues(RequestInfo requestInfo, String headerName) {
+        return Optional.ofNullable(requestInfo.getHeaders())
+            .stream()
+            .flatMap(headers -> headers.entrySet().stream())
+            .filter(header -> headerName.equalsIgnoreCase(header.getKey()))
+            .map(Map.Entry::getValue)
+            .filter(Objects::nonNull)
+            .map(String::strip);
+    }
+
+    private static String removeWeakPrefix(String entityTag) {
+        return entityTag.startsWith(WEAK_ENTITY_TAG_PREFIX)
+            ? entityTag.substring(WEAK_ENTITY_TAG_PREFIX.length())
+            : entityTag;
+    }
+
+    private static String removeQuotes(String entityTag) {
+        boolean quoted = entityTag.length() > 1
+            && entityTag.startsWith(ENTITY_TAG_QUOTE)
+            && entityTag.endsWith(ENTITY_TAG_QUOTE);
+        return quoted ? entityTag.substring(1, entityTag.length() - 1) : entityTag;
+    }
+}
@@ -4,12 +4,14 @@ import static java.util.function.Predicate.not;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import java.util.Optional;
+import no.unit.nva.database.CachingDatabaseService;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
 import no.unit.nva.exceptions.BadRequestException;
 import no.unit.nva.model.RoleDto;
+import no.unit.nva.utils.ContentDigests;
+import no.unit.nva.utils.JsonReadersAndWriters;
 import nva.commons.exceptions.ApiGatewayException;
-import nva.commons.handlers.ApiGatewayHandler;
 import nva.commons.handlers.RequestInfo;
 import nva.commons.utils.Environment;
 import nva.commons.utils.JacocoGenerated;
@@ -17,7 +19,7 @@ import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class GetRoleHandler extends ApiGatewayHandler<Void, RoleDto> {
+public class GetRoleHandler extends DeadlineBoundHandler<Void, ConditionalEntity<RoleDto>> {
 
     public static final String ROLE_NOT_FOUND_ERROR_MESSAGE = "Could not find role: ";
     public static final String EMPTY_ROLE_NAME = "Role-name cannot be empty";
@@ -31,25 +33,48 @@ public class GetRoleHandler extends ApiGatewayHandler<Void, RoleDto> {
      */
     @JacocoGenerated
     public GetRoleHandler() {
-        this(new Environment(), new DatabaseServiceImpl());
+        this(new Environment(), new CachingDatabaseService(new DatabaseServiceImpl(), new Environment()));
     }
 
     public GetRoleHandler(Environment environment, DatabaseService databaseService) {
         super(Void.class, environment, logger);
         this.databaseService = databaseService;
+        JsonReadersAndWriters.prefetch(RoleDto.class);
     }
 
+    /**
+     * Returns the role with a digest of its fields as {@code ETag}. When the {@code If-None-Match} header lists the
+     * current digest, the response is {@code 304 Not Modified} without a body.
+     *
+     * @param input       no input.
+     * @param requestInfo the request, with the role name as path parameter.
+     * @param context     the Lambda context.
+     * @return the role and whether the client's copy is current.
+     * @throws ApiGatewayException when the role name is missing or the role does not exist.
+     */
     @Override
-    public RoleDto processInput(Void input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
+    public ConditionalEntity<RoleDto> processInput(Void input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
         String roleName = roleNameThatIsNotNullOrBlank(requestInfo);
 
         RoleDto searchObject = RoleDto.newBuilder().withName(roleName).build();
-        return databaseService.getRole(searchObject);
+        RoleDto role = databaseService.getRole(searchObject);
+        ConditionalEntity<RoleDto> result = ConditionalEntity.of(role, versionOf(role), requestInfo);
+        setAdditionalHeadersSupplier(result::getHeaders);
+        return result;
     }
 
     @Override
-    protected Integer getSuccessStatusCode(Void input, RoleDto output) {
-        return HttpStatus.SC_OK;
+    protected Integer getSuccessStatusCode(Void input, ConditionalEntity<RoleDto> output) {
+        return Optional.ofNullable(output).map(ConditionalEntity::getStatusCode).orElse(HttpStatus.SC_OK);
+    }
+
+    /*
+     * The digest covers the fields of the role (only its name, for now) instead of one of its representations, so it
+     * changes when the role changes and not when the way the role is printed changes.
+     */
+    private static String versionOf(RoleDto role) {
+        return ContentDigests.sha256(role.getRoleName());
     }
 
     private String roleNameThatIsNotNullOrBlank(RequestInfo requestInfo) throws BadRequestException {
@@ -4,10 +4,12 @@ import static java.util.function.Predicate.not;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import java.util.Optional;
+import no.unit.nva.database.CachingDatabaseService;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
 import no.unit.nva.exceptions.BadRequestException;
 import no.unit.nva.model.UserDto;
+import no.unit.nva.utils.JsonReadersAndWriters;
 import nva.commons.exceptions.ApiGatewayException;
 import nva.commons.handlers.RequestInfo;
 import nva.commons.utils.Environment;
@@ -16,32 +18,45 @@ import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class GetUserHandler extends HandlerAccessingUser<Void, UserDto> {
+public class GetUserHandler extends HandlerAccessingUser<Void, ConditionalEntity<UserDto>> {
 
     private final DatabaseService databaseService;
 
     @JacocoGenerated
     public GetUserHandler() {
-        this(new Environment(), new DatabaseServiceImpl());
+        this(new Environment(), new CachingDatabaseService(new DatabaseServiceImpl(), new Environment()));
     }
 
     public GetUserHandler(Environment environment, DatabaseService databaseService) {
         super(Void.class, environment, defaultLogger());
         this.databaseService = databaseService;
+        JsonReadersAndWriters.prefetch(UserDto.class);
     }
 
+    /**
+     * Returns the user with its version as {@code ETag}. When the {@code If-None-Match} header lists the current
+     * version, the response is {@code 304 Not Modified} without a body.
+     *
+     * @param input       no input.
+     * @param requestInfo the request, with the username as path parameter.
+     * @param context     the Lambda context.
+     * @return the user and whether the client's copy is current.
+     * @throws ApiGatewayException when the username is missing or the user does not exist.
+     */
     @Override
-    protected UserDto processInput(Void input, RequestInfo requestInfo, Context context)
+    protected ConditionalEntity<UserDto> processInput(Void input, RequestInfo requestInfo, Context context)
         throws ApiGatewayException {
-
         String username = extractValidUserNameOrThrowException(requestInfo);
         UserDto queryObject = UserDto.newBuilder().withUsername(username).build();
-        return databaseService.getUser(queryObject);
+        UserDto user = databaseService.getUser(queryObject);
+        ConditionalEntity<UserDto> result = ConditionalEntity.of(user, user.toUserDb().getVersion(), requestInfo);
+        setAdditionalHeadersSupplier(result::getHeaders);
+        return result;
     }
 
     @Override
-    protected Integer getSuccessStatusCode(Void input, UserDto output) {
-        return HttpStatus.SC_OK;
+    protected Integer getSuccessStatusCode(Void input, ConditionalEntity<UserDto> output) {
+        return Optional.ofNullable(output).map(ConditionalEntity::getStatusCode).orElse(HttpStatus.SC_OK);
     }
 
     private static Logger defaultLogger() {
@@ -0,0 +1,93 @@
+package no.unit.nva.handlers;
+
+import static java.util.function.Predicate.not;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import no.unit.nva.database.CachingDatabaseService;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.exceptions.BadRequestException;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserList;
+import no.unit.nva.utils.JsonReadersAndWriters;
+import nva.commons.exceptions.ApiGatewayException;
+import nva.commons.handlers.RequestInfo;
+import nva.commons.utils.Environment;
+import nva.commons.utils.JacocoGenerated;
+import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class GetUsersHandler extends HandlerAccessingUser<Void, UserList> {
+
+    public static final String USERNAMES_QUERY_PARAMETER = "usernames";
+    public static final String USERNAMES_DELIMITER = ",";
+    public static final String EMPTY_USERNAMES_QUERY_PARAMETER_ERROR =
+        "Query parameter \"" + USERNAMES_QUERY_PARAMETER + "\" cannot be empty";
+    public static final int MAX_USERNAMES = 100;
+    public static final String TOO_MANY_USERNAMES_ERROR =
+        "Query parameter \"" + USERNAMES_QUERY_PARAMETER + "\" cannot contain more than " + MAX_USERNAMES
+            + " usernames";
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public GetUsersHandler() {
+        this(new Environment(), new CachingDatabaseService(new DatabaseServiceImpl(), new Environment()));
+    }
+
+    public GetUsersHandler(Environment environment, DatabaseService databaseService) {
+        super(Void.class, environment, defaultLogger());
+        this.databaseService = databaseService;
+        JsonReadersAndWriters.prefetch(UserList.class);
+    }
+
+    @Override
+    protected UserList processInput(Void input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+        List<String> usernames = extractUsernamesOrThrowException(requestInfo);
+        Map<String, UserDto> users = databaseService.getUsers(usernames);
+        return UserList.fromList(inRequestedOrder(usernames, users));
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(Void input, UserList output) {
+        return HttpStatus.SC_OK;
+    }
+
+    private static Logger defaultLogger() {
+        return LoggerFactory.getLogger(GetUsersHandler.class);
+    }
+
+    private static List<UserDto> inRequestedOrder(List<String> usernames, Map<String, UserDto> users) {
+        return usernames.stream()
+            .map(users::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private List<String> extractUsernamesOrThrowException(RequestInfo requestInfo) throws BadRequestException {
+        List<String> usernames = Optional.of(requestInfo)
+            .map(RequestInfo::getQueryParameters)
+            .map(queryParams -> queryParams.get(USERNAMES_QUERY_PARAMETER))
+            .stream()
+            .flatMap(usernamesList -> Arrays.stream(usernamesList.split(USERNAMES_DELIMITER)))
+            .map(String::strip)
+            .filter(not(String::isBlank))
+            .distinct()
+            .collect(Collectors.toList());
+        if (usernames.isEmpty()) {
+            throw new BadRequestException(EMPTY_USERNAMES_QUERY_PARAMETER_ERROR);
+        }
+        if (usernames.size() > MAX_USERNAMES) {
+            throw new BadRequestException(TOO_MANY_USERNAMES_ERROR);
+        }
+        return usernames;
+    }
+}
@@ -1,11 +1,10 @@
 package no.unit.nva.handlers;
 
 import java.nio.charset.StandardCharsets;
-import nva.commons.handlers.ApiGatewayHandler;
 import nva.commons.utils.Environment;
 import org.slf4j.Logger;
 
-public abstract class HandlerAccessingUser<I, O> extends ApiGatewayHandler<I, O> {
+public abstract class HandlerAccessingUser<I, O> extends DeadlineBoundHandler<I, O> {
 
     public static String USERS_RELATIVE_PATH = "/users/";
     public static String USERNAME_PATH_PARAMETER = "username";
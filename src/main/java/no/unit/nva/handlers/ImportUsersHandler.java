@@ -0,0 +1,69 @@
+package no.unit.nva.handlers;
+
+import static java.util.Objects.isNull;
+import static nva.commons.utils.JsonUtils.objectMapper;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.S3Object;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.RequestDeadline;
+import no.unit.nva.model.UserImportReport;
+import no.unit.nva.model.UserImportRequest;
+import no.unit.nva.utils.JsonReadersAndWriters;
+import nva.commons.utils.JacocoGenerated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Imports users in bulk. The handler is invoked directly, instead of through the API, with a {@link UserImportRequest}
+ * naming the S3 object that holds the NDJSON or CSV import (see {@link UserImporter}). The object is streamed from S3,
+ * so its size is not limited by the size of the invocation payload. Users that already exist are rejected unless the
+ * request sets {@code overwrite}. The handler writes a {@link UserImportReport} as its response.
+ */
+public class ImportUsersHandler implements RequestStreamHandler {
+
+    public static final String IMPORT_STARTED_MESSAGE = "User import started: ";
+    public static final String IMPORT_FINISHED_MESSAGE = "User import finished: ";
+    public static final String INVALID_IMPORT_REQUEST_ERROR = "User import request should contain a bucket and a key";
+    private static final Logger logger = LoggerFactory.getLogger(ImportUsersHandler.class);
+
+    private final UserImporter userImporter;
+    private final AmazonS3 s3Client;
+
+    @JacocoGenerated
+    public ImportUsersHandler() {
+        this(new DatabaseServiceImpl(), AmazonS3ClientBuilder.defaultClient());
+    }
+
+    public ImportUsersHandler(DatabaseService databaseService, AmazonS3 s3Client) {
+        this.userImporter = new UserImporter(databaseService);
+        this.s3Client = s3Client;
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        RequestDeadline.INVOCATION.within(context, () -> importUsers(input, output));
+    }
+
+    private void importUsers(InputStream input, OutputStream output) throws IOException {
+        UserImportRequest request = JsonReadersAndWriters.readerFor(UserImportRequest.class).readValue(input);
+        if (isNull(request) || !request.isValid()) {
+            throw new IllegalArgumentException(INVALID_IMPORT_REQUEST_ERROR);
+        }
+        logger.info(IMPORT_STARTED_MESSAGE + request);
+        UserImportReport report;
+        try (S3Object importObject = s3Client.getObject(request.getBucket(), request.getKey())) {
+            report = userImporter.importUsers(importObject.getObjectContent(), request.isOverwrite());
+        }
+        logger.info(IMPORT_FINISHED_MESSAGE + report.getAccepted() + " accepted, " + report.getRejected()
+            + " rejected");
+        objectMapper.writeValue(output, report);
+    }
+}
@@ -1,49 +1,85 @@
 package no.unit.nva.handlers;
 
+import static java.util.Objects.isNull;
 import static java.util.function.Predicate.not;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import java.util.List;
+import com.amazonaws.services.secretsmanager.AWSSecretsManagerClientBuilder;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
+import no.unit.nva.database.CachingDatabaseService;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
-import no.unit.nva.model.UserDto;
-import no.unit.nva.model.UserList;
+import no.unit.nva.database.PaginationCursorCodec;
+import no.unit.nva.exceptions.BadRequestException;
+import no.unit.nva.model.JsonSerializable;
+import no.unit.nva.model.StreamingUserList;
+import no.unit.nva.model.UsernameList;
+import no.unit.nva.utils.JsonReadersAndWriters;
 import nva.commons.exceptions.ApiGatewayException;
-import nva.commons.handlers.ApiGatewayHandler;
 import nva.commons.handlers.RequestInfo;
 import nva.commons.utils.Environment;
 import nva.commons.utils.JacocoGenerated;
 import org.apache.http.HttpStatus;
 import org.slf4j.LoggerFactory;
 
-public class ListByInstitutionHandler extends ApiGatewayHandler<Void, UserList> {
+public class ListByInstitutionHandler extends DeadlineBoundHandler<Void, JsonSerializable> {
 
     public static final String INSTITUTION_ID_PATH_PARAMETER = "institution";
+    public static final String LIMIT_QUERY_PARAMETER = "limit";
+    public static final String CURSOR_QUERY_PARAMETER = "cursor";
+    public static final String USERNAMES_ONLY_QUERY_PARAMETER = "usernamesOnly";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
     public static final String MISSING_PATH_PARAMETER_ERROR = "Missing institution path parameter. "
         + "Probably error in the Lambda function definition.";
+    public static final String INVALID_LIMIT_ERROR =
+        "Query parameter \"" + LIMIT_QUERY_PARAMETER + "\" should be a number between 1 and " + MAX_PAGE_SIZE;
+    public static final String PAGINATED_USERNAMES_ONLY_ERROR =
+        "Query parameter \"" + USERNAMES_ONLY_QUERY_PARAMETER + "\" cannot be combined with \""
+            + LIMIT_QUERY_PARAMETER + "\" or \"" + CURSOR_QUERY_PARAMETER + "\"";
     private final DatabaseService databaseService;
 
     @SuppressWarnings("unused")
     @JacocoGenerated
     public ListByInstitutionHandler() {
-        this(new Environment(), new DatabaseServiceImpl());
+        this(new Environment());
+    }
+
+    @JacocoGenerated
+    private ListByInstitutionHandler(Environment environment) {
+        this(environment, new CachingDatabaseService(new DatabaseServiceImpl(
+            PaginationCursorCodec.fromSecretsManager(AWSSecretsManagerClientBuilder.defaultClient(), environment)),
+            environment));
     }
 
     public ListByInstitutionHandler(Environment environment, DatabaseService databaseService) {
         super(Void.class, environment, LoggerFactory.getLogger(ListByInstitutionHandler.class));
         this.databaseService = databaseService;
+        JsonReadersAndWriters.prefetch(UsernameList.class, StreamingUserList.class);
     }
 
     @Override
-    protected UserList processInput(Void input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
+    protected JsonSerializable processInput(Void input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
         String institutionId = extractInstitutionIdFromRequest(requestInfo);
-        List<UserDto> users = databaseService.listUsers(institutionId);
-        return UserList.fromList(users);
+        Map<String, String> queryParameters = extractQueryParameters(requestInfo);
+        if (isUsernamesOnlyRequest(queryParameters)) {
+            if (isPaginatedRequest(queryParameters)) {
+                throw new BadRequestException(PAGINATED_USERNAMES_ONLY_ERROR);
+            }
+            return UsernameList.fromList(databaseService.listUsernames(institutionId));
+        }
+        if (isPaginatedRequest(queryParameters)) {
+            return databaseService.listUsers(institutionId, extractPageSize(queryParameters),
+                queryParameters.get(CURSOR_QUERY_PARAMETER));
+        }
+        return StreamingUserList.fromStream(databaseService.streamUsers(institutionId));
     }
 
     @Override
-    protected Integer getSuccessStatusCode(Void input, UserList output) {
+    protected Integer getSuccessStatusCode(Void input, JsonSerializable output) {
         return HttpStatus.SC_OK;
     }
 
@@ -54,4 +90,35 @@ public class ListByInstitutionHandler extends ApiGatewayHandler<Void, UserList>
             .filter(not(String::isBlank))
             .orElseThrow(() -> new IllegalStateException(MISSING_PATH_PARAMETER_ERROR));
     }
+
+    private Map<String, String> extractQueryParameters(RequestInfo requestInfo) {
+        return Optional.of(requestInfo)
+            .map(RequestInfo::getQueryParameters)
+            .orElse(Collections.emptyMap());
+    }
+
+    private boolean isUsernamesOnlyRequest(Map<String, String> queryParameters) {
+        return Boolean.parseBoolean(queryParameters.get(USERNAMES_ONLY_QUERY_PARAMETER));
+    }
+
+    private boolean isPaginatedRequest(Map<String, String> queryParameters) {
+        return queryParameters.containsKey(LIMIT_QUERY_PARAMETER)
+            || queryParameters.containsKey(CURSOR_QUERY_PARAMETER);
+    }
+
+    private int extractPageSize(Map<String, String> queryParameters) throws BadRequestException {
+        String limit = queryParameters.get(LIMIT_QUERY_PARAMETER);
+        if (isNull(limit)) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            int pageSize = Integer.parseInt(limit.strip());
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new BadRequestException(INVALID_LIMIT_ERROR);
+            }
+            return pageSize;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(INVALID_LIMIT_ERROR);
+        }
+    }
 }
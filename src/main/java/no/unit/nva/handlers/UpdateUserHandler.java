@@ -1,18 +1,20 @@
 package no.unit.nva.handlers;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import no.unit.nva.model.UserDto;
+import no.unit.nva.utils.JsonReadersAndWriters;
 import nva.commons.exceptions.ApiGatewayException;
 import nva.commons.handlers.RequestInfo;
 import nva.commons.utils.Environment;
 import nva.commons.utils.JacocoGenerated;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,13 +36,15 @@ public class UpdateUserHandler extends HandlerAccessingUser<UserDto, Void> {
     public UpdateUserHandler(Environment environment, DatabaseService databaseService) {
         super(UserDto.class, environment, createLogger());
         this.databaseService = databaseService;
+        JsonReadersAndWriters.prefetch(UserDto.class);
     }
 
     @Override
     protected Void processInput(UserDto input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
         validateRequest(input, requestInfo);
-        databaseService.updateUser(input);
-        setAdditionalHeadersSupplier(addLocationHeaderToResponseSupplier(input));
+        String expectedVersion = EntityTags.extract(requestInfo, HttpHeaders.IF_MATCH).orElse(null);
+        UserDto updatedUser = databaseService.updateUser(input, expectedVersion);
+        setAdditionalHeadersSupplier(addLocationAndEntityTagHeadersToResponseSupplier(updatedUser));
         return null;
     }
 
@@ -74,9 +78,11 @@ public class UpdateUserHandler extends HandlerAccessingUser<UserDto, Void> {
         }
     }
 
-    private Supplier<Map<String, String>> addLocationHeaderToResponseSupplier(UserDto input) {
+    private Supplier<Map<String, String>> addLocationAndEntityTagHeadersToResponseSupplier(UserDto input)
+        throws InvalidEntryInternalException {
         String location = createUserLocationPath(input);
-        return () -> Collections.singletonMap(LOCATION_HEADER, location);
+        String entityTag = EntityTags.format(input.toUserDb().getVersion());
+        return () -> Map.of(LOCATION_HEADER, location, HttpHeaders.ETAG, entityTag);
     }
 
     private String createUserLocationPath(UserDto input) {
@@ -0,0 +1,291 @@
+package no.unit.nva.handlers;
+
+import static java.util.Objects.isNull;
+import static nva.commons.utils.JsonUtils.objectMapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.model.BulkWriteReport;
+import no.unit.nva.model.BulkWriteReport.BulkWriteFailure;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserImportReport;
+
+/**
+ * Imports users from an NDJSON or a CSV stream. The stream is parsed line by line and the valid users are written in
+ * batches with {@link DatabaseService#addUsers}, so at most one batch of users is held in memory regardless of the size
+ * of the import. Only the usernames already read are kept for the whole import, so that a username repeated anywhere
+ * in the import is rejected instead of overwriting the earlier record.
+ *
+ * <p>Users that already exist are rejected unless the import is run with {@code overwrite}. Before each batch is
+ * written, its usernames are looked up with {@link DatabaseService#getUsers}, and the existing users are reported as
+ * rejected lines. A user created by someone else between the lookup and the write of the batch is still overwritten,
+ * since a batch write cannot be conditional.
+ *
+ * <p>An import whose first non-blank line starts with <code>{</code> is read as NDJSON, with one object per line with
+ * the fields {@code username}, {@code institution} and {@code roles}. The roles are an array of role names. Otherwise
+ * the import is read as CSV with the header {@code username,institution,roles}, where the roles are separated by
+ * {@code ;}. CSV fields are not quoted, so they cannot contain commas.
+ */
+public class UserImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 250;
+    public static final String USERNAME_FIELD = "username";
+    public static final String INSTITUTION_FIELD = "institution";
+    public static final String ROLES_FIELD = "roles";
+    public static final String ROLE_NAME_FIELD = "rolename";
+    public static final String CSV_DELIMITER = ",";
+    public static final String CSV_ROLES_DELIMITER = ";";
+    public static final String CSV_HEADER = String.join(CSV_DELIMITER, USERNAME_FIELD, INSTITUTION_FIELD, ROLES_FIELD);
+    public static final String INVALID_CSV_HEADER_ERROR = "Expected CSV header \"" + CSV_HEADER + "\"";
+    public static final String INVALID_CSV_RECORD_ERROR = "Expected at most 3 fields in CSV record";
+    public static final String INVALID_JSON_RECORD_ERROR = "Expected a JSON object in NDJSON record";
+    public static final String DUPLICATE_USERNAME_ERROR = "Duplicate username in import: ";
+    public static final String EXISTING_USER_ERROR = "User already exists: ";
+    private static final String JSON_OBJECT_START = "{";
+    private static final int MAX_CSV_FIELDS = 3;
+
+    private final DatabaseService databaseService;
+    private final int batchSize;
+    private final ObjectReader jsonReader = objectMapper.reader();
+
+    public UserImporter(DatabaseService databaseService) {
+        this(databaseService, DEFAULT_BATCH_SIZE);
+    }
+
+    public UserImporter(DatabaseService databaseService, int batchSize) {
+        this.databaseService = databaseService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports the users of the stream. Users that already exist are rejected.
+     *
+     * @param input an NDJSON or a CSV stream of users.
+     * @return the number of the accepted and the rejected users and the errors of the rejected lines.
+     * @throws IOException when the stream cannot be read.
+     */
+    public UserImportReport importUsers(InputStream input) throws IOException {
+        return importUsers(input, false);
+    }
+
+    /**
+     * Imports the users of the stream.
+     *
+     * @param input     an NDJSON or a CSV stream of users.
+     * @param overwrite whether users that already exist are replaced instead of rejected.
+     * @return the number of the accepted and the rejected users and the errors of the rejected lines.
+     * @throws IOException when the stream cannot be read.
+     */
+    public UserImportReport importUsers(InputStream input, boolean overwrite) throws IOException {
+        UserImportReport report = new UserImportReport();
+        ImportBatch batch = new ImportBatch();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RecordParser parser = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (isNull(parser)) {
+                    String firstLine = line.strip();
+                    if (firstLine.startsWith(JSON_OBJECT_START)) {
+                        parser = this::parseJsonRecord;
+                    } else if (isCsvHeader(firstLine)) {
+                        parser = this::parseCsvRecord;
+                        continue;
+                    } else {
+                        report.addRejected(lineNumber, INVALID_CSV_HEADER_ERROR);
+                        return report;
+                    }
+                }
+                addRecord(parser, line, lineNumber, batch, report);
+                if (batch.size() >= batchSize) {
+                    flush(batch, report, overwrite);
+                }
+            }
+        }
+        flush(batch, report, overwrite);
+        return report;
+    }
+
+    private boolean isCsvHeader(String line) {
+        return CSV_HEADER.equalsIgnoreCase(line.replace(" ", ""));
+    }
+
+    private void addRecord(RecordParser parser, String line, long lineNumber, ImportBatch batch,
+                           UserImportReport report) {
+        try {
+            UserDto user = parser.parse(line);
+            if (!user.isValid()) {
+                report.addRejected(lineNumber, user.exceptionWhenInvalid().getMessage());
+            } else if (batch.hasSeen(user)) {
+                report.addRejected(lineNumber, DUPLICATE_USERNAME_ERROR + user.getUsername());
+            } else {
+                batch.add(user, lineNumber);
+            }
+        } catch (InvalidRecordException | InvalidEntryInternalException e) {
+            report.addRejected(lineNumber, e.getMessage());
+        }
+    }
+
+    private void flush(ImportBatch batch, UserImportReport report, boolean overwrite) {
+        if (!overwrite) {
+            rejectExistingUsers(batch, report);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkWriteReport writeReport = databaseService.addUsers(batch.users());
+        report.addAccepted(writeReport.getWritten().size());
+        for (BulkWriteFailure failure : writeReport.getFailed()) {
+            report.addRejected(batch.lineOf(failure.getIdentifier()), failure.getReason());
+        }
+        batch.clear();
+    }
+
+    private void rejectExistingUsers(ImportBatch batch, UserImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, UserDto> existingUsers = databaseService.getUsers(batch.usernames());
+            for (String username : batch.usernames()) {
+                if (existingUsers.containsKey(username)) {
+                    report.addRejected(batch.lineOf(username), EXISTING_USER_ERROR + username);
+                    batch.remove(username);
+                }
+            }
+        } catch (InvalidEntryInternalException e) {
+            batch.usernames().forEach(username -> report.addRejected(batch.lineOf(username), e.getMessage()));
+            batch.clear();
+        }
+    }
+
+    private UserDto parseJsonRecord(String line) throws InvalidRecordException, InvalidEntryInternalException {
+        JsonNode record = readJsonObject(line);
+        List<RoleDto> roles = new ArrayList<>();
+        for (JsonNode role : record.path(ROLES_FIELD)) {
+            String roleName = role.isObject() ? role.path(ROLE_NAME_FIELD).asText(null) : role.asText(null);
+            roles.add(RoleDto.newBuilder().withName(roleName).build());
+        }
+        return UserDto.newBuilder()
+            .withUsername(record.path(USERNAME_FIELD).asText(null))
+            .withInstitution(record.path(INSTITUTION_FIELD).asText(null))
+            .withRoles(roles)
+            .build();
+    }
+
+    private JsonNode readJsonObject(String line) throws InvalidRecordException {
+        try {
+            JsonNode record = jsonReader.readTree(line);
+            if (isNull(record) || !record.isObject()) {
+                throw new InvalidRecordException(INVALID_JSON_RECORD_ERROR);
+            }
+            return record;
+        } catch (JsonProcessingException e) {
+            throw new InvalidRecordException(INVALID_JSON_RECORD_ERROR + ": " + e.getOriginalMessage());
+        }
+    }
+
+    private UserDto parseCsvRecord(String line) throws InvalidRecordException, InvalidEntryInternalException {
+        String[] fields = line.split(CSV_DELIMITER, -1);
+        if (fields.length > MAX_CSV_FIELDS) {
+            throw new InvalidRecordException(INVALID_CSV_RECORD_ERROR);
+        }
+        String institution = fields.length > 1 && !fields[1].isBlank() ? fields[1].strip() : null;
+        List<RoleDto> roles = new ArrayList<>();
+        if (fields.length > 2) {
+            for (String roleName : fields[2].split(CSV_ROLES_DELIMITER)) {
+                if (!roleName.isBlank()) {
+                    roles.add(RoleDto.newBuilder().withName(roleName.strip()).build());
+                }
+            }
+        }
+        return UserDto.newBuilder()
+            .withUsername(fields[0].strip())
+            .withInstitution(institution)
+            .withRoles(roles)
+            .build();
+    }
+
+    @FunctionalInterface
+    private interface RecordParser {
+
+        UserDto parse(String line) throws InvalidRecordException, InvalidEntryInternalException;
+    }
+
+    private static class InvalidRecordException extends Exception {
+
+        InvalidRecordException(String message) {
+            super(message);
+        }
+    }
+
+    /*
+     * The users of a batch keyed by username, with the line of each user in the import, and the usernames of all the
+     * batches of the import.
+     */
+    private static class ImportBatch {
+
+        private final Map<String, UserDto> usersByUsername = new LinkedHashMap<>();
+        private final Map<String, Long> linesByUsername = new LinkedHashMap<>();
+        private final Set<String> seenUsernames = new HashSet<>();
+
+        void add(UserDto user, long line) {
+            usersByUsername.put(user.getUsername(), user);
+            linesByUsername.put(user.getUsername(), line);
+            seenUsernames.add(user.getUsername());
+        }
+
+        boolean hasSeen(UserDto user) {
+            return seenUsernames.contains(user.getUsername());
+        }
+
+        long lineOf(String username) {
+            return linesByUsername.getOrDefault(username, 0L);
+        }
+
+        List<UserDto> users() {
+            return new ArrayList<>(usersByUsername.values());
+        }
+
+        List<String> usernames() {
+            return new ArrayList<>(usersByUsername.keySet());
+        }
+
+        void remove(String username) {
+            usersByUsername.remove(username);
+            linesByUsername.remove(username);
+        }
+
+        int size() {
+            return usersByUsername.size();
+        }
+
+        boolean isEmpty() {
+            return usersByUsername.isEmpty();
+        }
+
+        void clear() {
+            usersByUsername.clear();
+            linesByUsername.clear();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package no.unit.nva.handlers.authorizer;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static nva.commons.utils.JsonUtils.objectMapper;
+
+import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
+import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
+import com.amazonaws.services.secretsmanager.model.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import no.unit.nva.utils.ContentDigests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the API secret of the authorizer in memory, so that requests are authorized without calling Secrets Manager.
+ *
+ * <p>The cache holds the current and the previous version of the secret, so clients keep working while the secret is
+ * rotated. The previous version is accepted only during a grace window after the current version replaced it. The
+ * start of the window is the creation date of the current version, or the time the cache first saw the new version
+ * when the creation date is not known. Once the entry is older than its time-to-live, the first request that sees it
+ * reloads it inline, while concurrent requests keep using the old entry. When a presented secret matches neither
+ * version and the entry is older than the minimum reload interval, the cache reloads once, since the secret may have
+ * been rotated after the entry was loaded.
+ *
+ * <p>Only SHA-256 digests of the versions are kept, and the digest of a presented secret is compared with every
+ * version in constant time.
+ */
+public class ApiSecretCache {
+
+    public static final String CURRENT_VERSION_STAGE = "AWSCURRENT";
+    public static final String PREVIOUS_VERSION_STAGE = "AWSPREVIOUS";
+    public static final long DEFAULT_TTL_SECONDS = 300;
+    public static final long DEFAULT_MIN_RELOAD_INTERVAL_SECONDS = 10;
+    public static final long DEFAULT_ROTATION_GRACE_SECONDS = 900;
+    public static final String MISSING_SECRET_KEY_ERROR = "Secret does not contain the key: ";
+    public static final String INVALID_SECRET_ERROR = "Secret is not a JSON object: ";
+    public static final String REFRESH_FAILED_ERROR = "Could not reload the API secret";
+    public static final String PREVIOUS_VERSION_ERROR = "Could not read the previous version of the API secret";
+    private static final Logger logger = LoggerFactory.getLogger(ApiSecretCache.class);
+
+    private final AWSSecretsManager secretsManager;
+    private final String secretName;
+    private final String secretKey;
+    private final long timeToLiveMillis;
+    private final long minReloadIntervalMillis;
+    private final long rotationGraceMillis;
+    private final LongSupplier clock;
+    private final AtomicReference<SecretVersions> versions = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public ApiSecretCache(AWSSecretsManager secretsManager, String secretName, String secretKey,
+                          long timeToLive, long rotationGrace, TimeUnit timeUnit) {
+        this(secretsManager, secretName, secretKey, timeToLive, timeUnit.convert(DEFAULT_MIN_RELOAD_INTERVAL_SECONDS,
+            TimeUnit.SECONDS), rotationGrace, timeUnit, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param secretsManager    the Secrets Manager client.
+     * @param secretName        the name of the secret.
+     * @param secretKey         the key of the API secret in the JSON object stored in the secret.
+     * @param timeToLive        the age after which the secret is reloaded.
+     * @param minReloadInterval the age after which an unknown secret causes a reload.
+     * @param rotationGrace     how long the previous version is accepted after the current version replaced it.
+     * @param timeUnit          the unit of the durations.
+     * @param clock             the wall-clock time, in milliseconds since the epoch.
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    public ApiSecretCache(AWSSecretsManager secretsManager, String secretName, String secretKey,
+                          long timeToLive, long minReloadInterval, long rotationGrace, TimeUnit timeUnit,
+                          LongSupplier clock) {
+        this.secretsManager = secretsManager;
+        this.secretName = secretName;
+        this.secretKey = secretKey;
+        this.timeToLiveMillis = timeUnit.toMillis(timeToLive);
+        this.minReloadIntervalMillis = timeUnit.toMillis(minReloadInterval);
+        this.rotationGraceMillis = timeUnit.toMillis(rotationGrace);
+        this.clock = clock;
+    }
+
+    /**
+     * Checks a secret presented by a client against the current version of the API secret, and against the previous
+     * version while the grace window of the rotation is open.
+     *
+     * @param presentedSecret the secret sent by the client.
+     * @return true if the secret matches one of the accepted versions.
+     */
+    public boolean accepts(String presentedSecret) {
+        if (isNull(presentedSecret)) {
+            return false;
+        }
+        byte[] presentedDigest = ContentDigests.sha256Bytes(presentedSecret);
+        SecretVersions cached = currentVersions();
+        if (cached.matches(presentedDigest, clock.getAsLong(), rotationGraceMillis)) {
+            return true;
+        }
+        return isOlderThan(cached, minReloadIntervalMillis)
+               && reload().matches(presentedDigest, clock.getAsLong(), rotationGraceMillis);
+    }
+
+    private SecretVersions currentVersions() {
+        SecretVersions cached = versions.get();
+        if (isNull(cached)) {
+            return loadInitialVersions();
+        }
+        if (isOlderThan(cached, timeToLiveMillis)) {
+            return refreshOrKeep(cached);
+        }
+        return cached;
+    }
+
+    private synchronized SecretVersions loadInitialVersions() {
+        SecretVersions cached = versions.get();
+        return nonNull(cached) ? cached : reload();
+    }
+
+    private boolean isOlderThan(SecretVersions cached, long ageMillis) {
+        return clock.getAsLong() - cached.loadedAt >= ageMillis;
+    }
+
+    /*
+     * Only one request reloads an expired entry. The others, and the reloading one when the reload fails, keep using
+     * the expired entry.
+     */
+    private SecretVersions refreshOrKeep(SecretVersions cached) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return cached;
+        }
+        try {
+            return reload();
+        } catch (RuntimeException e) {
+            logger.warn(REFRESH_FAILED_ERROR, e);
+            return cached;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private SecretVersions reload() {
+        long now = clock.getAsLong();
+        GetSecretValueResult current = readVersion(CURRENT_VERSION_STAGE);
+        byte[] currentDigest = ContentDigests.sha256Bytes(readApiSecret(current));
+        byte[] previousDigest = readPreviousVersion().map(ContentDigests::sha256Bytes).orElse(null);
+        SecretVersions loaded = new SecretVersions(currentDigest, previousDigest, now,
+            currentSince(currentDigest, current, now));
+        versions.set(loaded);
+        return loaded;
+    }
+
+    /*
+     * A version that is already cached keeps the start of its grace window. A new version starts it at its creation
+     * date, which is the same in every container, or at the time it is first seen when the date is missing.
+     */
+    private long currentSince(byte[] currentDigest, GetSecretValueResult current, long now) {
+        SecretVersions cached = versions.get();
+        if (nonNull(cached) && MessageDigest.isEqual(cached.currentDigest, currentDigest)) {
+            return cached.currentSince;
+        }
+        return Optional.ofNullable(current.getCreatedDate())
+            .map(Date::getTime)
+            .map(createdAt -> Math.min(createdAt, now))
+            .orElse(now);
+    }
+
+    private Optional<String> readPreviousVersion() {
+        try {
+            return Optional.of(readApiSecret(readVersion(PREVIOUS_VERSION_STAGE)));
+        } catch (ResourceNotFoundException e) {
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            logger.warn(PREVIOUS_VERSION_ERROR, e);
+            return Optional.empty();
+        }
+    }
+
+    private GetSecretValueResult readVersion(String versionStage) {
+        GetSecretValueRequest request = new GetSecretValueRequest()
+            .withSecretId(secretName)
+            .withVersionStage(versionStage);
+        return secretsManager.getSecretValue(request);
+    }
+
+    private String readApiSecret(GetSecretValueResult result) {
+        JsonNode value = parseSecret(result.getSecretString()).get(secretKey);
+        if (isNull(value) || !value.isTextual()) {
+            throw new IllegalStateException(MISSING_SECRET_KEY_ERROR + secretKey);
+        }
+        return value.asText();
+    }
+
+    private JsonNode parseSecret(String secretString) {
+        try {
+            return objectMapper.readTree(secretString);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(INVALID_SECRET_ERROR + secretName, e);
+        }
+    }
+
+    private static class SecretVersions {
+
+        private final byte[] currentDigest;
+        private final byte[] previousDigest;
+        private final long loadedAt;
+        private final long currentSince;
+
+        SecretVersions(byte[] currentDigest, byte[] previousDigest, long loadedAt, long currentSince) {
+            this.currentDigest = currentDigest;
+            this.previousDigest = previousDigest;
+            this.loadedAt = loadedAt;
+            this.currentSince = currentSince;
+        }
+
+        /*
+         * Both digests are always compared, so the time taken does not tell which version matched.
+         */
+        boolean matches(byte[] presentedDigest, long now, long rotationGraceMillis) {
+            boolean matchesCurrent = MessageDigest.isEqual(currentDigest, presentedDigest);
+            boolean matchesPrevious = nonNull(previousDigest) && MessageDigest.isEqual(previousDigest, presentedDigest);
+            return matchesCurrent || matchesPrevious && now - currentSince < rotationGraceMillis;
+        }
+    }
+}
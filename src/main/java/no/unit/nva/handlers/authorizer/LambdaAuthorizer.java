@@ -1,19 +1,52 @@
 package no.unit.nva.handlers.authorizer;
 
+import static java.util.Objects.isNull;
+
+import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.AWSSecretsManagerClientBuilder;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.utils.ContentDigests;
+import no.unit.nva.utils.EnvironmentUtils;
+import no.unit.nva.utils.ExpiringLruCache;
 import nva.commons.exceptions.ForbiddenException;
+import nva.commons.handlers.RequestInfo;
+import nva.commons.handlers.authentication.AuthorizerResponse;
 import nva.commons.handlers.authentication.RequestAuthorizer;
 import nva.commons.utils.Environment;
 import nva.commons.utils.JacocoGenerated;
-import nva.commons.utils.aws.SecretsReader;
+import org.apache.http.HttpHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class LambdaAuthorizer extends RequestAuthorizer {
 
     public static final String DEFAULT_PRINCIPAL_ID = "ServiceAccessingUsersAndRoles";
     public static final String AWS_SECRET_NAME_ENV_VAR = "API_SECRET_NAME";
     public static final String AWS_SECRET_KEY_ENV_VAR = "API_SECRET_KEY";
-    private final AWSSecretsManager awsSecretsManager;
+    public static final String SECRET_CACHE_TTL_ENV_VAR = "API_SECRET_CACHE_TTL_SECONDS";
+    public static final String SECRET_ROTATION_GRACE_ENV_VAR = "API_SECRET_ROTATION_GRACE_SECONDS";
+    public static final String SECRET_UNAVAILABLE_ERROR = "Could not read the API secret";
+    public static final String DECISION_CACHE_MAX_ENTRIES_ENV_VAR = "AUTHORIZER_DECISION_CACHE_MAX_ENTRIES";
+    public static final String DECISION_CACHE_TTL_ENV_VAR = "AUTHORIZER_DECISION_CACHE_TTL_SECONDS";
+    public static final int DEFAULT_DECISION_CACHE_MAX_ENTRIES = 100;
+    /*
+     * A cached decision is reused without checking the secret again, so a secret is still accepted by a warm container
+     * for up to this long after ApiSecretCache stops accepting it, i.e. after the rotation grace window
+     * (API_SECRET_ROTATION_GRACE_SECONDS) has closed. Lower it with AUTHORIZER_DECISION_CACHE_TTL_SECONDS when
+     * rotated-out secrets must be rejected sooner.
+     */
+    public static final long DEFAULT_DECISION_CACHE_TTL_SECONDS = 60;
+    public static final String ANY_METHOD_AND_RESOURCE = "*/*";
+    private static final String ARN_PATH_DELIMITER = "/";
+    private static final String DECISION_KEY_DELIMITER = "|";
+    private static final Logger logger = LoggerFactory.getLogger(LambdaAuthorizer.class);
+
+    private final ApiSecretCache secretCache;
+    private final ExpiringLruCache<String, AuthorizerResponse> decisionCache;
 
     @JacocoGenerated
     public LambdaAuthorizer() {
@@ -21,8 +54,54 @@ public class LambdaAuthorizer extends RequestAuthorizer {
     }
 
     public LambdaAuthorizer(AWSSecretsManager awsSecretsManager, Environment environment) {
+        this(createSecretCache(awsSecretsManager, environment), environment);
+    }
+
+    /**
+     * Creates an authorizer.
+     *
+     * @param secretCache the cache of the API secret.
+     * @param environment the environment, with the settings of the decision cache.
+     */
+    public LambdaAuthorizer(ApiSecretCache secretCache, Environment environment) {
         super(environment);
-        this.awsSecretsManager = awsSecretsManager;
+        this.secretCache = secretCache;
+        this.decisionCache = new ExpiringLruCache<>(
+            EnvironmentUtils.readPositiveInteger(environment, DECISION_CACHE_MAX_ENTRIES_ENV_VAR,
+                DEFAULT_DECISION_CACHE_MAX_ENTRIES),
+            EnvironmentUtils.readPositiveNumber(environment, DECISION_CACHE_TTL_ENV_VAR,
+                DEFAULT_DECISION_CACHE_TTL_SECONDS),
+            TimeUnit.SECONDS);
+    }
+
+    /**
+     * Authorizes the request, reusing the policy of an earlier request with the same secret for the same API stage.
+     * Policies allow every method and resource of the API stage, so that API Gateway can also reuse a cached policy for
+     * other methods. Only granted policies are cached, and they are keyed by a digest of the secret rather than the
+     * secret itself.
+     * A granted policy is reused until its time-to-live has passed, even if the secret has been rotated out in the
+     * meantime.
+     *
+     * @param input       no input.
+     * @param requestInfo the authorization request.
+     * @param context     the Lambda context.
+     * @return the policy for the API stage.
+     * @throws ForbiddenException if the secret is missing or not accepted.
+     */
+    @Override
+    protected AuthorizerResponse processInput(Void input, RequestInfo requestInfo, Context context)
+        throws ForbiddenException {
+        String presentedSecret = presentedSecret(requestInfo).orElseThrow(ForbiddenException::new);
+        String resourcePattern = toResourcePattern(requestInfo.getMethodArn());
+
+        String decisionKey = ContentDigests.sha256(presentedSecret) + DECISION_KEY_DELIMITER + resourcePattern;
+        Optional<AuthorizerResponse> cachedDecision = decisionCache.get(decisionKey);
+        if (cachedDecision.isPresent()) {
+            return cachedDecision.get();
+        }
+        AuthorizerResponse response = authorize(presentedSecret, resourcePattern);
+        decisionCache.put(decisionKey, response);
+        return response;
     }
 
     @Override
@@ -30,12 +109,80 @@ public class LambdaAuthorizer extends RequestAuthorizer {
         return DEFAULT_PRINCIPAL_ID;
     }
 
+    /**
+     * Not used: the secret of the request is checked against the cached API secret in {@link #processInput}, so that
+     * the API secret is never handed out and never takes part in a comparison that is not constant-time.
+     *
+     * @return nothing.
+     * @throws ForbiddenException always.
+     */
     @Override
     protected String fetchSecret() throws ForbiddenException {
-        final String secretName = environment.readEnv(AWS_SECRET_NAME_ENV_VAR);
-        final String secretKey = environment.readEnv(AWS_SECRET_KEY_ENV_VAR);
-        SecretsReader secretsReader = new SecretsReader(awsSecretsManager);
-        return secretsReader.fetchSecret(secretName, secretKey);
+        throw new ForbiddenException();
+    }
+
+    /**
+     * Replaces the method and the resource path of a method ARN with wildcards, e.g.
+     * {@code arn:aws:execute-api:eu-west-1:123456789012:apiId/Prod/GET/service/users/someone} becomes
+     * {@code arn:aws:execute-api:eu-west-1:123456789012:apiId/Prod/*}{@code /*}.
+     *
+     * @param methodArn the ARN of the method being called.
+     * @return the ARN of every method and resource of the API stage, or the input if it is not a method ARN.
+     */
+    protected static String toResourcePattern(String methodArn) {
+        if (isNull(methodArn)) {
+            return null;
+        }
+        String[] arnParts = methodArn.split(ARN_PATH_DELIMITER, 3);
+        if (arnParts.length < 3) {
+            return methodArn;
+        }
+        return arnParts[0] + ARN_PATH_DELIMITER + arnParts[1] + ARN_PATH_DELIMITER + ANY_METHOD_AND_RESOURCE;
+    }
+
+    /*
+     * Header names are matched case-insensitively, since HTTP/2 clients send them in lower case.
+     */
+    private static Optional<String> presentedSecret(RequestInfo requestInfo) {
+        return Optional.ofNullable(requestInfo.getHeaders())
+            .stream()
+            .flatMap(headers -> headers.entrySet().stream())
+            .filter(header -> HttpHeaders.AUTHORIZATION.equalsIgnoreCase(header.getKey()))
+            .map(Map.Entry::getValue)
+            .filter(Objects::nonNull)
+            .findFirst();
+    }
+
+    private AuthorizerResponse authorize(String presentedSecret, String resourcePattern) throws ForbiddenException {
+        if (!acceptsSecret(presentedSecret)) {
+            throw new ForbiddenException();
+        }
+        return AuthorizerResponse.newBuilder()
+            .withPrincipalId(principalId())
+            .withPolicyDocument(createAllowAuthPolicy(resourcePattern))
+            .build();
+    }
+
+    private boolean acceptsSecret(String presentedSecret) {
+        try {
+            return secretCache.accepts(presentedSecret);
+        } catch (RuntimeException e) {
+            logger.error(SECRET_UNAVAILABLE_ERROR, e);
+            return false;
+        }
+    }
+
+    private static ApiSecretCache createSecretCache(AWSSecretsManager awsSecretsManager, Environment environment) {
+        long timeToLive = EnvironmentUtils.readPositiveNumber(environment, SECRET_CACHE_TTL_ENV_VAR,
+            ApiSecretCache.DEFAULT_TTL_SECONDS);
+        long rotationGrace = EnvironmentUtils.readPositiveNumber(environment, SECRET_ROTATION_GRACE_ENV_VAR,
+            ApiSecretCache.DEFAULT_ROTATION_GRACE_SECONDS);
+        return new ApiSecretCache(awsSecretsManager,
+            environment.readEnv(AWS_SECRET_NAME_ENV_VAR),
+            environment.readEnv(AWS_SECRET_KEY_ENV_VAR),
+            timeToLive,
+            rotationGrace,
+            TimeUnit.SECONDS);
     }
 
     @JacocoGenerated
@@ -0,0 +1,119 @@
+package no.unit.nva.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * The outcome of a bulk write. Every entry of the input is reported either as written or as failed.
+ */
+public class BulkWriteReport implements JsonSerializable {
+
+    private List<String> written;
+    private List<BulkWriteFailure> failed;
+
+    public BulkWriteReport() {
+        written = new ArrayList<>();
+        failed = new ArrayList<>();
+    }
+
+    public List<String> getWritten() {
+        return written;
+    }
+
+    public void setWritten(List<String> written) {
+        this.written = written;
+    }
+
+    public List<BulkWriteFailure> getFailed() {
+        return failed;
+    }
+
+    public void setFailed(List<BulkWriteFailure> failed) {
+        this.failed = failed;
+    }
+
+    public void addWritten(String identifier) {
+        written.add(identifier);
+    }
+
+    public void addFailure(String identifier, String reason) {
+        failed.add(new BulkWriteFailure(identifier, reason));
+    }
+
+    @Override
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BulkWriteReport that = (BulkWriteReport) o;
+        return Objects.equals(getWritten(), that.getWritten())
+            && Objects.equals(getFailed(), that.getFailed());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getWritten(), getFailed());
+    }
+
+    public static class BulkWriteFailure {
+
+        private String identifier;
+        private String reason;
+
+        public BulkWriteFailure() {
+        }
+
+        public BulkWriteFailure(String identifier, String reason) {
+            this.identifier = identifier;
+            this.reason = reason;
+        }
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public void setIdentifier(String identifier) {
+            this.identifier = identifier;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+
+        @Override
+        @JacocoGenerated
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BulkWriteFailure that = (BulkWriteFailure) o;
+            return Objects.equals(getIdentifier(), that.getIdentifier())
+                && Objects.equals(getReason(), that.getReason());
+        }
+
+        @Override
+        @JacocoGenerated
+        public int hashCode() {
+            return Objects.hash(getIdentifier(), getReason());
+        }
+    }
+}
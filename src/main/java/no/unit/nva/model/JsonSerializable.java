@@ -3,6 +3,7 @@ package no.unit.nva.model;
 import static nva.commons.utils.attempt.Try.attempt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import no.unit.nva.utils.JsonReadersAndWriters;
 import nva.commons.utils.attempt.Failure;
 
 public interface JsonSerializable {
@@ -18,6 +19,17 @@ public interface JsonSerializable {
                 .orElseThrow(this::newUnexpectedException);
     }
 
+    /**
+     * a JSON representation of the object, written by the cached writer of the object's class.
+     *
+     * @return a JSON representation of the object.
+     */
+    default String toJsonString() {
+        return
+            attempt(() -> JsonReadersAndWriters.writerFor(getClass()).writeValueAsString(this))
+                .orElseThrow(this::newUnexpectedException);
+    }
+
     private RuntimeException newUnexpectedException(Failure<String> fail) {
         throw new RuntimeException(fail.getException());
     }
@@ -10,7 +10,6 @@ import no.unit.nva.database.interfaces.WithCopy;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import nva.commons.utils.JacocoGenerated;
-import nva.commons.utils.JsonUtils;
 import nva.commons.utils.StringUtils;
 
 @JsonTypeName(RoleDto.TYPE)
@@ -75,7 +74,7 @@ public class RoleDto implements WithCopy<RoleDto.Builder>, JsonSerializable, Val
 
     @Override
     public String toString() {
-        return toJsonString(JsonUtils.objectMapper);
+        return toJsonString();
     }
 
     @Override
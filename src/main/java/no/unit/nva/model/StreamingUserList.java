@@ -0,0 +1,70 @@
+package no.unit.nva.model;
+
+import static nva.commons.utils.JsonUtils.objectMapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import no.unit.nva.utils.JsonReadersAndWriters;
+
+/**
+ * A list of users that is written as a JSON array directly from a lazily fetched {@link Stream}. Each user is written
+ * as soon as it is fetched, so only the users of the current page of the underlying query are kept in memory, next to
+ * the JSON written so far.
+ *
+ * <p>The stream is consumed when the list is created, and not when the list is serialized, so that an error while
+ * fetching the users is thrown to the caller, e.g. to the {@code processInput} method of a handler, where it is mapped
+ * to an error response.
+ */
+@JsonSerialize(using = StreamingUserList.StreamingUserListSerializer.class)
+public class StreamingUserList implements JsonSerializable {
+
+    private final String json;
+
+    private StreamingUserList(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Consumes and closes the stream, writing each user to the JSON array of the list.
+     *
+     * @param users a stream of users.
+     * @return the list of the users of the stream.
+     */
+    public static StreamingUserList fromStream(Stream<UserDto> users) {
+        ObjectWriter userWriter = JsonReadersAndWriters.writerFor(UserDto.class);
+        StringWriter json = new StringWriter();
+        try (Stream<UserDto> closingUsers = users;
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartArray();
+            Iterator<UserDto> iterator = closingUsers.iterator();
+            while (iterator.hasNext()) {
+                userWriter.writeValue(generator, iterator.next());
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new StreamingUserList(json.toString());
+    }
+
+    public static class StreamingUserListSerializer extends StdSerializer<StreamingUserList> {
+
+        public StreamingUserListSerializer() {
+            super(StreamingUserList.class);
+        }
+
+        @Override
+        public void serialize(StreamingUserList value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+            generator.writeRawValue(value.json);
+        }
+    }
+}
@@ -17,7 +17,6 @@ import no.unit.nva.database.interfaces.WithCopy;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import nva.commons.utils.JacocoGenerated;
-import nva.commons.utils.JsonUtils;
 import nva.commons.utils.StringUtils;
 import nva.commons.utils.attempt.Failure;
 import org.slf4j.Logger;
@@ -123,7 +122,7 @@ public class UserDto implements WithCopy<UserDto.Builder>, JsonSerializable, Val
 
     @Override
     public String toString() {
-        return toJsonString(JsonUtils.objectMapper);
+        return toJsonString();
     }
 
     /**
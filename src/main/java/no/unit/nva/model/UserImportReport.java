@@ -0,0 +1,141 @@
+package no.unit.nva.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * The outcome of a user import. The counts cover every record of the import, while only the first
+ * {@link #MAX_REPORTED_ERRORS} errors are listed, so the size of the report is bounded regardless of the size of the
+ * import.
+ */
+public class UserImportReport implements JsonSerializable {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long accepted;
+    private long rejected;
+    private List<LineError> errors;
+
+    public UserImportReport() {
+        errors = new ArrayList<>();
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<LineError> errors) {
+        this.errors = errors;
+    }
+
+    public void addAccepted(long numberOfRecords) {
+        accepted += numberOfRecords;
+    }
+
+    /**
+     * Counts a rejected record and lists the error, if the error list is not full.
+     *
+     * @param line    the line of the record in the import.
+     * @param message the reason for the rejection.
+     */
+    public void addRejected(long line, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UserImportReport that = (UserImportReport) o;
+        return getAccepted() == that.getAccepted()
+            && getRejected() == that.getRejected()
+            && Objects.equals(getErrors(), that.getErrors());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getAccepted(), getRejected(), getErrors());
+    }
+
+    public static class LineError {
+
+        private long line;
+        private String message;
+
+        public LineError() {
+        }
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        @JacocoGenerated
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            LineError lineError = (LineError) o;
+            return getLine() == lineError.getLine()
+                && Objects.equals(getMessage(), lineError.getMessage());
+        }
+
+        @Override
+        @JacocoGenerated
+        public int hashCode() {
+            return Objects.hash(getLine(), getMessage());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package no.unit.nva.model;
+
+import static java.util.Objects.isNull;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * The event of a user import. It points to the S3 object holding the NDJSON or CSV import, since the payload of a
+ * direct Lambda invocation is limited to a few megabytes. Users that already exist are rejected, unless
+ * {@code overwrite} is set.
+ */
+public class UserImportRequest implements JsonSerializable {
+
+    private String bucket;
+    private String key;
+    private boolean overwrite;
+
+    public UserImportRequest() {
+    }
+
+    public UserImportRequest(String bucket, String key) {
+        this.bucket = bucket;
+        this.key = key;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public boolean isOverwrite() {
+        return overwrite;
+    }
+
+    public void setOverwrite(boolean overwrite) {
+        this.overwrite = overwrite;
+    }
+
+    @JsonIgnore
+    public boolean isValid() {
+        return !isBlank(bucket) && !isBlank(key);
+    }
+
+    private static boolean isBlank(String value) {
+        return isNull(value) || value.isBlank();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UserImportRequest that = (UserImportRequest) o;
+        return isOverwrite() == that.isOverwrite()
+            && Objects.equals(getBucket(), that.getBucket())
+            && Objects.equals(getKey(), that.getKey());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getBucket(), getKey(), isOverwrite());
+    }
+
+    @Override
+    public String toString() {
+        return toJsonString();
+    }
+}
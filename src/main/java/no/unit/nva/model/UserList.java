@@ -8,7 +8,7 @@ import java.util.ListIterator;
 import java.util.Objects;
 import nva.commons.utils.JacocoGenerated;
 
-public class UserList implements List<UserDto> {
+public class UserList implements List<UserDto>, JsonSerializable {
 
     private final List<UserDto> users;
 
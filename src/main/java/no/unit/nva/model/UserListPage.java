@@ -0,0 +1,73 @@
+package no.unit.nva.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+public class UserListPage implements JsonSerializable {
+
+    private List<UserDto> users;
+    private String nextCursor;
+
+    public UserListPage() {
+        users = new ArrayList<>();
+    }
+
+    private UserListPage(List<UserDto> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Creates a page of users.
+     *
+     * @param users      the users of the page.
+     * @param nextCursor the continuation token for the next page or {@code null} when this is the last page.
+     * @return a {@link UserListPage}
+     */
+    public static UserListPage of(List<UserDto> users, String nextCursor) {
+        return new UserListPage(users, nextCursor);
+    }
+
+    public List<UserDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserDto> users) {
+        this.users = users;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UserListPage that = (UserListPage) o;
+        return Objects.equals(getUsers(), that.getUsers())
+            && Objects.equals(getNextCursor(), that.getNextCursor());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getUsers(), getNextCursor());
+    }
+}
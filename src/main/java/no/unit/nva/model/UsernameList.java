@@ -0,0 +1,50 @@
+package no.unit.nva.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.List;
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+public class UsernameList implements JsonSerializable {
+
+    private final List<String> usernames;
+
+    @JsonCreator
+    private UsernameList(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    public static UsernameList fromList(List<String> usernames) {
+        return new UsernameList(usernames);
+    }
+
+    @JsonValue
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    @Override
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UsernameList that = (UsernameList) o;
+        return Objects.equals(getUsernames(), that.getUsernames());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getUsernames());
+    }
+}
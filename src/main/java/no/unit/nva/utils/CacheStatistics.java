@@ -0,0 +1,89 @@
+package no.unit.nva.utils;
+
+import java.util.Objects;
+import nva.commons.utils.JacocoGenerated;
+
+/**
+ * A snapshot of the statistics of an {@link ExpiringLruCache}.
+ */
+public class CacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final int size;
+
+    public CacheStatistics(long hits, long misses, long evictions, long expirations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The share of the lookups that were served by the cache.
+     *
+     * @return a number between 0 and 1, or 0 when there have been no lookups.
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CacheStatistics that = (CacheStatistics) o;
+        return getHits() == that.getHits()
+            && getMisses() == that.getMisses()
+            && getEvictions() == that.getEvictions()
+            && getExpirations() == that.getExpirations()
+            && getSize() == that.getSize();
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getHits(), getMisses(), getEvictions(), getExpirations(), getSize());
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return "CacheStatistics{"
+            + "hits=" + hits
+            + ", misses=" + misses
+            + ", evictions=" + evictions
+            + ", expirations=" + expirations
+            + ", size=" + size
+            + '}';
+    }
+}
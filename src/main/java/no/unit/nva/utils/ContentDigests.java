@@ -0,0 +1,67 @@
+package no.unit.nva.utils;
+
+import static java.util.Objects.isNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+public final class ContentDigests {
+
+    public static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int NULL_FIELD_LENGTH = -1;
+
+    private ContentDigests() {
+    }
+
+    /**
+     * Calculates a short, URL-safe digest of a text, suitable as a version or an entity tag.
+     *
+     * @param content the text.
+     * @return the unpadded base64url encoding of the SHA-256 digest of the UTF-8 encoded text.
+     */
+    public static String sha256(String content) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256Bytes(content));
+    }
+
+    /**
+     * Calculates the digest of a sequence of fields. Every field is prefixed with the length of its UTF-8 encoding,
+     * and a {@code null} field with a length of {@code -1}, so that no two different sequences are encoded the same,
+     * whatever characters the fields contain.
+     *
+     * @param fields the fields, some of which may be {@code null}.
+     * @return the unpadded base64url encoding of the SHA-256 digest of the encoded fields.
+     */
+    public static String sha256OfFields(List<String> fields) {
+        MessageDigest digest = createMessageDigest();
+        for (String field : fields) {
+            if (isNull(field)) {
+                digest.update(lengthPrefix(NULL_FIELD_LENGTH));
+            } else {
+                byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+                digest.update(lengthPrefix(bytes.length));
+                digest.update(bytes);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+
+    public static byte[] sha256Bytes(String content) {
+        return createMessageDigest().digest(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] lengthPrefix(int length) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(length).array();
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package no.unit.nva.utils;
+
+import java.util.Optional;
+import nva.commons.utils.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class EnvironmentUtils {
+
+    public static final String INVALID_POSITIVE_NUMBER_WARNING =
+        "Expected a positive number in env variable %s but got \"%s\". Using the default value %d";
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentUtils.class);
+
+    private EnvironmentUtils() {
+    }
+
+    /**
+     * Reads an optional numeric setting. A missing setting and an invalid one, which is logged, are replaced by the
+     * default value.
+     *
+     * @param environment  the environment.
+     * @param variableName the name of the env variable.
+     * @param defaultValue the value used when the variable is missing or is not a positive number.
+     * @return the value of the variable or the default value.
+     */
+    public static long readPositiveNumber(Environment environment, String variableName, long defaultValue) {
+        return environment.readEnvOpt(variableName)
+            .flatMap(value -> parsePositiveNumber(variableName, value, defaultValue))
+            .orElse(defaultValue);
+    }
+
+    public static int readPositiveInteger(Environment environment, String variableName, int defaultValue) {
+        long value = readPositiveNumber(environment, variableName, defaultValue);
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+
+    private static Optional<Long> parsePositiveNumber(String variableName, String value, long defaultValue) {
+        try {
+            long number = Long.parseLong(value.strip());
+            if (number > 0) {
+                return Optional.of(number);
+            }
+        } catch (NumberFormatException e) {
+            // logged below
+        }
+        logger.warn(String.format(INVALID_POSITIVE_NUMBER_WARNING, variableName, value, defaultValue));
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,136 @@
+package no.unit.nva.utils;
+
+import static java.util.Objects.isNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe cache with a maximum size and a time-to-live. When the cache is full the least recently used entry is
+ * evicted, and entries older than the time-to-live are dropped when they are read.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public class ExpiringLruCache<K, V> implements KeyValueCache<K, V> {
+
+    public static final String INVALID_MAX_SIZE_ERROR = "Cache size should be a positive number";
+    public static final String INVALID_TIME_TO_LIVE_ERROR = "Cache time-to-live should be a positive duration";
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_INITIAL_CAPACITY = 1 << 12;
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+    private final Map<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public ExpiringLruCache(int maxSize, long timeToLive, TimeUnit timeUnit) {
+        this(maxSize, timeToLive, timeUnit, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize    the maximum number of entries.
+     * @param timeToLive the time an entry is served after it has been stored.
+     * @param timeUnit   the unit of the time-to-live.
+     * @param nanoClock  the source of the current time in nanoseconds.
+     */
+    public ExpiringLruCache(int maxSize, long timeToLive, TimeUnit timeUnit, LongSupplier nanoClock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(INVALID_MAX_SIZE_ERROR);
+        }
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException(INVALID_TIME_TO_LIVE_ERROR);
+        }
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeUnit.toNanos(timeToLive);
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(initialCapacity(maxSize), LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean full = size() > ExpiringLruCache.this.maxSize;
+                if (full) {
+                    evictions++;
+                }
+                return full;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, if it has not expired.
+     *
+     * @param key the key.
+     * @return the cached value or empty.
+     */
+    @Override
+    public synchronized Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (isNull(entry)) {
+            misses++;
+            return Optional.empty();
+        }
+        if (entry.isExpired(nanoClock.getAsLong())) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entry.value);
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, nanoClock.getAsLong() + timeToLiveNanos));
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void invalidateIf(Predicate<K> keyFilter) {
+        entries.keySet().removeIf(keyFilter);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized CacheStatistics statistics() {
+        return new CacheStatistics(hits, misses, evictions, expirations, entries.size());
+    }
+
+    private static int initialCapacity(int maxSize) {
+        return (int) Math.min(MAX_INITIAL_CAPACITY, (long) (maxSize / LOAD_FACTOR) + 1);
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package no.unit.nva.utils;
+
+import static nva.commons.utils.JsonUtils.objectMapper;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Holds one {@link ObjectReader} and one {@link ObjectWriter} of the shared {@link nva.commons.utils.JsonUtils}
+ * mapper per type. A reader or writer created for a root type resolves the (de)serializer of that type once, instead
+ * of looking it up, together with the polymorphic type handling of {@link no.unit.nva.model.Typed}, on every call.
+ */
+public final class JsonReadersAndWriters {
+
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return objectMapper.writerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return objectMapper.readerFor(type);
+        }
+    };
+
+    private JsonReadersAndWriters() {
+    }
+
+    public static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.get(type);
+    }
+
+    public static ObjectReader readerFor(Class<?> type) {
+        return READERS.get(type);
+    }
+
+    /**
+     * Creates the reader and the writer of each type ahead of the first request. Since the (de)serializers are also
+     * cached by the shared mapper, this moves their construction out of the first request body that is read or
+     * written by the handlers.
+     *
+     * @param types the types that are read or written.
+     */
+    public static void prefetch(Class<?>... types) {
+        for (Class<?> type : types) {
+            writerFor(type);
+            readerFor(type);
+        }
+    }
+}
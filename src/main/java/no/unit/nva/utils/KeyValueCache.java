@@ -0,0 +1,32 @@
+package no.unit.nva.utils;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A cache that can be placed in front of the database. Implementations decide how the values are stored, e.g. as
+ * objects on the heap or serialized outside of it, and when they are evicted or expire.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public interface KeyValueCache<K, V> {
+
+    /**
+     * Returns the cached value, if it has not expired.
+     *
+     * @param key the key.
+     * @return the cached value or empty.
+     */
+    Optional<V> get(K key);
+
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    void invalidateIf(Predicate<K> keyFilter);
+
+    void invalidateAll();
+
+    CacheStatistics statistics();
+}
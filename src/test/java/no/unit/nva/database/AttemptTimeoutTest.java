@@ -0,0 +1,68 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AttemptTimeoutTest {
+
+    public static final long ATTEMPT_TIMEOUT_MILLIS = 1_000;
+    public static final long REMAINING_MILLIS = 300;
+    public static final String SERVICE_NAME = "AmazonDynamoDBv2";
+
+    private AtomicLong clock;
+    private RequestDeadline deadline;
+    private AttemptTimeout attemptTimeout;
+
+    @BeforeEach
+    public void init() {
+        clock = new AtomicLong();
+        deadline = new RequestDeadline(clock::get);
+        attemptTimeout = new AttemptTimeout(ATTEMPT_TIMEOUT_MILLIS, deadline);
+    }
+
+    @Test
+    public void timeoutMillisIsTheAttemptTimeoutWhenNoDeadlineHasBeenStarted() {
+        assertThat(attemptTimeout.timeoutMillis(), is(equalTo((int) ATTEMPT_TIMEOUT_MILLIS)));
+    }
+
+    @Test
+    public void timeoutMillisIsCappedByTheTimeLeftUntilTheDeadline() {
+        deadline.start(ATTEMPT_TIMEOUT_MILLIS + REMAINING_MILLIS);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(ATTEMPT_TIMEOUT_MILLIS));
+
+        assertThat(attemptTimeout.timeoutMillis(), is(equalTo((int) REMAINING_MILLIS)));
+    }
+
+    @Test
+    public void timeoutMillisIsNeverZeroAfterTheDeadline() {
+        deadline.start(REMAINING_MILLIS);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(ATTEMPT_TIMEOUT_MILLIS));
+
+        assertThat(attemptTimeout.timeoutMillis(), is(equalTo(AttemptTimeout.MIN_ATTEMPT_TIMEOUT_MILLIS)));
+    }
+
+    @Test
+    public void beforeAttemptSetsTheTimeoutOfEveryAttempt() {
+        GetItemRequest request = new GetItemRequest();
+        HandlerBeforeAttemptContext context = HandlerBeforeAttemptContext.builder()
+            .withRequest(new DefaultRequest<>(request, SERVICE_NAME))
+            .build();
+        deadline.start(ATTEMPT_TIMEOUT_MILLIS + REMAINING_MILLIS);
+
+        attemptTimeout.beforeAttempt(context);
+        assertThat(request.getSdkRequestTimeout(), is(equalTo((int) ATTEMPT_TIMEOUT_MILLIS)));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(ATTEMPT_TIMEOUT_MILLIS));
+        attemptTimeout.beforeAttempt(context);
+        assertThat(request.getSdkRequestTimeout(), is(equalTo((int) REMAINING_MILLIS)));
+    }
+}
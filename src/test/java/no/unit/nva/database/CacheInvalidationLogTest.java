@@ -0,0 +1,44 @@
+package no.unit.nva.database;
+
+import static no.unit.nva.database.CacheInvalidationLog.bucketOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CacheInvalidationLogTest extends DatabaseAccessor {
+
+    public static final String SOME_USERNAME = "someUser@unit.no";
+    public static final String SOME_ROLE_NAME = "Creator";
+
+    private CacheInvalidationLog invalidationLog;
+
+    @BeforeEach
+    public void init() {
+        invalidationLog = new CacheInvalidationLog(initializeTestDatabase(), envWithTableName);
+    }
+
+    @Test
+    public void readGenerationsReturnsEmptyMapWhenNoChangeHasBeenRecorded() {
+        assertThat(invalidationLog.readGenerations(), is(anEmptyMap()));
+    }
+
+    @Test
+    public void recordChangesIncrementsGenerationOfBucketOfEveryChangedKey() {
+        CacheInvalidation userChange = new CacheInvalidation(UserDb.TYPE, SOME_USERNAME);
+        CacheInvalidation roleChange = new CacheInvalidation(RoleDb.TYPE, SOME_ROLE_NAME);
+
+        invalidationLog.recordChanges(List.of(userChange, roleChange));
+        invalidationLog.recordChanges(List.of(userChange));
+
+        Map<String, Long> expectedGenerations = Map.of(
+            bucketOf(UserDb.TYPE, SOME_USERNAME), 2L,
+            bucketOf(RoleDb.TYPE, SOME_ROLE_NAME), 1L);
+        assertThat(invalidationLog.readGenerations(), is(equalTo(expectedGenerations)));
+    }
+}
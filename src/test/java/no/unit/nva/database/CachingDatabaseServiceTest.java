@@ -0,0 +1,373 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import no.unit.nva.database.InstitutionRosterVersions.RosterVersion;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.exceptions.PreconditionFailedException;
+import no.unit.nva.model.BulkWriteReport;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.utils.ExpiringLruCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class CachingDatabaseServiceTest {
+
+    public static final int CACHE_SIZE = 10;
+    public static final long TIME_TO_LIVE_SECONDS = 60;
+    public static final long NEGATIVE_TIME_TO_LIVE_SECONDS = 5;
+    public static final long POLL_INTERVAL_SECONDS = 2;
+    public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername";
+    public static final String SOME_ROLE_NAME = "someRole";
+    public static final String SOME_VERSION = "someVersion";
+    public static final String SOME_INSTITUTION = "someInstitution";
+    public static final String SOME_OTHER_INSTITUTION = "someOtherInstitution";
+    public static final int MAX_ROSTER_SIZE = 2;
+    public static final long INDEX_SETTLE_MILLIS = 1000;
+    public static final long SOME_TIME = 1_602_000_000_000L;
+
+    private DatabaseService delegate;
+    private CacheInvalidationLog invalidationLog;
+    private InstitutionRosterVersions rosterVersions;
+    private AtomicLong clock;
+    private AtomicLong wallClock;
+    private CachingDatabaseService cachingService;
+    private UserDto someUser;
+    private RoleDto someRole;
+
+    /**
+     * Initializes the service with a mocked delegate.
+     *
+     * @throws InvalidEntryInternalException when the test entries are invalid.
+     */
+    @BeforeEach
+    public void init() throws InvalidEntryInternalException {
+        delegate = mock(DatabaseService.class);
+        invalidationLog = mock(CacheInvalidationLog.class);
+        rosterVersions = mock(InstitutionRosterVersions.class);
+        clock = new AtomicLong();
+        wallClock = new AtomicLong(SOME_TIME);
+        cachingService = new CachingDatabaseService(delegate,
+            new ExpiringLruCache<>(CACHE_SIZE, TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS),
+            new RoleCache(TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS, wallClock::get),
+            new ExpiringLruCache<>(CACHE_SIZE, NEGATIVE_TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS),
+            new ExpiringLruCache<>(CACHE_SIZE, NEGATIVE_TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS),
+            new InvalidationWatcher(invalidationLog, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS, clock::get),
+            new InstitutionRosterCache(rosterVersions,
+                new ExpiringLruCache<>(CACHE_SIZE, TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS), MAX_ROSTER_SIZE,
+                INDEX_SETTLE_MILLIS, wallClock::get));
+        someRole = RoleDto.newBuilder().withName(SOME_ROLE_NAME).build();
+        someUser = UserDto.newBuilder().withUsername(SOME_USERNAME).withRoles(List.of(someRole)).build();
+    }
+
+    @Test
+    public void listUsersQueriesDelegateOnlyWhenRosterVersionHasChanged() throws Exception {
+        when(rosterVersions.read(SOME_INSTITUTION)).thenReturn(version(1), version(1), version(2));
+        when(delegate.listUsers(SOME_INSTITUTION)).thenReturn(List.of(someUser));
+
+        cachingService.listUsers(SOME_INSTITUTION);
+        List<UserDto> cachedRoster = cachingService.listUsers(SOME_INSTITUTION);
+        cachingService.listUsers(SOME_INSTITUTION);
+
+        assertThat(cachedRoster, is(equalTo(List.of(someUser))));
+        verify(delegate, times(2)).listUsers(SOME_INSTITUTION);
+        assertThat(cachingService.getRosterCacheStatistics().getHits(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void streamUsersServesRosterFromCacheAfterStreamHasBeenReadToTheEnd() throws Exception {
+        when(rosterVersions.read(SOME_INSTITUTION)).thenReturn(version(1));
+        when(delegate.streamUsers(SOME_INSTITUTION)).thenAnswer(invocation -> Stream.of(someUser));
+
+        List<UserDto> streamedRoster = cachingService.streamUsers(SOME_INSTITUTION).collect(Collectors.toList());
+        List<UserDto> cachedRoster = cachingService.streamUsers(SOME_INSTITUTION).collect(Collectors.toList());
+        List<String> usernames = cachingService.listUsernames(SOME_INSTITUTION);
+
+        assertThat(cachedRoster, is(equalTo(streamedRoster)));
+        assertThat(usernames, is(equalTo(List.of(SOME_USERNAME))));
+        verify(delegate, times(1)).streamUsers(SOME_INSTITUTION);
+        verify(delegate, never()).listUsernames(SOME_INSTITUTION);
+    }
+
+    @Test
+    public void streamUsersDoesNotCacheRosterLargerThanLimit() throws Exception {
+        List<UserDto> largeRoster = List.of(someUser, someUser, someUser);
+        when(rosterVersions.read(SOME_INSTITUTION)).thenReturn(version(1));
+        when(delegate.streamUsers(SOME_INSTITUTION)).thenAnswer(invocation -> largeRoster.stream());
+
+        cachingService.streamUsers(SOME_INSTITUTION).collect(Collectors.toList());
+        List<UserDto> secondRead = cachingService.streamUsers(SOME_INSTITUTION).collect(Collectors.toList());
+
+        assertThat(secondRead, is(equalTo(largeRoster)));
+        verify(delegate, times(2)).streamUsers(SOME_INSTITUTION);
+    }
+
+    @Test
+    public void listUsersDoesNotCacheRosterReadWithinIndexSettleTimeOfLastChange() throws Exception {
+        when(rosterVersions.read(SOME_INSTITUTION)).thenReturn(new RosterVersion(1, SOME_TIME));
+        when(delegate.listUsers(SOME_INSTITUTION)).thenReturn(List.of(someUser));
+
+        cachingService.listUsers(SOME_INSTITUTION);
+        cachingService.listUsers(SOME_INSTITUTION);
+        wallClock.addAndGet(INDEX_SETTLE_MILLIS);
+        cachingService.listUsers(SOME_INSTITUTION);
+        cachingService.listUsers(SOME_INSTITUTION);
+
+        verify(delegate, times(3)).listUsers(SOME_INSTITUTION);
+    }
+
+    @Test
+    public void updateUserDropsCachedRostersOfNewAndPreviousInstitutionOfUser() throws Exception {
+        UserDto cachedUser = someUser.copy().withInstitution(SOME_INSTITUTION).build();
+        UserDto movedUser = someUser.copy().withInstitution(SOME_OTHER_INSTITUTION).build();
+        when(rosterVersions.read(any(String.class))).thenReturn(version(1));
+        when(delegate.getUser(any(UserDto.class))).thenReturn(cachedUser);
+        when(delegate.listUsers(any(String.class))).thenReturn(List.of(cachedUser));
+
+        cachingService.getUser(cachedUser);
+        cachingService.listUsers(SOME_INSTITUTION);
+        cachingService.listUsers(SOME_OTHER_INSTITUTION);
+        cachingService.updateUser(movedUser);
+        wallClock.addAndGet(INDEX_SETTLE_MILLIS);
+        cachingService.listUsers(SOME_INSTITUTION);
+        cachingService.listUsers(SOME_OTHER_INSTITUTION);
+
+        verify(delegate, times(2)).listUsers(SOME_INSTITUTION);
+        verify(delegate, times(2)).listUsers(SOME_OTHER_INSTITUTION);
+    }
+
+    @Test
+    public void getUserReadsUserFromDelegateOnlyOnceWhenUserIsRequestedRepeatedly() throws Exception {
+        when(delegate.getUser(any(UserDto.class))).thenReturn(someUser);
+
+        UserDto firstRead = cachingService.getUser(someUser);
+        UserDto secondRead = cachingService.getUser(someUser);
+
+        assertThat(firstRead, is(equalTo(someUser)));
+        assertThat(secondRead, is(equalTo(someUser)));
+        verify(delegate, times(1)).getUser(any(UserDto.class));
+        assertThat(cachingService.getUserCacheStatistics().getHits(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void getUserReadsUserFromDelegateAfterUserHasBeenChangedByAnotherContainer() throws Exception {
+        when(delegate.getUser(any(UserDto.class))).thenReturn(someUser);
+        when(invalidationLog.readGenerations())
+            .thenReturn(Map.of())
+            .thenReturn(Map.of(CacheInvalidationLog.bucketOf(UserDb.TYPE, SOME_USERNAME), 1L));
+
+        cachingService.getUser(someUser);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(POLL_INTERVAL_SECONDS));
+        cachingService.getUser(someUser);
+
+        verify(delegate, times(2)).getUser(any(UserDto.class));
+    }
+
+    @Test
+    public void getRoleReadsRoleFromDelegateAfterRoleHasBeenChangedByAnotherContainer() throws Exception {
+        when(delegate.getRole(any(RoleDto.class))).thenReturn(someRole);
+        when(invalidationLog.readGenerations())
+            .thenReturn(Map.of())
+            .thenReturn(Map.of(CacheInvalidationLog.bucketOf(RoleDb.TYPE, SOME_ROLE_NAME), 1L));
+
+        cachingService.getRole(someRole);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(POLL_INTERVAL_SECONDS));
+        cachingService.getRole(someRole);
+        cachingService.getRole(someRole);
+
+        verify(delegate, times(2)).getRole(any(RoleDto.class));
+    }
+
+    @Test
+    public void getUserThrowsNotFoundExceptionWithoutReadingDelegateWhenUserIsKnownToBeMissing() throws Exception {
+        when(delegate.getUser(any(UserDto.class))).thenThrow(new NotFoundException(SOME_USERNAME));
+
+        assertThrows(NotFoundException.class, () -> cachingService.getUser(someUser));
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> cachingService.getUser(someUser));
+
+        assertThat(exception.getMessage(), is(equalTo(DatabaseServiceImpl.USER_NOT_FOUND_MESSAGE + SOME_USERNAME)));
+        verify(delegate, times(1)).getUser(any(UserDto.class));
+    }
+
+    @Test
+    public void getUserReadsUserFromDelegateAfterMissingUserHasBeenAdded() throws Exception {
+        when(delegate.getUser(any(UserDto.class)))
+            .thenThrow(new NotFoundException(SOME_USERNAME))
+            .thenReturn(someUser);
+
+        assertThrows(NotFoundException.class, () -> cachingService.getUser(someUser));
+        cachingService.addUser(someUser);
+        UserDto user = cachingService.getUser(someUser);
+
+        assertThat(user, is(equalTo(someUser)));
+        verify(delegate, times(2)).getUser(any(UserDto.class));
+    }
+
+    @Test
+    public void getUserAsOptionalReadsUserFromDelegateAfterMissingUserHasBeenAddedInBulk() throws Exception {
+        BulkWriteReport report = new BulkWriteReport();
+        report.addWritten(SOME_USERNAME);
+        when(delegate.addUsers(List.of(someUser))).thenReturn(report);
+        when(delegate.getUserAsOptional(any(UserDto.class)))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(someUser));
+
+        assertThat(cachingService.getUserAsOptional(someUser), is(equalTo(Optional.empty())));
+        assertThat(cachingService.getUserAsOptional(someUser), is(equalTo(Optional.empty())));
+        cachingService.addUsers(List.of(someUser));
+
+        assertThat(cachingService.getUserAsOptional(someUser), is(equalTo(Optional.of(someUser))));
+        verify(delegate, times(2)).getUserAsOptional(any(UserDto.class));
+    }
+
+    @Test
+    public void getUserAsOptionalWithConsistentReadBypassesCacheAndStoresUserInCache() throws Exception {
+        UserDto changedUser = someUser.copy().withInstitution(SOME_INSTITUTION).build();
+        when(delegate.getUserAsOptional(any(UserDto.class))).thenReturn(Optional.of(someUser));
+        when(delegate.getUserAsOptional(any(UserDto.class), any(ConsistentReads.class)))
+            .thenReturn(Optional.of(changedUser));
+
+        cachingService.getUserAsOptional(someUser);
+        Optional<UserDto> consistentUser = cachingService.getUserAsOptional(someUser, ConsistentReads.CONSISTENT);
+
+        assertThat(consistentUser, is(equalTo(Optional.of(changedUser))));
+        assertThat(cachingService.getUserAsOptional(someUser), is(equalTo(Optional.of(changedUser))));
+        verify(delegate, times(1)).getUserAsOptional(any(UserDto.class));
+    }
+
+    @Test
+    public void getRoleReadsRoleFromDelegateAfterMissingRoleHasBeenAdded() throws Exception {
+        when(delegate.getRole(any(RoleDto.class)))
+            .thenThrow(new NotFoundException(SOME_ROLE_NAME))
+            .thenReturn(someRole);
+
+        assertThrows(NotFoundException.class, () -> cachingService.getRole(someRole));
+        assertThrows(NotFoundException.class, () -> cachingService.getRole(someRole));
+        cachingService.addRole(someRole);
+
+        assertThat(cachingService.getRole(someRole), is(equalTo(someRole)));
+        verify(delegate, times(2)).getRole(any(RoleDto.class));
+    }
+
+    @Test
+    public void getUserReadsUserFromDelegateAfterUserHasBeenUpdated() throws Exception {
+        when(delegate.getUser(any(UserDto.class))).thenReturn(someUser);
+
+        cachingService.getUser(someUser);
+        cachingService.updateUser(someUser);
+        cachingService.getUser(someUser);
+
+        verify(delegate, times(2)).getUser(any(UserDto.class));
+    }
+
+    @Test
+    public void getUserReadsUserFromDelegateAfterVersionedUpdateHasFailed() throws Exception {
+        when(delegate.getUser(any(UserDto.class))).thenReturn(someUser);
+        doThrow(new PreconditionFailedException(SOME_VERSION)).when(delegate).updateUser(someUser, SOME_VERSION);
+
+        cachingService.getUser(someUser);
+        Executable action = () -> cachingService.updateUser(someUser, SOME_VERSION);
+        assertThrows(PreconditionFailedException.class, action);
+        cachingService.getUser(someUser);
+
+        verify(delegate, times(2)).getUser(any(UserDto.class));
+    }
+
+    @Test
+    public void getUsersReadsOnlyUncachedUsersFromDelegate() throws Exception {
+        UserDto someOtherUser = UserDto.newBuilder().withUsername(SOME_OTHER_USERNAME).build();
+        when(delegate.getUser(any(UserDto.class))).thenReturn(someUser);
+        when(delegate.getUsers(List.of(SOME_OTHER_USERNAME))).thenReturn(Map.of(SOME_OTHER_USERNAME, someOtherUser));
+
+        cachingService.getUser(someUser);
+        Map<String, UserDto> users = cachingService.getUsers(List.of(SOME_USERNAME, SOME_OTHER_USERNAME));
+
+        assertThat(users, is(equalTo(Map.of(SOME_USERNAME, someUser, SOME_OTHER_USERNAME, someOtherUser))));
+        verify(delegate, times(1)).getUsers(List.of(SOME_OTHER_USERNAME));
+    }
+
+    @Test
+    public void getRoleReadsRoleFromDelegateOnce() throws Exception {
+        when(delegate.getRole(any(RoleDto.class))).thenReturn(someRole);
+
+        assertThat(cachingService.getRole(someRole), is(equalTo(someRole)));
+        assertThat(cachingService.getRole(someRole), is(equalTo(someRole)));
+        assertThat(cachingService.getRoleAsOptional(someRole), is(equalTo(Optional.of(someRole))));
+
+        verify(delegate, times(1)).getRole(any(RoleDto.class));
+        verify(delegate, never()).getRoleAsOptional(any(RoleDto.class));
+    }
+
+    @Test
+    public void getRoleReadsRoleFromDelegateAgainWhenRoleCacheIsOlderThanTimeToLive() throws Exception {
+        when(delegate.getRole(any(RoleDto.class))).thenReturn(someRole);
+
+        cachingService.getRole(someRole);
+        wallClock.addAndGet(TimeUnit.SECONDS.toMillis(TIME_TO_LIVE_SECONDS));
+        cachingService.getRole(someRole);
+
+        verify(delegate, times(2)).getRole(any(RoleDto.class));
+    }
+
+    @Test
+    public void getRoleReturnsRoleAddedByThisInstanceWithoutReadingDelegate() throws Exception {
+        when(delegate.getRole(any(RoleDto.class))).thenReturn(someRole);
+        when(delegate.addRole(someRole)).thenReturn(someRole);
+
+        cachingService.getRole(someRole);
+        cachingService.addRole(someRole);
+
+        assertThat(cachingService.getRole(someRole), is(equalTo(someRole)));
+        verify(delegate, times(1)).getRole(any(RoleDto.class));
+    }
+
+    @Test
+    public void getRoleReadsRoleFromDelegateAfterRoleHasBeenAddedInBulk() throws Exception {
+        BulkWriteReport report = new BulkWriteReport();
+        report.addWritten(SOME_ROLE_NAME);
+        when(delegate.addRoles(List.of(someRole))).thenReturn(report);
+        when(delegate.getRole(any(RoleDto.class))).thenReturn(someRole);
+
+        cachingService.getRole(someRole);
+        cachingService.addRoles(List.of(someRole));
+        cachingService.getRole(someRole);
+
+        verify(delegate, times(2)).getRole(any(RoleDto.class));
+    }
+
+    @Test
+    public void getRoleAsOptionalAddsRoleMissingFromRoleCacheToRoleCache() throws Exception {
+        when(delegate.getRoleAsOptional(any(RoleDto.class))).thenReturn(Optional.of(someRole));
+
+        cachingService.getRoleAsOptional(someRole);
+        cachingService.getRoleAsOptional(someRole);
+
+        verify(delegate, times(1)).getRoleAsOptional(any(RoleDto.class));
+    }
+
+    private static RosterVersion version(long version) {
+        return new RosterVersion(version, InstitutionRosterVersions.NEVER_CHANGED);
+    }
+}
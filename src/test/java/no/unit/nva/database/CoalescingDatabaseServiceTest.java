@@ -0,0 +1,181 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CoalescingDatabaseServiceTest {
+
+    public static final int KEYS = 4;
+    public static final int CALLERS_PER_KEY = 16;
+    public static final int BURSTS = 5;
+    public static final long TIMEOUT_MILLIS = 10_000;
+    public static final String USERNAME_PREFIX = "user";
+    public static final String ROLE_NAME_PREFIX = "role";
+    public static final String INSTITUTION_PREFIX = "institution";
+    public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_INSTITUTION = "someInstitution";
+
+    private final Map<String, AtomicInteger> databaseReads = new ConcurrentHashMap<>();
+    private final AtomicReference<CountDownLatch> databaseResponse = new AtomicReference<>();
+    private DatabaseService delegate;
+    private CoalescingDatabaseService coalescingService;
+
+    /**
+     * Creates a coalescing service on top of a database whose reads block until the test releases them.
+     *
+     * @throws InvalidEntryInternalException never.
+     */
+    @BeforeEach
+    public void init() throws InvalidEntryInternalException {
+        delegate = mock(DatabaseService.class);
+        databaseResponse.set(new CountDownLatch(0));
+        when(delegate.getUserAsOptional(any(UserDto.class))).thenAnswer(invocation -> {
+            UserDto queryObject = invocation.getArgument(0);
+            awaitDatabaseResponse(queryObject.getUsername());
+            return Optional.of(queryObject);
+        });
+        when(delegate.getRoleAsOptional(any(RoleDto.class))).thenAnswer(invocation -> {
+            RoleDto queryObject = invocation.getArgument(0);
+            awaitDatabaseResponse(queryObject.getRoleName());
+            return Optional.of(queryObject);
+        });
+        when(delegate.listUsers(any(String.class))).thenAnswer(invocation -> {
+            String institutionId = invocation.getArgument(0);
+            awaitDatabaseResponse(institutionId);
+            return new ArrayList<>(List.of(UserDto.newBuilder().withUsername(SOME_USERNAME).build()));
+        });
+        coalescingService = new CoalescingDatabaseService(delegate);
+    }
+
+    @Test
+    public void burstsOfConcurrentLookupsReadDatabaseOncePerKeyPerBurst() throws Exception {
+        for (int burst = 1; burst <= BURSTS; burst++) {
+            assertThat(runBurst(key -> coalescingService.getUser(
+                UserDto.newBuilder().withUsername(USERNAME_PREFIX + key).build())), is(empty()));
+            assertThat(runBurst(key -> coalescingService.getRole(
+                RoleDto.newBuilder().withName(ROLE_NAME_PREFIX + key).build())), is(empty()));
+            assertThat(runBurst(key -> coalescingService.listUsers(INSTITUTION_PREFIX + key)), is(empty()));
+
+            for (int key = 0; key < KEYS; key++) {
+                assertThat(readsOf(USERNAME_PREFIX + key), is(equalTo(burst)));
+                assertThat(readsOf(ROLE_NAME_PREFIX + key), is(equalTo(burst)));
+                assertThat(readsOf(INSTITUTION_PREFIX + key), is(equalTo(burst)));
+            }
+        }
+    }
+
+    @Test
+    public void getUserThrowsNotFoundExceptionWhenSharedLookupFindsNoUser() throws Exception {
+        when(delegate.getUserAsOptional(any(UserDto.class))).thenReturn(Optional.empty());
+        UserDto queryObject = UserDto.newBuilder().withUsername(SOME_USERNAME).build();
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> coalescingService.getUser(queryObject));
+
+        assertThat(exception.getMessage(), is(equalTo(DatabaseServiceImpl.USER_NOT_FOUND_MESSAGE + SOME_USERNAME)));
+    }
+
+    @Test
+    public void listUsersReturnsUnmodifiableListSinceItMayBeSharedByManyCallers() throws Exception {
+        List<UserDto> users = coalescingService.listUsers(SOME_INSTITUTION);
+
+        assertThrows(UnsupportedOperationException.class, () -> users.add(users.get(0)));
+    }
+
+    /**
+     * Starts, for every key, many threads making the same lookup, holds the database reads until every thread is
+     * waiting, and then lets them complete.
+     */
+    private Collection<Throwable> runBurst(Lookup lookup) throws InterruptedException {
+        CountDownLatch response = new CountDownLatch(1);
+        databaseResponse.set(response);
+        Collection<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int key = 0; key < KEYS; key++) {
+            for (int caller = 0; caller < CALLERS_PER_KEY; caller++) {
+                callers.add(startCaller(lookup, key, failures));
+            }
+        }
+        awaitAllWaiting(callers);
+        response.countDown();
+        for (Thread caller : callers) {
+            caller.join(TIMEOUT_MILLIS);
+        }
+        return failures;
+    }
+
+    private Thread startCaller(Lookup lookup, int key, Collection<Throwable> failures) {
+        Thread caller = new Thread(() -> {
+            try {
+                lookup.run(key);
+            } catch (Exception e) {
+                failures.add(e);
+            }
+        });
+        caller.start();
+        return caller;
+    }
+
+    /*
+     * A caller is waiting either for the database response, as the first caller of a key, or for the result of the
+     * first caller.
+     */
+    private void awaitAllWaiting(List<Thread> callers) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!callers.stream().allMatch(this::isWaitingOrDone)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Callers did not reach the database in time");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private boolean isWaitingOrDone(Thread caller) {
+        Thread.State state = caller.getState();
+        return state == Thread.State.WAITING
+            || state == Thread.State.TIMED_WAITING
+            || state == Thread.State.TERMINATED;
+    }
+
+    private void awaitDatabaseResponse(String key) throws InterruptedException {
+        databaseReads.computeIfAbsent(key, ignored -> new AtomicInteger()).incrementAndGet();
+        if (!databaseResponse.get().await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Database response was not released");
+        }
+    }
+
+    private int readsOf(String key) {
+        return databaseReads.getOrDefault(key, new AtomicInteger()).get();
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+
+        void run(int key) throws Exception;
+    }
+}
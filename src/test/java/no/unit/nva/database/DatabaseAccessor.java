@@ -32,6 +32,7 @@ import org.junit.jupiter.api.AfterEach;
 
 public abstract class DatabaseAccessor implements WithEnvironment {
 
+    public static final String PAGINATION_CURSOR_SECRET = "paginationCursorSecret";
     public static final String USERS_AND_ROLES_TABLE = "UsersAndRolesTable";
 
     public static final int SINGLE_TABLE_EXPECTED = 1;
@@ -41,7 +42,8 @@ public abstract class DatabaseAccessor implements WithEnvironment {
     protected AmazonDynamoDB localDynamo;
 
     public DatabaseServiceImpl createDatabaseServiceUsingLocalStorage() {
-        return new DatabaseServiceImpl(initializeTestDatabase(), envWithTableName);
+        return new DatabaseServiceImpl(initializeTestDatabase(), envWithTableName,
+            new PaginationCursorCodec(PAGINATION_CURSOR_SECRET));
     }
 
     /**
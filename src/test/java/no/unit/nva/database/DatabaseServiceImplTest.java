@@ -1,18 +1,49 @@
 package no.unit.nva.database;
 
+import static no.unit.nva.database.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
 import static nva.commons.utils.attempt.Try.attempt;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
-import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
-import java.util.stream.Stream;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import no.unit.nva.exceptions.ConflictException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.InvalidInputException;
+import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.exceptions.PreconditionFailedException;
+import no.unit.nva.model.BulkWriteReport;
+import no.unit.nva.model.BulkWriteReport.BulkWriteFailure;
 import no.unit.nva.model.RoleDto;
 import no.unit.nva.model.UserDto;
 import no.unit.nva.utils.EntityUtils;
@@ -27,6 +58,8 @@ public class DatabaseServiceImplTest extends DatabaseAccessor {
 
     public static final String SOME_INSTITUTION = "someInstitution";
     public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_MESSAGE = "someMessage";
+    public static final String OUTDATED_VERSION = "versionWithAnEarlierEncoding";
 
     private UserDto someUser;
     private DatabaseServiceImpl databaseService;
@@ -44,7 +77,7 @@ public class DatabaseServiceImplTest extends DatabaseAccessor {
         UserDb userWithoutUsername = new UserDb();
         userWithoutUsername.setInstitution(SOME_INSTITUTION);
 
-        DatabaseService service = mockServiceReceivingInvalidUserDbInstance();
+        DatabaseService service = mockServiceReceivingItemWithoutPrimaryKey();
 
         Executable action = () -> service.getUser(someUser);
         IllegalStateException exception = assertThrows(IllegalStateException.class, action);
@@ -56,9 +89,9 @@ public class DatabaseServiceImplTest extends DatabaseAccessor {
     @Test
     public void getRoleThrowsIllegalStateExceptionWhenItReceivesInvalidUserFromDatabase() {
 
-        DatabaseService service = mockServiceReceivingInvalidRoleDbInstance();
+        DatabaseService service = mockServiceReceivingItemWithoutPrimaryKey();
 
-        Executable action = () -> service.getUser(someUser);
+        Executable action = () -> service.getRole(EntityUtils.createRole(EntityUtils.SOME_ROLENAME));
         IllegalStateException exception = assertThrows(IllegalStateException.class, action);
 
         String expectedMessageContent = DatabaseServiceImpl.INVALID_ENTRY_IN_DATABASE_ERROR;
@@ -83,47 +116,172 @@ public class DatabaseServiceImplTest extends DatabaseAccessor {
             StringContains.containsString(DatabaseServiceImpl.USER_NOT_FOUND_MESSAGE));
     }
 
-    private DatabaseService mockServiceReceivingInvalidUserDbInstance() {
-        UserDb userWithoutUsername = new UserDb();
-        PaginatedQueryList<UserDb> response = mockResponseFromDynamoMapper(userWithoutUsername);
-        DynamoDBMapper mockMapper = mockDynamoMapperReturningInvalidUser(response);
-        return new DatabaseServiceImpl(mockMapper);
+    @Test
+    public void getUserAsOptionalReturnsUserWhenReadIsStronglyConsistent()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        databaseService.addUser(someUser);
+        Optional<UserDto> savedUser = databaseService.getUserAsOptional(someUser, ConsistentReads.CONSISTENT);
+        assertThat(savedUser.orElseThrow(), is(equalTo(someUser)));
+    }
+
+    @Test
+    public void addUserCreatesUserWithASingleConditionalWrite()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        new DatabaseServiceImpl(mockClient, envWithTableName).addUser(someUser);
+
+        verify(mockClient, times(1)).putItem(any(PutItemRequest.class));
+        verifyNoMoreInteractions(mockClient);
+    }
+
+    @Test
+    public void addUserThrowsConflictExceptionWhenConditionalWriteFails() {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        doThrow(new ConditionalCheckFailedException(SOME_MESSAGE)).when(mockClient).putItem(any(PutItemRequest.class));
+
+        Executable action = () -> new DatabaseServiceImpl(mockClient, envWithTableName).addUser(someUser);
+        ConflictException exception = assertThrows(ConflictException.class, action);
+        assertThat(exception.getMessage(), containsString(DatabaseServiceImpl.USER_ALREADY_EXISTS_ERROR_MESSAGE));
+    }
+
+    @Test
+    public void updateUserUpdatesUserWithASingleConditionalWrite()
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, PreconditionFailedException {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        DatabaseServiceImpl service = new DatabaseServiceImpl(mockClient, envWithTableName);
+        service.updateUser(someUser);
+        service.updateUser(someUser, someUser.toUserDb().getVersion());
+
+        verify(mockClient, times(2)).putItem(any(PutItemRequest.class));
+        verifyNoMoreInteractions(mockClient);
+    }
+
+    @Test
+    public void updateUserReadsUserOnlyWhenConditionalWriteFails() {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        doThrow(new ConditionalCheckFailedException(SOME_MESSAGE)).when(mockClient).putItem(any(PutItemRequest.class));
+        when(mockClient.getItem(any(GetItemRequest.class))).thenReturn(new GetItemResult());
+
+        Executable action = () -> new DatabaseServiceImpl(mockClient, envWithTableName)
+            .updateUser(someUser, SOME_MESSAGE);
+        assertThrows(NotFoundException.class, action);
+
+        verify(mockClient, times(1)).putItem(any(PutItemRequest.class));
+        verify(mockClient, times(1)).getItem(any(GetItemRequest.class));
     }
 
-    private DatabaseService mockServiceReceivingInvalidRoleDbInstance() {
-        RoleDb roleWithoutName = new RoleDb();
-        PaginatedQueryList<RoleDb> response = mockResponseFromDynamoMapper(roleWithoutName);
-        DynamoDBMapper mockMapper = mockDynamoMapperReturningInvalidRole(response);
-        return new DatabaseServiceImpl(mockMapper);
+    @Test
+    public void updateUserUpdatesUserWithoutStoredVersionWhenExpectedVersionIsTheDigestOfItsContent()
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, PreconditionFailedException {
+        putUserWithoutStoredVersion(someUser);
+        UserDto changedUser = someUser.copy().withInstitution(SOME_INSTITUTION).build();
+
+        databaseService.updateUser(changedUser, someUser.toUserDb().getVersion());
+
+        UserDto storedUser = databaseService.getUser(someUser);
+        assertThat(storedUser.getInstitution(), is(equalTo(SOME_INSTITUTION)));
+    }
+
+    @Test
+    public void updateUserUpdatesUserWithOutdatedStoredVersionWhenExpectedVersionIsTheDigestOfItsContent()
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, PreconditionFailedException {
+        putUserWithStoredVersion(someUser, OUTDATED_VERSION);
+        UserDto changedUser = someUser.copy().withInstitution(SOME_INSTITUTION).build();
+
+        databaseService.updateUser(changedUser, someUser.toUserDb().getVersion());
+
+        UserDto storedUser = databaseService.getUser(someUser);
+        assertThat(storedUser.getInstitution(), is(equalTo(SOME_INSTITUTION)));
+    }
+
+    @Test
+    public void updateUserThrowsPreconditionFailedWhenUserWithoutStoredVersionHasOtherContent()
+        throws InvalidEntryInternalException {
+        putUserWithoutStoredVersion(someUser);
+        UserDto changedUser = someUser.copy().withInstitution(SOME_INSTITUTION).build();
+
+        Executable action = () -> databaseService.updateUser(changedUser, changedUser.toUserDb().getVersion());
+        assertThrows(PreconditionFailedException.class, action);
+    }
+
+    @Test
+    public void listUsersPageByPageThrowsExceptionWhenServiceHasNoCursorCodec() {
+        DatabaseServiceImpl service = new DatabaseServiceImpl(mock(AmazonDynamoDB.class), envWithTableName);
+        Executable action = () -> service.listUsers(SOME_MESSAGE, 1, null);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, action);
+        assertThat(exception.getMessage(), containsString(DatabaseServiceImpl.PAGINATION_NOT_CONFIGURED_ERROR));
+    }
+
+    @Test
+    public void addUsersRetriesUnprocessedUsers() throws InvalidEntryInternalException {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+            .thenReturn(resultWithUnprocessedUser(someUser.toUserDb()))
+            .thenReturn(new BatchWriteItemResult().withUnprocessedItems(Collections.emptyMap()));
+
+        BulkWriteReport report = new DatabaseServiceImpl(mockClient, envWithTableName).addUsers(List.of(someUser));
+
+        assertThat(report.getWritten(), contains(SOME_USERNAME));
+        assertThat(report.getFailed(), is(empty()));
+        verify(mockClient, times(2)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    public void addUsersReportsUsersAsFailedWhenBatchWriteFails() {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        when(mockClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+            .thenThrow(new AmazonClientException(SOME_MESSAGE));
+
+        BulkWriteReport report = new DatabaseServiceImpl(mockClient, envWithTableName).addUsers(List.of(someUser));
+
+        assertThat(report.getWritten(), is(empty()));
+        assertThat(report.getFailed(), contains(new BulkWriteFailure(SOME_USERNAME, SOME_MESSAGE)));
+    }
+
+    @Test
+    public void getUsersFetchesUnprocessedKeysAgain() throws InvalidEntryInternalException {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        UserDb storedUser = someUser.toUserDb();
+        Map<String, AttributeValue> key = new UserDbCodec().key(storedUser);
+        when(mockClient.batchGetItem(any(BatchGetItemRequest.class)))
+            .thenReturn(new BatchGetItemResult()
+                .withResponses(Collections.emptyMap())
+                .withUnprocessedKeys(Map.of(USERS_AND_ROLES_TABLE, new KeysAndAttributes().withKeys(key))))
+            .thenReturn(new BatchGetItemResult()
+                .withResponses(Map.of(USERS_AND_ROLES_TABLE, List.of(new UserDbCodec().encode(storedUser)))));
+
+        Map<String, UserDto> users = new DatabaseServiceImpl(mockClient, envWithTableName)
+            .getUsers(List.of(SOME_USERNAME));
+
+        assertThat(users.keySet(), contains(SOME_USERNAME));
+        verify(mockClient, times(2)).batchGetItem(any(BatchGetItemRequest.class));
     }
 
-    @SuppressWarnings("unchecked")
-    private DynamoDBMapper mockDynamoMapperReturningInvalidUser(PaginatedQueryList<UserDb> response) {
-        DynamoDBMapper mockMapper = mock(DynamoDBMapper.class);
-        when(mockMapper.query(any(Class.class), any(DynamoDBQueryExpression.class)))
-            .thenReturn(response);
-        return mockMapper;
+    private static BatchWriteItemResult resultWithUnprocessedUser(UserDb unprocessedUser) {
+        Map<String, AttributeValue> item = Map.of(PRIMARY_KEY_HASH_KEY,
+            new AttributeValue(unprocessedUser.getPrimaryHashKey()));
+        return new BatchWriteItemResult().withUnprocessedItems(
+            Map.of(USERS_AND_ROLES_TABLE, List.of(new WriteRequest(new PutRequest(item)))));
     }
 
-    @SuppressWarnings("unchecked")
-    private DynamoDBMapper mockDynamoMapperReturningInvalidRole(PaginatedQueryList<RoleDb> response) {
-        DynamoDBMapper mockMapper = mock(DynamoDBMapper.class);
-        when(mockMapper.query(any(Class.class), any(DynamoDBQueryExpression.class)))
-            .thenReturn(response);
-        return mockMapper;
+    private DatabaseService mockServiceReceivingItemWithoutPrimaryKey() {
+        AmazonDynamoDB mockClient = mock(AmazonDynamoDB.class);
+        Map<String, AttributeValue> itemWithoutPrimaryKey = Map.of(RoleDbCodec.TYPE_ATTRIBUTE,
+            new AttributeValue(SOME_MESSAGE));
+        when(mockClient.getItem(any(GetItemRequest.class))).thenReturn(new GetItemResult()
+            .withItem(itemWithoutPrimaryKey));
+        return new DatabaseServiceImpl(mockClient, envWithTableName);
     }
 
-    @SuppressWarnings("unchecked")
-    private PaginatedQueryList<UserDb> mockResponseFromDynamoMapper(UserDb userWithoutUsername) {
-        PaginatedQueryList<UserDb> response = mock(PaginatedQueryList.class);
-        when(response.stream()).thenReturn(Stream.of(userWithoutUsername));
-        return response;
+    private void putUserWithStoredVersion(UserDto user, String version) throws InvalidEntryInternalException {
+        Map<String, AttributeValue> item = new HashMap<>(new UserDbCodec().encode(user.toUserDb()));
+        item.put(UserDb.VERSION_ATTRIBUTE, new AttributeValue(version));
+        localDynamo.putItem(USERS_AND_ROLES_TABLE, item);
     }
 
-    @SuppressWarnings("unchecked")
-    private PaginatedQueryList<RoleDb> mockResponseFromDynamoMapper(RoleDb roleWithoutName) {
-        PaginatedQueryList<RoleDb> response = mock(PaginatedQueryList.class);
-        when(response.stream()).thenReturn(Stream.of(roleWithoutName));
-        return response;
+    private void putUserWithoutStoredVersion(UserDto user) throws InvalidEntryInternalException {
+        Map<String, AttributeValue> item = new HashMap<>(new UserDbCodec().encode(user.toUserDb()));
+        item.remove(UserDb.VERSION_ATTRIBUTE);
+        localDynamo.putItem(USERS_AND_ROLES_TABLE, item);
     }
-}
\ No newline at end of file
+}
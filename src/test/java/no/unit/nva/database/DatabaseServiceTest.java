@@ -5,6 +5,7 @@ import static no.unit.nva.model.DoesNotHaveNullFields.doesNotHaveNullFields;
 import static no.unit.nva.utils.EntityUtils.createRole;
 import static no.unit.nva.utils.EntityUtils.createUserWithoutUsername;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.core.Is.is;
@@ -15,12 +16,18 @@ import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import no.unit.nva.exceptions.ConflictException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.exceptions.PreconditionFailedException;
+import no.unit.nva.model.BulkWriteReport;
+import no.unit.nva.model.BulkWriteReport.BulkWriteFailure;
 import no.unit.nva.model.RoleDto;
 import no.unit.nva.model.UserDto;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +43,10 @@ public class DatabaseServiceTest extends DatabaseAccessor {
     private static final String SOME_INSTITUTION = "SomeInstitution";
     private static final String SOME_OTHER_ROLE = "SOME_OTHER_ROLE";
     private static final String SOME_OTHER_INSTITUTION = "Some other institution";
+    private static final String NON_EXISTING_USERNAME = "nonexistingusername";
+    private static final int MORE_USERS_THAN_A_SINGLE_BATCH = 150;
+    private static final String STALE_VERSION = "staleVersion";
+    private static final int MORE_USERS_THAN_A_SINGLE_WRITE_BATCH = 60;
     private DatabaseService db;
 
     @BeforeEach
@@ -199,6 +210,21 @@ public class DatabaseServiceTest extends DatabaseAccessor {
         assertThat(actualUser, is(not(sameInstance(expectedUser))));
     }
 
+    @DisplayName("addUser() and updateUser() return the user as it was written to the database")
+    @Test
+    public void addUserAndUpdateUserReturnWrittenUser()
+        throws ConflictException, InvalidEntryInternalException, NotFoundException, InvalidInputException,
+               PreconditionFailedException {
+        UserDto inputUser = createSampleUser(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        UserDto addedUser = db.addUser(inputUser);
+        assertThat(addedUser, is(equalTo(db.getUser(inputUser))));
+
+        UserDto changedUser = cloneAndChangeRole(inputUser);
+        UserDto updatedUser = db.updateUser(changedUser, addedUser.toUserDb().getVersion());
+        assertThat(updatedUser, is(equalTo(db.getUser(changedUser))));
+        assertThat(updatedUser, is(not(sameInstance(changedUser))));
+    }
+
     @DisplayName("updateUser() throws NotFoundException when the input username does not exist")
     @Test
     public void updateUserThrowsNotFoundExceptionWhenTheInputUsernameDoesNotExist()
@@ -209,6 +235,42 @@ public class DatabaseServiceTest extends DatabaseAccessor {
         assertThat(exception.getMessage(), containsString(DatabaseServiceImpl.USER_NOT_FOUND_MESSAGE));
     }
 
+    @DisplayName("updateUser() updates existing user when the stored user has the expected version")
+    @Test
+    public void updateUserUpdatesExistingUserWhenStoredUserHasTheExpectedVersion()
+        throws ConflictException, InvalidEntryInternalException, NotFoundException, InvalidInputException,
+               PreconditionFailedException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        UserDto expectedUser = cloneAndChangeRole(existingUser);
+
+        db.updateUser(expectedUser, existingUser.toUserDb().getVersion());
+        UserDto actualUser = db.getUser(expectedUser);
+        assertThat(actualUser, is(equalTo(expectedUser)));
+    }
+
+    @DisplayName("updateUser() throws PreconditionFailedException when the stored user has another version")
+    @Test
+    public void updateUserThrowsPreconditionFailedExceptionWhenStoredUserHasAnotherVersion()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        UserDto userUpdate = cloneAndChangeRole(existingUser);
+
+        Executable action = () -> db.updateUser(userUpdate, STALE_VERSION);
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class, action);
+        assertThat(exception.getMessage(), containsString(DatabaseServiceImpl.USER_VERSION_MISMATCH_MESSAGE));
+        assertThat(db.getUser(existingUser), is(equalTo(existingUser)));
+    }
+
+    @DisplayName("updateUser() throws NotFoundException when a versioned update targets a non existing user")
+    @Test
+    public void updateUserThrowsNotFoundExceptionWhenVersionedUpdateTargetsNonExistingUser()
+        throws InvalidEntryInternalException {
+        UserDto userUpdate = createSampleUser(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        Executable action = () -> db.updateUser(userUpdate, userUpdate.toUserDb().getVersion());
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(DatabaseServiceImpl.USER_NOT_FOUND_MESSAGE));
+    }
+
     @DisplayName("updateUser() throws InvalidInputException when the input is invalid ")
     @Test
     public void updateUserThrowsInvalidInputExceptionWhenTheInputisInvalid()
@@ -221,6 +283,82 @@ public class DatabaseServiceTest extends DatabaseAccessor {
         assertThat(exception.getMessage(), containsString(UserDto.INVALID_USER_ERROR_MESSAGE));
     }
 
+    @DisplayName("addUsers() writes all valid users when they do not fit in a single batch")
+    @Test
+    public void addUsersWritesAllValidUsersWhenTheyDoNotFitInASingleBatch() throws InvalidEntryInternalException {
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < MORE_USERS_THAN_A_SINGLE_WRITE_BATCH; i++) {
+            users.add(createSampleUser(SOME_USERNAME + i, SOME_INSTITUTION, SOME_ROLE));
+        }
+        List<String> usernames = users.stream().map(UserDto::getUsername).collect(Collectors.toList());
+
+        BulkWriteReport report = db.addUsers(users);
+
+        assertThat(report.getWritten(), containsInAnyOrder(usernames.toArray()));
+        assertThat(report.getFailed(), is(empty()));
+        assertThat(db.getUsers(usernames).values(), containsInAnyOrder(users.toArray()));
+    }
+
+    @DisplayName("addUsers() reports invalid and duplicate users as failed and writes the rest")
+    @Test
+    public void addUsersReportsInvalidAndDuplicateUsersAsFailedAndWritesTheRest()
+        throws InvalidEntryInternalException, NoSuchMethodException, IllegalAccessException,
+               InvocationTargetException, NotFoundException {
+        UserDto validUser = createSampleUser(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        UserDto duplicateUser = createSampleUser(SOME_USERNAME, SOME_OTHER_INSTITUTION, SOME_ROLE);
+        UserDto invalidUser = createUserWithoutUsername();
+
+        BulkWriteReport report = db.addUsers(List.of(validUser, duplicateUser, invalidUser));
+
+        assertThat(report.getWritten(), contains(SOME_USERNAME));
+        List<String> failureReasons = report.getFailed().stream()
+            .map(BulkWriteFailure::getReason)
+            .collect(Collectors.toList());
+        assertThat(failureReasons,
+            containsInAnyOrder(BulkWriter.DUPLICATE_ENTRY_ERROR, UserDto.INVALID_USER_ERROR_MESSAGE));
+        assertThat(db.getUser(validUser), is(equalTo(validUser)));
+    }
+
+    @DisplayName("addRoles() writes all valid roles")
+    @Test
+    public void addRolesWritesAllValidRoles() throws InvalidEntryInternalException, NotFoundException {
+        RoleDto someRole = createRole(SOME_ROLE);
+        RoleDto someOtherRole = createRole(SOME_OTHER_ROLE);
+
+        BulkWriteReport report = db.addRoles(List.of(someRole, someOtherRole));
+
+        assertThat(report.getWritten(), contains(SOME_ROLE, SOME_OTHER_ROLE));
+        assertThat(db.getRole(someOtherRole), is(equalTo(someOtherRole)));
+    }
+
+    @DisplayName("getUsers() returns the existing users keyed by username")
+    @Test
+    public void getUsersReturnsExistingUsersKeyedByUsername()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        UserDto someUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        UserDto someOtherUser = createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+
+        Map<String, UserDto> users = db.getUsers(List.of(SOME_USERNAME, SOME_OTHER_USERNAME, NON_EXISTING_USERNAME));
+
+        assertThat(users, is(equalTo(Map.of(SOME_USERNAME, someUser, SOME_OTHER_USERNAME, someOtherUser))));
+    }
+
+    @DisplayName("getUsers() returns all users when more than one batch of keys is requested")
+    @Test
+    public void getUsersReturnsAllUsersWhenMoreThanOneBatchIsRequested()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < MORE_USERS_THAN_A_SINGLE_BATCH; i++) {
+            String username = SOME_USERNAME + i;
+            createSampleUserAndAddUserToDb(username, SOME_INSTITUTION, SOME_ROLE);
+            usernames.add(username);
+        }
+
+        Map<String, UserDto> users = db.getUsers(usernames);
+
+        assertThat(users.keySet(), containsInAnyOrder(usernames.toArray()));
+    }
+
     @Test
     public void listUsersByInstitutionReturnsAllUsersForSpecifiedInstitution()
         throws ConflictException, InvalidEntryInternalException, InvalidInputException {
@@ -238,6 +376,28 @@ public class DatabaseServiceTest extends DatabaseAccessor {
         assertThat(queryResult, is(empty()));
     }
 
+    @Test
+    public void listUsernamesReturnsOnlyTheUsernamesOfTheUsersOfSpecifiedInstitution()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        createSampleUserAndAddUserToDb(NON_EXISTING_USERNAME, SOME_OTHER_INSTITUTION, SOME_ROLE);
+
+        List<String> usernames = db.listUsernames(SOME_INSTITUTION);
+        assertThat(usernames, containsInAnyOrder(SOME_USERNAME, SOME_OTHER_USERNAME));
+    }
+
+    @Test
+    public void streamUsersReturnsAllUsersForSpecifiedInstitution()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        UserDto someUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        UserDto someOtherUser = createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLE);
+        createSampleUserAndAddUserToDb(NON_EXISTING_USERNAME, SOME_OTHER_INSTITUTION, SOME_ROLE);
+
+        List<UserDto> queryResult = db.streamUsers(SOME_INSTITUTION).collect(Collectors.toList());
+        assertThat(queryResult, containsInAnyOrder(someUser, someOtherUser));
+    }
+
     private UserDto createSampleUserWithoutInstitutionOrRoles(String username) throws InvalidEntryInternalException {
         return createSampleUser(username, null, null);
     }
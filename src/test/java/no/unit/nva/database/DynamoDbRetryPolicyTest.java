@@ -0,0 +1,163 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import nva.commons.utils.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class DynamoDbRetryPolicyTest {
+
+    public static final int MAX_RETRIES = 5;
+    public static final long BASE_DELAY_MILLIS = 10;
+    public static final long MAX_DELAY_MILLIS = 100;
+    public static final long DEADLINE_MARGIN_MILLIS = 50;
+    public static final int BUDGET_CAPACITY = 3;
+    public static final int BUDGET_REFILL_PER_SECOND = 1;
+    public static final String THROTTLING_ERROR_CODE = "ProvisionedThroughputExceededException";
+    public static final String VALIDATION_ERROR_CODE = "ValidationException";
+    public static final int BAD_REQUEST = 400;
+    public static final long ENOUGH_TIME_MILLIS = 10_000;
+    public static final String INVOCATION_FAILED_MESSAGE = "Invocation failed";
+
+    private final GetItemRequest request = new GetItemRequest();
+    private AtomicLong clock;
+    private RequestDeadline deadline;
+    private DynamoDbRetryPolicy policy;
+
+    /**
+     * Creates a policy with a fake clock and a random generator that always returns the upper bound.
+     */
+    @BeforeEach
+    public void init() {
+        clock = new AtomicLong();
+        deadline = new RequestDeadline(clock::get);
+        RetryBudget budget = new RetryBudget(BUDGET_CAPACITY, BUDGET_REFILL_PER_SECOND, clock::get);
+        policy = new DynamoDbRetryPolicy(MAX_RETRIES, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS, DEADLINE_MARGIN_MILLIS,
+            budget, deadline, bound -> bound);
+    }
+
+    @Test
+    public void delayBeforeNextRetryGrowsExponentiallyUpToMaxDelay() {
+        assertThat(policy.delayBeforeNextRetry(request, throttling(), 0), is(equalTo(BASE_DELAY_MILLIS)));
+        assertThat(policy.delayBeforeNextRetry(request, throttling(), 2), is(equalTo(4 * BASE_DELAY_MILLIS)));
+        assertThat(policy.delayBeforeNextRetry(request, throttling(), 4), is(equalTo(MAX_DELAY_MILLIS)));
+        assertThat(policy.delayBeforeNextRetry(request, throttling(), Integer.MAX_VALUE),
+            is(equalTo(MAX_DELAY_MILLIS)));
+    }
+
+    @Test
+    public void shouldRetryReturnsTrueForThrottlingWhenNoDeadlineHasBeenStarted() {
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(true));
+    }
+
+    @Test
+    public void shouldRetryReturnsFalseForClientErrors() {
+        AmazonServiceException validationError = new AmazonServiceException(VALIDATION_ERROR_CODE);
+        validationError.setErrorCode(VALIDATION_ERROR_CODE);
+        validationError.setStatusCode(BAD_REQUEST);
+
+        assertThat(policy.shouldRetry(request, validationError, 0), is(false));
+    }
+
+    @Test
+    public void shouldRetryReturnsFalseWhenMaxRetriesHaveBeenAttempted() {
+        assertThat(policy.shouldRetry(request, throttling(), MAX_RETRIES), is(false));
+    }
+
+    @Test
+    public void shouldRetryReturnsFalseWhenBackoffAndMarginDoNotFitBeforeDeadline() {
+        deadline.start(BASE_DELAY_MILLIS + DEADLINE_MARGIN_MILLIS);
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(true));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(false));
+    }
+
+    @Test
+    public void shouldRetryReturnsFalseWhenBudgetIsSpentUntilItIsRefilled() {
+        deadline.start(ENOUGH_TIME_MILLIS);
+        for (int retry = 0; retry < BUDGET_CAPACITY; retry++) {
+            assertThat(policy.shouldRetry(request, throttling(), 0), is(true));
+        }
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(false));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(true));
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(false));
+    }
+
+    @Test
+    public void shouldRetryUnprocessedItemsStopsAtMaxRetriesDeadlineAndBudget() {
+        assertThat(policy.shouldRetryUnprocessedItems(MAX_RETRIES), is(false));
+
+        deadline.start(BASE_DELAY_MILLIS + DEADLINE_MARGIN_MILLIS - 1);
+        assertThat(policy.shouldRetryUnprocessedItems(0), is(false));
+
+        deadline.start(ENOUGH_TIME_MILLIS);
+        for (int retry = 0; retry < BUDGET_CAPACITY; retry++) {
+            assertThat(policy.shouldRetryUnprocessedItems(0), is(true));
+        }
+        assertThat(policy.shouldRetryUnprocessedItems(0), is(false));
+    }
+
+    @Test
+    public void unprocessedItemsRetriesAndFailedRequestRetriesTakeFromTheSameBudget() {
+        deadline.start(ENOUGH_TIME_MILLIS);
+        for (int retry = 0; retry < BUDGET_CAPACITY; retry++) {
+            assertThat(policy.shouldRetryUnprocessedItems(0), is(true));
+        }
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(false));
+    }
+
+    @Test
+    public void policiesCreatedFromTheEnvironmentShareOneBudget() {
+        Environment environment = mock(Environment.class);
+        assertThat(DynamoDbRetryPolicy.sharedBudget(environment),
+            is(sameInstance(DynamoDbRetryPolicy.sharedBudget(environment))));
+    }
+
+    @Test
+    public void startWithoutContextClearsDeadline() {
+        deadline.start(0);
+        deadline.start(null);
+
+        assertThat(deadline.remainingMillis(), is(equalTo(RequestDeadline.NO_DEADLINE)));
+        assertThat(policy.shouldRetry(request, throttling(), 0), is(true));
+    }
+
+    @Test
+    public void withinClearsDeadlineWhenInvocationFails() {
+        Context context = mock(Context.class);
+        when(context.getRemainingTimeInMillis()).thenReturn((int) ENOUGH_TIME_MILLIS);
+
+        Executable action = () -> deadline.within(context, () -> {
+            assertThat(deadline.remainingMillis(), is(equalTo(ENOUGH_TIME_MILLIS)));
+            throw new IOException(INVOCATION_FAILED_MESSAGE);
+        });
+
+        IOException exception = assertThrows(IOException.class, action);
+        assertThat(exception.getMessage(), is(equalTo(INVOCATION_FAILED_MESSAGE)));
+        assertThat(deadline.remainingMillis(), is(equalTo(RequestDeadline.NO_DEADLINE)));
+    }
+
+    private static AmazonServiceException throttling() {
+        AmazonServiceException exception = new AmazonServiceException(THROTTLING_ERROR_CODE);
+        exception.setErrorCode(THROTTLING_ERROR_CODE);
+        exception.setStatusCode(BAD_REQUEST);
+        return exception;
+    }
+}
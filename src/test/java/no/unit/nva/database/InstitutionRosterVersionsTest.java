@@ -0,0 +1,56 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class InstitutionRosterVersionsTest extends DatabaseAccessor {
+
+    public static final String SOME_INSTITUTION = "https://example.org/institution/1";
+    public static final String SOME_OTHER_INSTITUTION = "https://example.org/institution/2";
+    public static final long SOME_TIME = 1_602_000_000_000L;
+
+    private InstitutionRosterVersions rosterVersions;
+    private AtomicLong clock;
+
+    @BeforeEach
+    public void init() {
+        clock = new AtomicLong(SOME_TIME);
+        rosterVersions = new InstitutionRosterVersions(initializeTestDatabase(), USERS_AND_ROLES_TABLE, clock::get);
+    }
+
+    @Test
+    public void readReturnsInitialVersionWhenRosterHasNeverChanged() {
+        InstitutionRosterVersions.RosterVersion version = rosterVersions.read(SOME_INSTITUTION);
+
+        assertThat(version.getVersion(), is(equalTo(InstitutionRosterVersions.INITIAL_VERSION)));
+        assertThat(version.getChangedAt(), is(equalTo(InstitutionRosterVersions.NEVER_CHANGED)));
+    }
+
+    @Test
+    public void incrementIncrementsVersionOfEveryInstitutionOnce() {
+        rosterVersions.increment(Arrays.asList(SOME_INSTITUTION, SOME_OTHER_INSTITUTION, SOME_INSTITUTION, null));
+        clock.addAndGet(1000);
+        rosterVersions.increment(List.of(SOME_INSTITUTION));
+
+        assertThat(rosterVersions.read(SOME_INSTITUTION).getVersion(), is(equalTo(2L)));
+        assertThat(rosterVersions.read(SOME_INSTITUTION).getChangedAt(), is(equalTo(SOME_TIME + 1000)));
+        assertThat(rosterVersions.read(SOME_OTHER_INSTITUTION).getVersion(), is(equalTo(1L)));
+        assertThat(rosterVersions.read(SOME_OTHER_INSTITUTION).getChangedAt(), is(equalTo(SOME_TIME)));
+    }
+
+    @Test
+    public void rosterEntriesAreNotListedAsUsers() {
+        rosterVersions.increment(List.of(SOME_INSTITUTION));
+
+        DatabaseService databaseService = new DatabaseServiceImpl(localDynamo, envWithTableName);
+
+        assertThat(databaseService.listUsernames(SOME_INSTITUTION).isEmpty(), is(true));
+    }
+}
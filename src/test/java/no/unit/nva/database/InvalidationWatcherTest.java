@@ -0,0 +1,93 @@
+package no.unit.nva.database;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import no.unit.nva.database.InvalidationWatcher.InvalidationListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class InvalidationWatcherTest {
+
+    public static final long POLL_INTERVAL_SECONDS = 2;
+    public static final String SOME_BUCKET = "USER_1";
+    public static final String SOME_OTHER_BUCKET = "ROLE_2";
+
+    private AtomicLong clock;
+    private CacheInvalidationLog invalidationLog;
+    private InvalidationListener listener;
+    private InvalidationWatcher watcher;
+
+    @BeforeEach
+    public void init() {
+        clock = new AtomicLong();
+        invalidationLog = mock(CacheInvalidationLog.class);
+        listener = mock(InvalidationListener.class);
+        watcher = new InvalidationWatcher(invalidationLog, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS, clock::get);
+    }
+
+    @Test
+    public void pollIfDueReportsOnlyBucketsWhoseGenerationHasChanged() {
+        when(invalidationLog.readGenerations())
+            .thenReturn(Map.of(SOME_BUCKET, 1L, SOME_OTHER_BUCKET, 1L))
+            .thenReturn(Map.of(SOME_BUCKET, 2L, SOME_OTHER_BUCKET, 1L));
+
+        watcher.pollIfDue(listener);
+        advanceClock(POLL_INTERVAL_SECONDS);
+        watcher.pollIfDue(listener);
+
+        verify(listener, times(1)).invalidateAll();
+        verify(listener, times(1)).invalidateBuckets(Set.of(SOME_BUCKET));
+    }
+
+    @Test
+    public void pollIfDueDoesNotReadLogBeforePollIntervalHasPassed() {
+        when(invalidationLog.readGenerations()).thenReturn(Map.of(SOME_BUCKET, 1L));
+
+        watcher.pollIfDue(listener);
+        advanceClock(POLL_INTERVAL_SECONDS - 1);
+        watcher.pollIfDue(listener);
+
+        verify(invalidationLog, times(1)).readGenerations();
+    }
+
+    @Test
+    public void pollIfDueInvalidatesEverythingWhenLogCannotBeRead() {
+        when(invalidationLog.readGenerations())
+            .thenReturn(Map.of(SOME_BUCKET, 1L))
+            .thenThrow(new IllegalStateException())
+            .thenReturn(Map.of(SOME_BUCKET, 1L));
+
+        watcher.pollIfDue(listener);
+        advanceClock(POLL_INTERVAL_SECONDS);
+        watcher.pollIfDue(listener);
+        advanceClock(POLL_INTERVAL_SECONDS);
+        watcher.pollIfDue(listener);
+
+        verify(listener, times(3)).invalidateAll();
+        verify(listener, never()).invalidateBuckets(Set.of(SOME_BUCKET));
+    }
+
+    @Test
+    public void pollIfDueReportsNothingWhenNothingHasChanged() {
+        when(invalidationLog.readGenerations()).thenReturn(Map.of(SOME_BUCKET, 1L));
+        watcher.pollIfDue(mock(InvalidationListener.class));
+
+        advanceClock(POLL_INTERVAL_SECONDS);
+        watcher.pollIfDue(listener);
+
+        verifyNoInteractions(listener);
+    }
+
+    private void advanceClock(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,160 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.mock;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Times the conversion of users by the {@link UserDbCodec} and by the DynamoDBMapper. It is excluded from the test
+ * task and is run with {@code ./gradlew benchmark}.
+ *
+ * <p>The first conversion is timed once, on a new codec and on a new mapper, and approximates the cost paid by the
+ * first request of a new Lambda container. The codec is timed first, so the classes shared by both, such as the model
+ * classes and {@link AttributeValue}, are loaded during the codec measurement and the comparison favours the mapper.
+ * Run it in a fresh JVM for comparable numbers. The warm conversion is timed over many users, after a few rounds of
+ * warm-up.
+ */
+@Tag("benchmark")
+public class MarshallingBenchmark {
+
+    public static final int NUMBER_OF_USERS = 10_000;
+    public static final int ROLES_PER_USER = 3;
+    public static final int WARM_UP_ROUNDS = 5;
+    public static final int MEASURED_ROUNDS = 10;
+    public static final String SOME_INSTITUTION = "someInstitution";
+
+    @Test
+    public void timeCodecAndMapperConversions() throws InvalidEntryInternalException {
+        List<UserDb> users = createUsers();
+
+        long codecColdStart = timeFirstCodecConversion(users.get(0));
+        long mapperColdStart = timeFirstMapperConversion(users.get(0));
+        System.out.printf("First conversion: codec %.2f ms, mapper %.2f ms%n",
+            millis(codecColdStart), millis(mapperColdStart));
+
+        UserDbCodec codec = new UserDbCodec();
+        DynamoDBMapperTableModel<UserDb> model = createMapper().getTableModel(UserDb.class);
+        long codecWarm = bestRoundTrip(users, new CodecConversion(codec));
+        long mapperWarm = bestRoundTrip(users, new MapperConversion(model));
+        System.out.printf("Conversion of %d users: codec %.2f ms, mapper %.2f ms%n",
+            NUMBER_OF_USERS, millis(codecWarm), millis(mapperWarm));
+
+        assertThat(codec.encode(users.get(0)), is(equalTo(model.convert(users.get(0)))));
+    }
+
+    private static long timeFirstCodecConversion(UserDb user) throws InvalidEntryInternalException {
+        long start = System.nanoTime();
+        UserDbCodec codec = new UserDbCodec();
+        codec.decode(codec.encode(user));
+        return System.nanoTime() - start;
+    }
+
+    private static long timeFirstMapperConversion(UserDb user) {
+        long start = System.nanoTime();
+        DynamoDBMapperTableModel<UserDb> model = createMapper().getTableModel(UserDb.class);
+        model.unconvert(model.convert(user));
+        return System.nanoTime() - start;
+    }
+
+    private static long bestRoundTrip(List<UserDb> users, Conversion conversion)
+        throws InvalidEntryInternalException {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            roundTrip(users, conversion);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            best = Math.min(best, roundTrip(users, conversion));
+        }
+        return best;
+    }
+
+    private static long roundTrip(List<UserDb> users, Conversion conversion) throws InvalidEntryInternalException {
+        long start = System.nanoTime();
+        for (UserDb user : users) {
+            conversion.decode(conversion.encode(user));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static DynamoDBMapper createMapper() {
+        return new DynamoDBMapper(mock(AmazonDynamoDB.class));
+    }
+
+    private static List<UserDb> createUsers() throws InvalidEntryInternalException {
+        List<RoleDb> roles = new ArrayList<>();
+        for (int index = 0; index < ROLES_PER_USER; index++) {
+            roles.add(RoleDb.newBuilder().withName("role" + index).build());
+        }
+        List<UserDb> users = new ArrayList<>();
+        for (int index = 0; index < NUMBER_OF_USERS; index++) {
+            users.add(UserDb.newBuilder()
+                .withUsername("user" + index)
+                .withInstitution(SOME_INSTITUTION)
+                .withRoles(roles)
+                .build());
+        }
+        return users;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private interface Conversion {
+
+        Map<String, AttributeValue> encode(UserDb user);
+
+        UserDb decode(Map<String, AttributeValue> item) throws InvalidEntryInternalException;
+    }
+
+    private static class CodecConversion implements Conversion {
+
+        private final UserDbCodec codec;
+
+        CodecConversion(UserDbCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public Map<String, AttributeValue> encode(UserDb user) {
+            return codec.encode(user);
+        }
+
+        @Override
+        public UserDb decode(Map<String, AttributeValue> item) throws InvalidEntryInternalException {
+            return codec.decode(item);
+        }
+    }
+
+    private static class MapperConversion implements Conversion {
+
+        private final DynamoDBMapperTableModel<UserDb> model;
+
+        MapperConversion(DynamoDBMapperTableModel<UserDb> model) {
+            this.model = model;
+        }
+
+        @Override
+        public Map<String, AttributeValue> encode(UserDb user) {
+            return model.convert(user);
+        }
+
+        @Override
+        public UserDb decode(Map<String, AttributeValue> item) {
+            return model.unconvert(item);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapUserCacheTest {
+
+    public static final int MAX_ENTRIES = 100;
+    public static final int SLAB_BYTES = 100;
+    public static final int SLABS = 3;
+    public static final long CAPACITY_BYTES = SLABS * SLAB_BYTES;
+    public static final long TIME_TO_LIVE_SECONDS = 10;
+    public static final int USERS_PER_SLAB = 2;
+    public static final String USERNAME_PREFIX = "user";
+    public static final String SOME_INSTITUTION = "inst";
+    public static final String SOME_ROLE_NAME = "role";
+
+    private AtomicLong clock;
+    private OffHeapUserCache cache;
+
+    @BeforeEach
+    public void init() {
+        clock = new AtomicLong();
+        cache = newCache(MAX_ENTRIES);
+    }
+
+    @Test
+    public void getReturnsUserEqualToStoredUser() throws InvalidEntryInternalException {
+        UserDto user = UserDto.newBuilder()
+            .withUsername("\u00fcser")
+            .withRoles(List.of(role("r\u00f4le1"), role("role2")))
+            .build();
+        cache.put(user.getUsername(), user);
+
+        assertThat(cache.get(user.getUsername()), is(equalTo(Optional.of(user))));
+        assertThat(cache.statistics().getHits(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void getReturnsEmptyAfterTimeToLiveHasPassed() throws InvalidEntryInternalException {
+        cache.put(username(0), user(0));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(TIME_TO_LIVE_SECONDS));
+
+        assertThat(cache.get(username(0)), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics().getExpirations(), is(equalTo(1L)));
+        assertThat(cache.statistics().getSize(), is(equalTo(0)));
+    }
+
+    @Test
+    public void putEvictsUsersOfOldestSlabWhenAllSlabsAreFull() throws InvalidEntryInternalException {
+        int users = SLABS * USERS_PER_SLAB + 1;
+        for (int user = 0; user < users; user++) {
+            cache.put(username(user), user(user));
+        }
+
+        for (int user = 0; user < USERS_PER_SLAB; user++) {
+            assertThat(cache.get(username(user)), is(equalTo(Optional.empty())));
+        }
+        for (int user = USERS_PER_SLAB; user < users; user++) {
+            assertThat(cache.get(username(user)), is(equalTo(Optional.of(user(user)))));
+        }
+        assertThat(cache.statistics().getEvictions(), is(equalTo((long) USERS_PER_SLAB)));
+    }
+
+    @Test
+    public void putEvictsUsersOfOldestSlabWhenCacheHoldsMaxEntries() throws InvalidEntryInternalException {
+        int maxEntries = USERS_PER_SLAB + 1;
+        cache = newCache(maxEntries);
+        for (int user = 0; user <= maxEntries; user++) {
+            cache.put(username(user), user(user));
+        }
+
+        assertThat(cache.get(username(0)), is(equalTo(Optional.empty())));
+        assertThat(cache.get(username(maxEntries)), is(equalTo(Optional.of(user(maxEntries)))));
+        assertThat(cache.statistics().getSize(), is(equalTo(maxEntries - USERS_PER_SLAB + 1)));
+    }
+
+    @Test
+    public void putReplacesCachedUser() throws InvalidEntryInternalException {
+        cache.put(username(0), user(0));
+        UserDto changedUser = user(0).copy().withInstitution(null).build();
+        cache.put(username(0), changedUser);
+
+        assertThat(cache.get(username(0)), is(equalTo(Optional.of(changedUser))));
+        assertThat(cache.statistics().getSize(), is(equalTo(1)));
+    }
+
+    @Test
+    public void putDoesNotCacheUserLargerThanSlab() throws InvalidEntryInternalException {
+        UserDto largeUser = user(0).copy().withInstitution("i".repeat(SLAB_BYTES)).build();
+        cache.put(username(0), largeUser);
+
+        assertThat(cache.get(username(0)), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void invalidateIfRemovesOnlyMatchingUsers() throws InvalidEntryInternalException {
+        int users = MAX_ENTRIES / 2;
+        cache = new OffHeapUserCache(MAX_ENTRIES, CAPACITY_BYTES * users, SLAB_BYTES * users,
+            TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS, clock::get);
+        for (int user = 0; user < users; user++) {
+            cache.put(username(user), user(user));
+        }
+
+        cache.invalidateIf(username -> Integer.parseInt(username.substring(USERNAME_PREFIX.length())) % 2 == 0);
+
+        for (int user = 0; user < users; user++) {
+            Optional<UserDto> expected = user % 2 == 0 ? Optional.empty() : Optional.of(user(user));
+            assertThat(cache.get(username(user)), is(equalTo(expected)));
+        }
+        assertThat(cache.statistics().getSize(), is(equalTo(users / 2)));
+    }
+
+    @Test
+    public void memoryStatisticsReportsAllocatedAndLiveOffHeapBytes() throws InvalidEntryInternalException {
+        cache.put(username(0), user(0));
+        CacheMemoryStatistics statistics = cache.memoryStatistics();
+
+        assertThat(statistics.getOffHeapCapacityBytes(), is(equalTo(CAPACITY_BYTES)));
+        assertThat(statistics.getOffHeapAllocatedBytes(), is(equalTo((long) SLAB_BYTES)));
+        assertThat(statistics.getOffHeapLiveBytes(), is(greaterThan(0L)));
+        assertThat(statistics.getHeapUsedBytes(), is(greaterThan(0L)));
+
+        cache.invalidate(username(0));
+
+        assertThat(cache.memoryStatistics().getOffHeapLiveBytes(), is(equalTo(0L)));
+    }
+
+    private OffHeapUserCache newCache(int maxEntries) {
+        return new OffHeapUserCache(maxEntries, CAPACITY_BYTES, SLAB_BYTES, TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS,
+            clock::get);
+    }
+
+    private static String username(int user) {
+        return USERNAME_PREFIX + user;
+    }
+
+    private static UserDto user(int user) throws InvalidEntryInternalException {
+        return UserDto.newBuilder()
+            .withUsername(username(user))
+            .withInstitution(SOME_INSTITUTION)
+            .withRoles(List.of(role(SOME_ROLE_NAME)))
+            .build();
+    }
+
+    private static RoleDto role(String roleName) throws InvalidEntryInternalException {
+        return RoleDto.newBuilder().withName(roleName).build();
+    }
+}
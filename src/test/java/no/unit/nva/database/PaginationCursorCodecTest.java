@@ -0,0 +1,118 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
+import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
+import com.amazonaws.services.secretsmanager.model.ResourceNotFoundException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import no.unit.nva.exceptions.InvalidInputException;
+import nva.commons.utils.Environment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class PaginationCursorCodecTest {
+
+    public static final String SOME_SECRET = "someSecret";
+    public static final String SOME_OTHER_SECRET = "someOtherSecret";
+    public static final String SOME_INSTITUTION = "someInstitution";
+    public static final String SOME_OTHER_INSTITUTION = "someOtherInstitution";
+    public static final String SOME_SECRET_NAME = "someSecretName";
+    public static final String SOME_SECRET_KEY = "someSecretKey";
+    public static final String SECRET_STRING = "{\"" + SOME_SECRET_KEY + "\":\"" + SOME_SECRET + "\"}";
+    public static final Map<String, AttributeValue> SOME_KEY = Map.of(
+        DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY, new AttributeValue("USER#someUser"),
+        DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY, new AttributeValue("USER"));
+
+    private final PaginationCursorCodec codec = new PaginationCursorCodec(SOME_SECRET);
+
+    @Test
+    public void decodeReturnsTheEncodedKey() throws InvalidInputException {
+        String cursor = codec.encode(SOME_INSTITUTION, SOME_KEY);
+        assertThat(codec.decode(SOME_INSTITUTION, cursor), is(equalTo(SOME_KEY)));
+    }
+
+    @Test
+    public void encodeReturnsNullWhenThereIsNoLastEvaluatedKey() {
+        assertThat(codec.encode(SOME_INSTITUTION, null), is(nullValue()));
+        assertThat(codec.encode(SOME_INSTITUTION, Collections.emptyMap()), is(nullValue()));
+    }
+
+    @Test
+    public void decodeThrowsExceptionWhenCursorWasIssuedForAnotherInstitution() {
+        String cursor = codec.encode(SOME_INSTITUTION, SOME_KEY);
+        Executable action = () -> codec.decode(SOME_OTHER_INSTITUTION, cursor);
+        assertThrows(InvalidInputException.class, action);
+    }
+
+    @Test
+    public void decodeThrowsExceptionWhenCursorWasSignedWithAnotherSecret() {
+        String cursor = new PaginationCursorCodec(SOME_OTHER_SECRET).encode(SOME_INSTITUTION, SOME_KEY);
+        Executable action = () -> codec.decode(SOME_INSTITUTION, cursor);
+        assertThrows(InvalidInputException.class, action);
+    }
+
+    @Test
+    public void decodeThrowsExceptionWhenCursorIsMalformed() {
+        Executable action = () -> codec.decode(SOME_INSTITUTION, "not a cursor");
+        assertThrows(InvalidInputException.class, action);
+    }
+
+    @Test
+    public void constructorThrowsExceptionWhenSecretIsMissing() {
+        assertThrows(IllegalStateException.class, () -> new PaginationCursorCodec(null));
+        assertThrows(IllegalStateException.class, () -> new PaginationCursorCodec(" "));
+    }
+
+    @Test
+    public void fromSecretsManagerReturnsCodecSigningWithTheStoredSecret() throws InvalidInputException {
+        AWSSecretsManager secretsManager = mock(AWSSecretsManager.class);
+        when(secretsManager.getSecretValue(any(GetSecretValueRequest.class)))
+            .thenReturn(new GetSecretValueResult().withName(SOME_SECRET_NAME).withSecretString(SECRET_STRING));
+
+        PaginationCursorCodec storedSecretCodec =
+            PaginationCursorCodec.fromSecretsManager(secretsManager, environmentNamingTheSecret());
+
+        String cursor = storedSecretCodec.encode(SOME_INSTITUTION, SOME_KEY);
+        assertThat(codec.decode(SOME_INSTITUTION, cursor), is(equalTo(SOME_KEY)));
+    }
+
+    @Test
+    public void fromSecretsManagerThrowsExceptionWhenSecretIsNotConfigured() {
+        Environment environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        Executable action = () -> PaginationCursorCodec.fromSecretsManager(mock(AWSSecretsManager.class), environment);
+        assertThrows(IllegalStateException.class, action);
+    }
+
+    @Test
+    public void fromSecretsManagerThrowsExceptionWhenSecretCannotBeRead() {
+        AWSSecretsManager secretsManager = mock(AWSSecretsManager.class);
+        when(secretsManager.getSecretValue(any(GetSecretValueRequest.class)))
+            .thenThrow(new ResourceNotFoundException(SOME_SECRET_NAME));
+        Executable action = () -> PaginationCursorCodec.fromSecretsManager(secretsManager,
+            environmentNamingTheSecret());
+        assertThrows(IllegalStateException.class, action);
+    }
+
+    private static Environment environmentNamingTheSecret() {
+        Environment environment = mock(Environment.class);
+        when(environment.readEnvOpt(PaginationCursorCodec.SECRET_NAME_ENV_VARIABLE))
+            .thenReturn(Optional.of(SOME_SECRET_NAME));
+        when(environment.readEnvOpt(PaginationCursorCodec.SECRET_KEY_ENV_VARIABLE))
+            .thenReturn(Optional.of(SOME_SECRET_KEY));
+        return environment;
+    }
+}
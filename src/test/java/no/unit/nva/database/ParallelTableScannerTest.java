@@ -0,0 +1,120 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import no.unit.nva.exceptions.ConflictException;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.InvalidInputException;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.utils.EntityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class ParallelTableScannerTest extends DatabaseAccessor {
+
+    public static final int NUMBER_OF_USERS = 30;
+    public static final int NUMBER_OF_ROLES = 5;
+    public static final int TOTAL_SEGMENTS = 4;
+    public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_ROLENAME = "someRole";
+    public static final String SOME_INSTITUTION = "someInstitution";
+
+    private DatabaseService databaseService;
+    private final Queue<UserDto> scannedUsers = new ConcurrentLinkedQueue<>();
+    private final Queue<RoleDto> scannedRoles = new ConcurrentLinkedQueue<>();
+    private final Queue<TableScanProgress> reportedProgress = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+    }
+
+    @Test
+    public void scanPassesEveryUserAndRoleToTheConsumerAccordingToItsType()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        List<UserDto> expectedUsers = insertUsers();
+        List<RoleDto> expectedRoles = insertRoles();
+
+        ParallelTableScanner scanner = new ParallelTableScanner(localDynamo, envWithTableName, TOTAL_SEGMENTS);
+        TableScanProgress progress = scanner.scan(collectingConsumer(), reportedProgress::add);
+
+        assertThat(scannedUsers, containsInAnyOrder(expectedUsers.toArray()));
+        assertThat(scannedRoles, containsInAnyOrder(expectedRoles.toArray()));
+        assertThat(progress.isCompleted(), is(true));
+        assertThat(progress.getUsers(), is(equalTo((long) NUMBER_OF_USERS)));
+        assertThat(progress.getRoles(), is(equalTo((long) NUMBER_OF_ROLES)));
+        assertThat(progress.getScannedItems(), is(equalTo((long) NUMBER_OF_USERS + NUMBER_OF_ROLES)));
+        assertThat(reportedProgress.size(), is(greaterThan(TOTAL_SEGMENTS - 1)));
+    }
+
+    @Test
+    public void scanCountsOnlyTheItemsOfTheCurrentScanWhenScannerIsReused()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        insertUsers();
+        insertRoles();
+        ParallelTableScanner scanner = new ParallelTableScanner(localDynamo, envWithTableName, TOTAL_SEGMENTS);
+
+        scanner.scan(collectingConsumer(), reportedProgress::add);
+        TableScanProgress secondProgress = scanner.scan(collectingConsumer(), reportedProgress::add);
+
+        assertThat(secondProgress.getUsers(), is(equalTo((long) NUMBER_OF_USERS)));
+        assertThat(secondProgress.getRoles(), is(equalTo((long) NUMBER_OF_ROLES)));
+        assertThat(secondProgress.getScannedItems(), is(equalTo((long) NUMBER_OF_USERS + NUMBER_OF_ROLES)));
+    }
+
+    @Test
+    public void constructorThrowsExceptionWhenTotalSegmentsIsNotPositive() {
+        Executable action = () -> new ParallelTableScanner(initializeTestDatabase(), envWithTableName, 0);
+        assertThrows(IllegalArgumentException.class, action);
+    }
+
+    private TableScanConsumer collectingConsumer() {
+        return new TableScanConsumer() {
+            @Override
+            public void acceptUser(UserDto user) {
+                scannedUsers.add(user);
+            }
+
+            @Override
+            public void acceptRole(RoleDto role) {
+                scannedRoles.add(role);
+            }
+        };
+    }
+
+    private List<UserDto> insertUsers() throws InvalidEntryInternalException, ConflictException,
+                                               InvalidInputException {
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_USERS; i++) {
+            UserDto user = EntityUtils.createUserWithRolesAndInstitution().copy()
+                .withUsername(SOME_USERNAME + i)
+                .withInstitution(SOME_INSTITUTION)
+                .build();
+            databaseService.addUser(user);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private List<RoleDto> insertRoles() throws InvalidEntryInternalException, ConflictException,
+                                               InvalidInputException {
+        List<RoleDto> roles = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_ROLES; i++) {
+            RoleDto role = EntityUtils.createRole(SOME_ROLENAME + i);
+            databaseService.addRole(role);
+            roles.add(role);
+        }
+        return roles;
+    }
+}
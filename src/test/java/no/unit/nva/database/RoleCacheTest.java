@@ -0,0 +1,98 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.model.RoleDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RoleCacheTest {
+
+    public static final long TIME_TO_LIVE_SECONDS = 60;
+    public static final String SOME_ROLE_NAME = "someRole";
+    public static final String SOME_OTHER_ROLE_NAME = "someOtherRole";
+
+    private AtomicLong wallClock;
+    private RoleCache cache;
+    private RoleDto someRole;
+    private RoleDto someOtherRole;
+
+    /**
+     * Initializes a cache with a mocked clock.
+     *
+     * @throws InvalidEntryInternalException when the test roles are invalid.
+     */
+    @BeforeEach
+    public void init() throws InvalidEntryInternalException {
+        someRole = RoleDto.newBuilder().withName(SOME_ROLE_NAME).build();
+        someOtherRole = RoleDto.newBuilder().withName(SOME_OTHER_ROLE_NAME).build();
+        wallClock = new AtomicLong();
+        cache = new RoleCache(TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS, wallClock::get);
+    }
+
+    @Test
+    public void getRoleReturnsOnlyCachedRoles() {
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.empty())));
+
+        cache.put(someRole);
+
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.of(someRole))));
+        assertThat(cache.getRole(SOME_OTHER_ROLE_NAME), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void getRoleReturnsEmptyWhenCacheIsOlderThanTimeToLive() {
+        cache.put(someRole);
+        wallClock.addAndGet(TimeUnit.SECONDS.toMillis(TIME_TO_LIVE_SECONDS) - 1);
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.of(someRole))));
+
+        wallClock.incrementAndGet();
+
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void putAddsRoleToCacheThatReplacedExpiredCache() {
+        cache.put(someRole);
+        wallClock.addAndGet(TimeUnit.SECONDS.toMillis(TIME_TO_LIVE_SECONDS));
+
+        cache.put(someOtherRole);
+
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.empty())));
+        assertThat(cache.getRole(SOME_OTHER_ROLE_NAME), is(equalTo(Optional.of(someOtherRole))));
+    }
+
+    @Test
+    public void resetIfExpiredKeepsRolesUntilCacheIsOlderThanTimeToLive() {
+        cache.put(someRole);
+        wallClock.addAndGet(TimeUnit.SECONDS.toMillis(TIME_TO_LIVE_SECONDS) - 1);
+
+        cache.resetIfExpired();
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.of(someRole))));
+
+        wallClock.incrementAndGet();
+        cache.resetIfExpired();
+        wallClock.addAndGet(TimeUnit.SECONDS.toMillis(TIME_TO_LIVE_SECONDS) - 1);
+        cache.put(someOtherRole);
+
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.empty())));
+        assertThat(cache.getRole(SOME_OTHER_ROLE_NAME), is(equalTo(Optional.of(someOtherRole))));
+    }
+
+    @Test
+    public void invalidateIfRemovesOnlyMatchingRoles() {
+        cache.put(someRole);
+        cache.put(someOtherRole);
+
+        cache.invalidateIf(SOME_ROLE_NAME::equals);
+
+        assertThat(cache.getRole(SOME_ROLE_NAME), is(equalTo(Optional.empty())));
+        assertThat(cache.getRole(SOME_OTHER_ROLE_NAME), is(equalTo(Optional.of(someOtherRole))));
+    }
+}
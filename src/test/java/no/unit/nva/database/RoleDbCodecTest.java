@@ -0,0 +1,45 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.Map;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RoleDbCodecTest extends DatabaseAccessor {
+
+    public static final String SOME_ROLE = "someRole";
+
+    private final RoleDbCodec codec = new RoleDbCodec();
+    private DynamoDBMapper mapper;
+
+    @BeforeEach
+    public void init() {
+        mapper = DatabaseServiceWithTableNameOverride
+            .createMapperOverridingHardCodedTableName(initializeTestDatabase(), envWithTableName);
+    }
+
+    @Test
+    public void encodeReturnsTheItemWrittenByTheMapper() throws InvalidEntryInternalException {
+        RoleDb role = RoleDb.newBuilder().withName(SOME_ROLE).build();
+        mapper.save(role);
+
+        Map<String, AttributeValue> savedItem = localDynamo.getItem(USERS_AND_ROLES_TABLE, codec.key(role)).getItem();
+
+        assertThat(codec.encode(role), is(equalTo(savedItem)));
+        assertThat(codec.decode(savedItem), is(equalTo(role)));
+    }
+
+    @Test
+    public void mapperLoadsTheRoleEncodedByTheCodec() throws InvalidEntryInternalException {
+        RoleDb role = RoleDb.newBuilder().withName(SOME_ROLE).build();
+        localDynamo.putItem(USERS_AND_ROLES_TABLE, codec.encode(role));
+
+        assertThat(mapper.load(role), is(equalTo(role)));
+    }
+}
@@ -0,0 +1,91 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+    public static final String SOME_KEY = "someKey";
+    public static final String SOME_VALUE = "someValue";
+    public static final String SOME_ERROR = "someError";
+    public static final long TIMEOUT_SECONDS = 10;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void loadSharesFailureOfInFlightLoadWithWaitingCallerAndForgetsKey() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch failLoad = new CountDownLatch(1);
+        InvalidEntryInternalException failure = new InvalidEntryInternalException(SOME_ERROR);
+        CompletableFuture<Throwable> firstCaller = CompletableFuture.supplyAsync(() -> loadFailure(() -> {
+            loadStarted.countDown();
+            failLoad.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            throw failure;
+        }));
+        loadStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        AtomicReference<Throwable> secondCallerFailure = new AtomicReference<>();
+        Thread secondCaller = new Thread(() -> secondCallerFailure.set(loadFailure(() -> SOME_VALUE)));
+        secondCaller.start();
+        awaitWaiting(secondCaller);
+
+        failLoad.countDown();
+        secondCaller.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+        assertThat(firstCaller.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), is(sameInstance(failure)));
+        assertThat(secondCallerFailure.get(), is(sameInstance(failure)));
+        assertThat(singleFlight.inFlightCount(), is(equalTo(0)));
+        assertThat(singleFlight.load(SOME_KEY, () -> SOME_VALUE), is(equalTo(SOME_VALUE)));
+    }
+
+    @Test
+    public void loadRunsLoaderOfEverySequentialCall() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load(SOME_KEY, () -> SOME_VALUE + loads.incrementAndGet());
+        String secondValue = singleFlight.load(SOME_KEY, () -> SOME_VALUE + loads.incrementAndGet());
+
+        assertThat(secondValue, is(equalTo(SOME_VALUE + 2)));
+    }
+
+    @Test
+    public void loadDoesNotShareLoadsOfNullKey() {
+        RuntimeException failure = new IllegalStateException(SOME_ERROR);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> singleFlight.load(null, () -> {
+            throw failure;
+        }));
+
+        assertThat(exception, is(sameInstance(failure)));
+    }
+
+    private Throwable loadFailure(SingleFlight.Loader<String> loader) {
+        try {
+            singleFlight.load(SOME_KEY, loader);
+            return null;
+        } catch (InvalidEntryInternalException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void awaitWaiting(Thread caller) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        while (caller.getState() != Thread.State.WAITING) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Caller did not join the load in time");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
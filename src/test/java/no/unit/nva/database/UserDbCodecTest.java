@@ -0,0 +1,100 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.List;
+import java.util.Map;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UserDbCodecTest extends DatabaseAccessor {
+
+    public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_INSTITUTION = "someInstitution";
+    public static final String SOME_ROLE = "someRole";
+    public static final String SOME_OTHER_ROLE = "someOtherRole";
+
+    private final UserDbCodec codec = new UserDbCodec();
+    private DynamoDBMapper mapper;
+
+    @BeforeEach
+    public void init() {
+        mapper = DatabaseServiceWithTableNameOverride
+            .createMapperOverridingHardCodedTableName(initializeTestDatabase(), envWithTableName);
+    }
+
+    @Test
+    public void encodeReturnsTheItemWrittenByTheMapper() throws InvalidEntryInternalException {
+        UserDb user = createUser();
+        mapper.save(user);
+
+        assertThat(codec.encode(user), is(equalTo(readItem(user))));
+    }
+
+    @Test
+    public void decodeReturnsTheUserSavedByTheMapper() throws InvalidEntryInternalException {
+        UserDb user = createUser();
+        mapper.save(user);
+
+        UserDb decodedUser = codec.decode(readItem(user));
+
+        assertThat(decodedUser, is(equalTo(user)));
+        assertThat(decodedUser.getVersion(), is(equalTo(user.getVersion())));
+    }
+
+    @Test
+    public void mapperLoadsTheUserEncodedByTheCodec() throws InvalidEntryInternalException {
+        UserDb user = createUser();
+        localDynamo.putItem(USERS_AND_ROLES_TABLE, codec.encode(user));
+
+        assertThat(mapper.load(user), is(equalTo(user)));
+    }
+
+    @Test
+    public void encodeLeavesOutMissingInstitutionAndRoles() throws InvalidEntryInternalException {
+        UserDb user = UserDb.newBuilder().withUsername(SOME_USERNAME).build();
+
+        Map<String, AttributeValue> item = codec.encode(user);
+        UserDb decodedUser = codec.decode(item);
+
+        assertThat(item.containsKey(UserDbCodec.INSTITUTION_ATTRIBUTE), is(false));
+        assertThat(item.containsKey(UserDbCodec.ROLES_ATTRIBUTE), is(false));
+        assertThat(decodedUser, is(equalTo(user)));
+        assertThat(decodedUser.getRoles(), is(nullValue()));
+    }
+
+    @Test
+    public void decodeThrowsExceptionWhenItemHasNoPrimaryHashKey() throws InvalidEntryInternalException {
+        Map<String, AttributeValue> item = codec.encode(createUser());
+        item.remove(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY);
+
+        InvalidEntryInternalException exception = assertThrows(InvalidEntryInternalException.class,
+            () -> codec.decode(item));
+
+        assertThat(exception.getMessage(), containsString(RoleDbCodec.MISSING_PRIMARY_KEY_ERROR));
+    }
+
+    private Map<String, AttributeValue> readItem(UserDb user) {
+        return localDynamo.getItem(USERS_AND_ROLES_TABLE, codec.key(user)).getItem();
+    }
+
+    private static UserDb createUser() throws InvalidEntryInternalException {
+        return UserDb.newBuilder()
+            .withUsername(SOME_USERNAME)
+            .withInstitution(SOME_INSTITUTION)
+            .withRoles(List.of(createRole(SOME_ROLE), createRole(SOME_OTHER_ROLE)))
+            .build();
+    }
+
+    private static RoleDb createRole(String name) throws InvalidEntryInternalException {
+        return RoleDb.newBuilder().withName(name).build();
+    }
+}
@@ -15,6 +15,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,6 +44,46 @@ public class UserDbTest extends DatabaseAccessor {
         assertThat(sampleUser.getPrimaryHashKey(), is(equalTo(expectedHashKey)));
     }
 
+    @Test
+    public void builderShouldSetTheSameVersionForUsersWithTheSameContent() throws InvalidEntryInternalException {
+        UserDb someUser = UserDb.newBuilder().withUsername(SOME_USERNAME).withRoles(SAMPLE_ROLES).build();
+        UserDb sameUser = someUser.copy().build();
+        assertThat(sameUser.getVersion(), is(equalTo(someUser.getVersion())));
+    }
+
+    @Test
+    public void builderShouldSetAnotherVersionWhenTheContentOfTheUserChanges() throws InvalidEntryInternalException {
+        UserDb someUser = UserDb.newBuilder().withUsername(SOME_USERNAME).withRoles(SAMPLE_ROLES).build();
+        UserDb changedUser = someUser.copy().withInstitution(SOME_INSTITUTION).build();
+        assertThat(changedUser.getVersion(), is(not(equalTo(someUser.getVersion()))));
+    }
+
+    @Test
+    public void builderShouldSetTheSameVersionForUsersWithoutRolesAndWithEmptyRoles()
+        throws InvalidEntryInternalException {
+        UserDb userWithoutRoles = UserDb.newBuilder().withUsername(SOME_USERNAME).build();
+        UserDb userWithEmptyRoles = userWithoutRoles.copy().withRoles(Collections.emptyList()).build();
+        assertThat(userWithEmptyRoles.getVersion(), is(equalTo(userWithoutRoles.getVersion())));
+    }
+
+    @Test
+    public void builderShouldSetAnotherVersionWhenRoleNamesContainTheFieldDelimiter()
+        throws InvalidEntryInternalException {
+        UserDb userWithOneRole = UserDb.newBuilder().withUsername(SOME_USERNAME)
+            .withRoles(List.of(newRole("a" + UserDb.FIELD_DELIMITER + "b")))
+            .build();
+        UserDb userWithTwoRoles = userWithOneRole.copy().withRoles(List.of(newRole("a"), newRole("b"))).build();
+        assertThat(userWithTwoRoles.getVersion(), is(not(equalTo(userWithOneRole.getVersion()))));
+    }
+
+    @Test
+    public void builderShouldSetAnotherVersionForMissingInstitutionAndInstitutionNamedNull()
+        throws InvalidEntryInternalException {
+        UserDb userWithoutInstitution = UserDb.newBuilder().withUsername(SOME_USERNAME).build();
+        UserDb userWithInstitutionNamedNull = userWithoutInstitution.copy().withInstitution("null").build();
+        assertThat(userWithInstitutionNamedNull.getVersion(), is(not(equalTo(userWithoutInstitution.getVersion()))));
+    }
+
     private static List<RoleDb> createSampleRoles() {
         return Stream.of("Role1", "Role2")
             .map(attempt(UserDbTest::newRole))
@@ -0,0 +1,26 @@
+package no.unit.nva.exceptions;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
+
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.Test;
+
+public class PreconditionFailedExceptionTest {
+
+    public static final String SOME_MESSAGE = "Some message";
+
+    @Test
+    public void preconditionFailedExceptionReturnsPreconditionFailedStatus() {
+        PreconditionFailedException exception = new PreconditionFailedException(SOME_MESSAGE);
+        assertThat(exception.statusCode(), is(equalTo(HttpStatus.SC_PRECONDITION_FAILED)));
+    }
+
+    @Test
+    public void preconditionFailedExceptionMessageContainsProvidedMessage() {
+        PreconditionFailedException exception = new PreconditionFailedException(SOME_MESSAGE);
+        assertThat(exception.getMessage(), containsString(SOME_MESSAGE));
+    }
+}
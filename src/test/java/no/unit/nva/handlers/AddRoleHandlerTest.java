@@ -1,39 +1,36 @@
 package no.unit.nva.handlers;
 
 import static nva.commons.utils.JsonUtils.objectMapper;
-import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
-import no.unit.nva.exceptions.DataSyncException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.model.RoleDto;
 import no.unit.nva.testutils.HandlerRequestBuilder;
 import nva.commons.exceptions.InvalidOrMissingTypeException;
 import nva.commons.handlers.GatewayResponse;
-import nva.commons.utils.log.LogUtils;
-import nva.commons.utils.log.TestAppender;
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.function.Executable;
 import org.zalando.problem.Problem;
 
 public class AddRoleHandlerTest extends HandlerTest {
 
     public static final String SOME_ROLE_NAME = "someRoleName";
-    private RoleDto sampleRole;
     private AddRoleHandler addRoleHandler;
     private Context context;
 
@@ -48,7 +45,6 @@ public class AddRoleHandlerTest extends HandlerTest {
 
         DatabaseService service = new DatabaseServiceImpl(initializeTestDatabase(), envWithTableName);
         addRoleHandler = new AddRoleHandler(mockEnvironment(), service);
-        sampleRole = sampleRole();
     }
 
     @Test
@@ -79,28 +75,28 @@ public class AddRoleHandlerTest extends HandlerTest {
     }
 
     @Test
-    public void handlerRequestReturnsTheGeneratedObjectAfterWaitingForSyncingToComplete()
+    public void handlerRequestReturnsTheGeneratedObjectWithoutReadingItFromTheDatabase()
         throws InvalidEntryInternalException, IOException {
         RoleDto actualRole = sampleRole();
-        DatabaseService service = databaseServiceWithSyncDelay();
+        List<RoleDto> reads = new ArrayList<>();
+        DatabaseService service = databaseServiceRecordingReads(reads);
         addRoleHandler = new AddRoleHandler(mockEnvironment(), service);
 
         GatewayResponse<RoleDto> response = sendRequest(actualRole);
         RoleDto savedRole = response.getBodyObject(RoleDto.class);
         assertThat(savedRole, is(equalTo(actualRole)));
+        assertThat(reads, is(empty()));
     }
 
     @Test
     public void handleRequestReturnsInternalServerErrorWhenDatabaseFailsToSaveTheData()
         throws InvalidEntryInternalException, IOException {
         RoleDto actualRole = sampleRole();
-        DatabaseService service = databaseServiceReturningEmpty();
+        DatabaseService service = databaseServiceFailingToSave();
         addRoleHandler = new AddRoleHandler(mockEnvironment(), service);
 
         GatewayResponse<Problem> response = sendRequest(actualRole);
         assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_INTERNAL_SERVER_ERROR)));
-        Problem problem = response.getBodyObject(Problem.class);
-        assertThat(problem.getDetail(), containsString(AddRoleHandler.ERROR_FETCHING_SAVED_ROLE));
     }
 
     @Test
@@ -109,32 +105,6 @@ public class AddRoleHandlerTest extends HandlerTest {
         assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
     }
 
-    @Test
-    public void addRoleHandlerThrowsDataSyncExceptionWhenDatabaseServiceCannotFetchSavedRole()
-        throws InvalidEntryInternalException {
-
-        RoleDto inputRole = sampleRole();
-        AddRoleHandler addRoleHandler = addRoleHandlerThrowsUnexpectedException();
-        Executable action = () -> addRoleHandler.processInput(inputRole, null, null);
-
-        DataSyncException exception = assertThrows(DataSyncException.class, action);
-        assertThat(exception.getMessage(), containsString(AddRoleHandler.ERROR_FETCHING_SAVED_ROLE));
-    }
-
-    @Test
-    public void errorMessageIsLoggedWhenAddRoleHandlerThrowsDatasyncException()
-        throws IOException {
-        TestAppender testingAppender = LogUtils.getTestingAppender(AddRoleHandler.class);
-
-        AddRoleHandler addRoleHandler = addRoleHandlerThrowsUnexpectedException();
-        InputStream inputRequest = new HandlerRequestBuilder<>(objectMapper).withBody(sampleRole).build();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-        addRoleHandler.handleRequest(inputRequest, outputStream, context);
-
-        assertThat(testingAppender.getMessages(), containsString(AddRoleHandler.ERROR_FETCHING_SAVED_ROLE));
-    }
-
     @Test
     public void handleRequestReturnsBadRequestWhenInputRoleHasNoType()
         throws InvalidEntryInternalException, IOException {
@@ -160,37 +130,28 @@ public class AddRoleHandlerTest extends HandlerTest {
         return RoleDto.newBuilder().withName(SOME_ROLE_NAME).build();
     }
 
-    private AddRoleHandler addRoleHandlerThrowsUnexpectedException() {
-        DatabaseService databaseServiceThrowingException = new DatabaseServiceImpl(localDynamo, envWithTableName) {
-            @Override
-            public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) {
-                return Optional.empty();
-            }
-        };
-
-        return new AddRoleHandler(mockEnvironment(), databaseServiceThrowingException);
-    }
-
-    private DatabaseServiceImpl databaseServiceWithSyncDelay() {
+    private DatabaseServiceImpl databaseServiceRecordingReads(List<RoleDto> reads) {
         return new DatabaseServiceImpl(localDynamo, envWithTableName) {
-            private int counter = 0;
-
             @Override
             public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) throws InvalidEntryInternalException {
-                if (counter == 0) {
-                    counter++;
-                    return Optional.empty();
-                }
+                reads.add(queryObject);
                 return super.getRoleAsOptional(queryObject);
             }
+
+            @Override
+            public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject, ConsistentReads consistency)
+                throws InvalidEntryInternalException {
+                reads.add(queryObject);
+                return super.getRoleAsOptional(queryObject, consistency);
+            }
         };
     }
 
-    private DatabaseServiceImpl databaseServiceReturningEmpty() {
+    private DatabaseServiceImpl databaseServiceFailingToSave() {
         return new DatabaseServiceImpl(localDynamo, envWithTableName) {
             @Override
-            public Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) {
-                return Optional.empty();
+            public RoleDto addRole(RoleDto roleDto) {
+                throw new IllegalStateException(SOME_ROLE_NAME);
             }
         };
     }
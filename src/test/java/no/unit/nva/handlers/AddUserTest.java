@@ -1,6 +1,5 @@
 package no.unit.nva.handlers;
 
-import static no.unit.nva.handlers.AddUserHandler.SYNC_ERROR_MESSAGE;
 import static no.unit.nva.utils.EntityUtils.createRequestWithUserWithoutUsername;
 import static no.unit.nva.utils.EntityUtils.createUserWithRoleWithoutInstitution;
 import static no.unit.nva.utils.EntityUtils.createUserWithRolesAndInstitution;
@@ -8,14 +7,19 @@ import static no.unit.nva.utils.EntityUtils.createUserWithoutRoles;
 import static no.unit.nva.utils.EntityUtils.createUserWithoutUsername;
 import static nva.commons.utils.JsonUtils.objectMapper;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -23,11 +27,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Optional;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
 import no.unit.nva.exceptions.ConflictException;
-import no.unit.nva.exceptions.DataSyncException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import no.unit.nva.model.UserDto;
@@ -129,17 +131,21 @@ public class AddUserTest extends HandlerTest {
         assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
     }
 
-    @DisplayName("processInput() throws DataSyncException when database service cannot return saved item ")
+    @DisplayName("processInput() returns the added user without reading it from the database")
     @Test
-    public void processInputThrowsDataSyncExceptionWhenDatabaseServiceCannotReturnSavedItem()
-        throws ApiGatewayException {
-        DatabaseService databaseService = databaseServiceReturnsAlwaysEmptyUser();
-
+    public void processInputReturnsAddedUserWithoutReadingItFromDatabase() throws ApiGatewayException {
         UserDto sampleUser = createUserWithRolesAndInstitution();
+        DatabaseService databaseService = mock(DatabaseService.class);
+        when(databaseService.addUser(sampleUser)).thenReturn(sampleUser);
+
         AddUserHandler addUserHandler = new AddUserHandler(mockEnvironment(), databaseService);
-        Executable action = () -> addUserHandler.processInput(sampleUser, requestInfo, context);
-        DataSyncException exception = assertThrows(DataSyncException.class, action);
-        assertThat(exception.getMessage(), containsString(SYNC_ERROR_MESSAGE));
+        UserDto savedUser = addUserHandler.processInput(sampleUser, requestInfo, context);
+
+        assertThat(savedUser, is(equalTo(sampleUser)));
+        verify(databaseService, times(1)).addUser(sampleUser);
+        verify(databaseService, never()).getUser(any(UserDto.class));
+        verify(databaseService, never()).getUserAsOptional(any(UserDto.class));
+        verify(databaseService, never()).getUserAsOptional(any(UserDto.class), any(ConsistentReads.class));
     }
 
     @DisplayName("handleRequest() returns BadRequest when input object has no type")
@@ -168,15 +174,6 @@ public class AddUserTest extends HandlerTest {
         return outputStream;
     }
 
-    private DatabaseService databaseServiceReturnsAlwaysEmptyUser() {
-        return new DatabaseServiceImpl(localDynamo, envWithTableName) {
-            @Override
-            public Optional<UserDto> getUserAsOptional(UserDto queryObject) {
-                return Optional.empty();
-            }
-        };
-    }
-
     private GatewayResponse<Problem> parseResponseStream(ByteArrayOutputStream outputStream)
         throws IOException {
         String outputString = outputStream.toString();
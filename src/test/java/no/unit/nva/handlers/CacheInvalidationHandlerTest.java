@@ -0,0 +1,103 @@
+package no.unit.nva.handlers;
+
+import static nva.commons.utils.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import no.unit.nva.database.CacheInvalidation;
+import no.unit.nva.database.CacheInvalidationLog;
+import no.unit.nva.database.InstitutionRosterVersions;
+import no.unit.nva.database.RoleDb;
+import no.unit.nva.database.UserDb;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CacheInvalidationHandlerTest {
+
+    public static final String STREAM_EVENT_RESOURCE = "dynamodb_stream_event.json";
+    public static final String CHANGED_USERNAME = "someUser@unit.no";
+    public static final String CHANGED_ROLE_NAME = "Creator";
+    public static final String OLD_INSTITUTION = "https://www.example.org/oldInstitution";
+    public static final String NEW_INSTITUTION = "https://www.example.org/newInstitution";
+    public static final String EMPTY_EVENT = "{\"Records\":[]}";
+
+    private CacheInvalidationLog invalidationLog;
+    private InstitutionRosterVersions rosterVersions;
+    private CacheInvalidationHandler handler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        invalidationLog = mock(CacheInvalidationLog.class);
+        rosterVersions = mock(InstitutionRosterVersions.class);
+        handler = new CacheInvalidationHandler(invalidationLog, rosterVersions);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void handleRequestRecordsChangedUsersAndRolesOfStreamEvent() throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(STREAM_EVENT_RESOURCE)) {
+            handler.handleRequest(input, new ByteArrayOutputStream(), context);
+        }
+
+        verify(invalidationLog).recordChanges(List.of(
+            new CacheInvalidation(UserDb.TYPE, CHANGED_USERNAME),
+            new CacheInvalidation(RoleDb.TYPE, CHANGED_ROLE_NAME)));
+    }
+
+    @Test
+    public void parseInvalidationsIgnoresEntriesThatAreNeitherUsersNorRoles() throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(STREAM_EVENT_RESOURCE)) {
+            JsonNode streamEvent = objectMapper.readTree(input);
+            List<CacheInvalidation> invalidations = CacheInvalidationHandler.parseInvalidations(streamEvent);
+
+            assertThat(invalidations, contains(
+                new CacheInvalidation(UserDb.TYPE, CHANGED_USERNAME),
+                new CacheInvalidation(RoleDb.TYPE, CHANGED_ROLE_NAME)));
+        }
+    }
+
+    @Test
+    public void handleRequestIncrementsRosterVersionsOfOldAndNewInstitutionsOfChangedUsers() throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(STREAM_EVENT_RESOURCE)) {
+            handler.handleRequest(input, new ByteArrayOutputStream(), context);
+        }
+
+        verify(rosterVersions).increment(List.of(OLD_INSTITUTION, NEW_INSTITUTION));
+    }
+
+    @Test
+    public void handleRequestRecordsInvalidationsWhenRosterVersionIncrementFails() throws IOException {
+        doThrow(new RuntimeException()).when(rosterVersions).increment(List.of(OLD_INSTITUTION, NEW_INSTITUTION));
+
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(STREAM_EVENT_RESOURCE)) {
+            handler.handleRequest(input, new ByteArrayOutputStream(), context);
+        }
+
+        verify(invalidationLog).recordChanges(List.of(
+            new CacheInvalidation(UserDb.TYPE, CHANGED_USERNAME),
+            new CacheInvalidation(RoleDb.TYPE, CHANGED_ROLE_NAME)));
+    }
+
+    @Test
+    public void handleRequestRecordsNothingWhenEventHasNoRecords() throws IOException {
+        InputStream input = new ByteArrayInputStream(EMPTY_EVENT.getBytes(StandardCharsets.UTF_8));
+
+        handler.handleRequest(input, new ByteArrayOutputStream(), context);
+
+        verify(invalidationLog).recordChanges(List.of());
+        assertThat(CacheInvalidationHandler.parseInvalidations(objectMapper.createObjectNode()), empty());
+    }
+}
@@ -14,6 +14,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
 import no.unit.nva.database.DatabaseAccessor;
 import no.unit.nva.database.DatabaseServiceImpl;
 import no.unit.nva.database.interfaces.WithEnvironment;
@@ -25,10 +27,12 @@ import no.unit.nva.exceptions.NotFoundException;
 import no.unit.nva.model.RoleDto;
 import no.unit.nva.model.TypedObjectsDetails;
 import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.utils.ContentDigests;
 import nva.commons.exceptions.ApiGatewayException;
 import nva.commons.handlers.GatewayResponse;
 import nva.commons.handlers.RequestInfo;
 import nva.commons.utils.JsonUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.eclipse.jetty.http.HttpMethods;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +44,7 @@ public class GetRoleHandlerTest extends DatabaseAccessor implements WithEnvironm
 
     public static final String THE_ROLE = "theRole";
     public static final String BLANK_STR = " ";
+    public static final String STALE_ENTITY_TAG = "\"staleVersion\"";
     private DatabaseServiceImpl databaseService;
     private GetRoleHandler getRoleHandler;
     private Context context;
@@ -76,6 +81,38 @@ public class GetRoleHandlerTest extends DatabaseAccessor implements WithEnvironm
         assertThat(type, is(equalTo(RoleDto.TYPE)));
     }
 
+    @DisplayName("handleRequest returns Not Modified when If-None-Match contains the ETag of the role")
+    @Test
+    public void handleRequestReturnsNotModifiedWhenIfNoneMatchContainsCurrentEntityTag()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        addSampleRoleToDatabase();
+        String entityTag = GatewayResponse.fromOutputStream(sendGetRoleRequest()).getHeaders().get(HttpHeaders.ETAG);
+
+        ByteArrayOutputStream outputStream = sendGetRoleRequest(Map.of(HttpHeaders.IF_NONE_MATCH, entityTag));
+
+        GatewayResponse<ObjectNode> response = GatewayResponse.fromOutputStream(outputStream);
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_NOT_MODIFIED)));
+        assertThat(response.getHeaders().get(HttpHeaders.ETAG), is(equalTo(entityTag)));
+        assertThat(response.getBody(), is(equalTo(ConditionalEntity.EMPTY_BODY)));
+    }
+
+    @DisplayName("handleRequest returns the role when If-None-Match does not contain the ETag of the role")
+    @Test
+    public void handleRequestReturnsRoleWhenIfNoneMatchIsStale()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        addSampleRoleToDatabase();
+
+        ByteArrayOutputStream outputStream = sendGetRoleRequest(Map.of(HttpHeaders.IF_NONE_MATCH, STALE_ENTITY_TAG));
+
+        GatewayResponse<RoleDto> response = GatewayResponse.fromOutputStream(outputStream);
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(HttpHeaders.ETAG),
+            is(equalTo(EntityTags.format(ContentDigests.sha256(THE_ROLE)))));
+        assertThat(response.getHeaders().get(HttpHeaders.CACHE_CONTROL),
+            is(equalTo(ConditionalEntity.REVALIDATE_PRIVATE_COPY)));
+        assertThat(response.getBodyObject(RoleDto.class).getRoleName(), is(equalTo(THE_ROLE)));
+    }
+
     private ObjectNode extractBodyFromResponseAsJsonObject(ByteArrayOutputStream outputStream)
         throws com.fasterxml.jackson.core.JsonProcessingException {
         GatewayResponse<ObjectNode> response = GatewayResponse.fromOutputStream(outputStream);
@@ -89,7 +126,7 @@ public class GetRoleHandlerTest extends DatabaseAccessor implements WithEnvironm
         throws ApiGatewayException {
         addSampleRoleToDatabase();
         RequestInfo requestInfo = queryWithRoleName(THE_ROLE);
-        RoleDto roleDto = getRoleHandler.processInput(null, requestInfo, context);
+        RoleDto roleDto = getRoleHandler.processInput(null, requestInfo, context).getEntity();
         assertThat(roleDto.getRoleName(), is(equalTo(THE_ROLE)));
     }
 
@@ -121,9 +158,14 @@ public class GetRoleHandlerTest extends DatabaseAccessor implements WithEnvironm
     }
 
     private ByteArrayOutputStream sendGetRoleRequest() throws IOException {
+        return sendGetRoleRequest(Collections.emptyMap());
+    }
+
+    private ByteArrayOutputStream sendGetRoleRequest(Map<String, String> headers) throws IOException {
         RequestInfo requestInfo = queryWithRoleName(THE_ROLE);
         InputStream requestStream = new HandlerRequestBuilder<>(JsonUtils.objectMapper)
             .withPathParameters(requestInfo.getPathParameters())
+            .withHeaders(headers)
             .withHttpMethod(HttpMethods.GET)
             .build();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
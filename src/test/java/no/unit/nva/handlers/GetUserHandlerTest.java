@@ -14,6 +14,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.Map;
 import no.unit.nva.exceptions.BadRequestException;
 import no.unit.nva.exceptions.ConflictException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
@@ -26,6 +27,7 @@ import nva.commons.exceptions.ApiGatewayException;
 import nva.commons.handlers.GatewayResponse;
 import nva.commons.handlers.RequestInfo;
 import nva.commons.utils.JsonUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,6 +37,7 @@ import org.junit.jupiter.api.function.Executable;
 class GetUserHandlerTest extends HandlerTest {
 
     private static final String BLANK_STRING = " ";
+    private static final String STALE_ENTITY_TAG = "\"staleVersion\"";
 
     private RequestInfo requestInfo;
     private Context context;
@@ -63,10 +66,49 @@ class GetUserHandlerTest extends HandlerTest {
         assertThat(type, is(equalTo(UserDto.TYPE)));
     }
 
+    @DisplayName("handleRequest returns Not Modified when If-None-Match contains the ETag of the user")
+    @Test
+    public void handleRequestReturnsNotModifiedWhenIfNoneMatchContainsCurrentEntityTag()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        UserDto user = insertSampleUserToDatabase();
+        String entityTag = EntityTags.format(user.toUserDb().getVersion());
+
+        ByteArrayOutputStream outputStream = sendGetUserRequestToHandler(
+            Map.of(HttpHeaders.IF_NONE_MATCH, STALE_ENTITY_TAG + ", " + entityTag));
+
+        GatewayResponse<ObjectNode> response = GatewayResponse.fromOutputStream(outputStream);
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_NOT_MODIFIED)));
+        assertThat(response.getHeaders().get(HttpHeaders.ETAG), is(equalTo(entityTag)));
+        assertThat(response.getHeaders().get(HttpHeaders.CACHE_CONTROL),
+            is(equalTo(ConditionalEntity.REVALIDATE_PRIVATE_COPY)));
+        assertThat(response.getBody(), is(equalTo(ConditionalEntity.EMPTY_BODY)));
+    }
+
+    @DisplayName("handleRequest returns the user and its ETag when If-None-Match does not match")
+    @Test
+    public void handleRequestReturnsUserWithEntityTagWhenIfNoneMatchIsStale()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        UserDto user = insertSampleUserToDatabase();
+
+        ByteArrayOutputStream outputStream = sendGetUserRequestToHandler(
+            Map.of(HttpHeaders.IF_NONE_MATCH, STALE_ENTITY_TAG));
+
+        GatewayResponse<UserDto> response = GatewayResponse.fromOutputStream(outputStream);
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(HttpHeaders.ETAG),
+            is(equalTo(EntityTags.format(user.toUserDb().getVersion()))));
+        assertThat(response.getBodyObject(UserDto.class), is(equalTo(user)));
+    }
+
     private ByteArrayOutputStream sendGetUserRequestToHandler() throws IOException {
+        return sendGetUserRequestToHandler(Collections.emptyMap());
+    }
+
+    private ByteArrayOutputStream sendGetUserRequestToHandler(Map<String, String> headers) throws IOException {
         requestInfo = createRequestInfoForGetUser(DEFAULT_USERNAME);
         InputStream inputStream = new HandlerRequestBuilder<Void>(JsonUtils.objectMapper)
             .withPathParameters(requestInfo.getPathParameters())
+            .withHeaders(headers)
             .build();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         getUserHandler.handleRequest(inputStream, outputStream, context);
@@ -84,7 +126,7 @@ class GetUserHandlerTest extends HandlerTest {
     void processInputReturnsUserDtoWhenPathParameterContainsTheUsernameOfExistingUser() throws ApiGatewayException {
         requestInfo = createRequestInfoForGetUser(DEFAULT_USERNAME);
         UserDto expected = insertSampleUserToDatabase();
-        UserDto actual = getUserHandler.processInput(null, requestInfo, context);
+        UserDto actual = getUserHandler.processInput(null, requestInfo, context).getEntity();
         assertThat(actual, is(equalTo(expected)));
     }
 
@@ -95,7 +137,7 @@ class GetUserHandlerTest extends HandlerTest {
         String encodedUserName = encodeString(DEFAULT_USERNAME);
         requestInfo = createRequestInfoForGetUser(encodedUserName);
         UserDto expected = insertSampleUserToDatabase();
-        UserDto actual = getUserHandler.processInput(null, requestInfo, context);
+        UserDto actual = getUserHandler.processInput(null, requestInfo, context).getEntity();
         assertThat(actual, is(equalTo(expected)));
     }
 
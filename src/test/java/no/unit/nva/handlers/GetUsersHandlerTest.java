@@ -0,0 +1,105 @@
+package no.unit.nva.handlers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import no.unit.nva.exceptions.BadRequestException;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserList;
+import nva.commons.exceptions.ApiGatewayException;
+import nva.commons.handlers.RequestInfo;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+class GetUsersHandlerTest extends HandlerTest {
+
+    private static final String SOME_OTHER_USERNAME = "someOtherUsername@inst";
+    private static final String NON_EXISTING_USERNAME = "nonExistingUsername@inst";
+    private static final String BLANK_STRING = " ";
+
+    private Context context;
+    private GetUsersHandler getUsersHandler;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        getUsersHandler = new GetUsersHandler(envWithTableName, databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    void getSuccessStatusCodeReturnsOK() {
+        Integer actual = getUsersHandler.getSuccessStatusCode(null, null);
+        assertThat(actual, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @DisplayName("processInput() returns the existing users in the order they were requested")
+    @Test
+    void processInputReturnsExistingUsersInRequestedOrder() throws ApiGatewayException {
+        UserDto someUser = insertSampleUserToDatabase(DEFAULT_USERNAME, DEFAULT_INSTITUTION);
+        UserDto someOtherUser = insertSampleUserToDatabase(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION);
+
+        String usernames = String.join(GetUsersHandler.USERNAMES_DELIMITER,
+            SOME_OTHER_USERNAME, NON_EXISTING_USERNAME, DEFAULT_USERNAME, SOME_OTHER_USERNAME);
+        UserList actual = getUsersHandler.processInput(null, createRequestInfo(usernames), context);
+
+        assertThat(actual, contains(someOtherUser, someUser));
+    }
+
+    @DisplayName("processInput() throws BadRequestException when query parameter is blank")
+    @Test
+    void processInputThrowsBadRequestExceptionWhenQueryParameterIsBlank() {
+        RequestInfo requestInfo = createRequestInfo(BLANK_STRING);
+        Executable action = () -> getUsersHandler.processInput(null, requestInfo, context);
+        assertThrows(BadRequestException.class, action);
+    }
+
+    @DisplayName("processInput() throws BadRequestException when query parameter is missing")
+    @Test
+    void processInputThrowsBadRequestExceptionWhenQueryParameterIsMissing() {
+        RequestInfo requestInfo = new RequestInfo();
+        Executable action = () -> getUsersHandler.processInput(null, requestInfo, context);
+        assertThrows(BadRequestException.class, action);
+    }
+
+    @DisplayName("processInput() throws BadRequestException when more than the maximum usernames are requested")
+    @Test
+    void processInputThrowsBadRequestExceptionWhenTooManyUsernamesAreRequested() {
+        String usernames = IntStream.rangeClosed(0, GetUsersHandler.MAX_USERNAMES)
+            .mapToObj(index -> "user" + index + "@inst")
+            .collect(Collectors.joining(GetUsersHandler.USERNAMES_DELIMITER));
+        RequestInfo requestInfo = createRequestInfo(usernames);
+        Executable action = () -> getUsersHandler.processInput(null, requestInfo, context);
+        BadRequestException exception = assertThrows(BadRequestException.class, action);
+        assertThat(exception.getMessage(), is(equalTo(GetUsersHandler.TOO_MANY_USERNAMES_ERROR)));
+    }
+
+    @DisplayName("processInput() accepts the maximum usernames when duplicates are requested more than once")
+    @Test
+    void processInputAcceptsMaximumUsernamesWithDuplicates() throws ApiGatewayException {
+        UserDto someUser = insertSampleUserToDatabase(DEFAULT_USERNAME, DEFAULT_INSTITUTION);
+        String usernames = IntStream.range(0, GetUsersHandler.MAX_USERNAMES + 1)
+            .mapToObj(index -> DEFAULT_USERNAME)
+            .collect(Collectors.joining(GetUsersHandler.USERNAMES_DELIMITER));
+        UserList actual = getUsersHandler.processInput(null, createRequestInfo(usernames), context);
+        assertThat(actual, contains(someUser));
+    }
+
+    private RequestInfo createRequestInfo(String usernames) {
+        RequestInfo requestInfo = new RequestInfo();
+        requestInfo.setQueryParameters(
+            Collections.singletonMap(GetUsersHandler.USERNAMES_QUERY_PARAMETER, usernames));
+        return requestInfo;
+    }
+}
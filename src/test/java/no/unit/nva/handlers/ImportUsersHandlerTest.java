@@ -0,0 +1,101 @@
+package no.unit.nva.handlers;
+
+import static nva.commons.utils.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.S3Object;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import no.unit.nva.exceptions.ConflictException;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.InvalidInputException;
+import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserImportReport;
+import no.unit.nva.model.UserImportRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class ImportUsersHandlerTest extends HandlerTest {
+
+    public static final String SOME_BUCKET = "someBucket";
+    public static final String SOME_KEY = "imports/users.csv";
+    public static final String SOME_OTHER_INSTITUTION = "SomeOtherInstitution";
+
+    private ImportUsersHandler importUsersHandler;
+    private AmazonS3 s3Client;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        s3Client = mock(AmazonS3.class);
+        importUsersHandler = new ImportUsersHandler(databaseService, s3Client);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void handleRequestImportsUsersOfTheS3ObjectAndWritesReportToOutput()
+        throws IOException, InvalidEntryInternalException, NotFoundException {
+        String csv = UserImporter.CSV_HEADER + "\n"
+            + DEFAULT_USERNAME + "," + DEFAULT_INSTITUTION + "," + DEFAULT_ROLE + "\n";
+        when(s3Client.getObject(SOME_BUCKET, SOME_KEY)).thenReturn(s3Object(csv));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        importUsersHandler.handleRequest(toInputStream(new UserImportRequest(SOME_BUCKET, SOME_KEY).toJsonString()),
+            output, context);
+
+        UserImportReport report = objectMapper.readValue(output.toString(StandardCharsets.UTF_8),
+            UserImportReport.class);
+        assertThat(report.getAccepted(), is(equalTo(1L)));
+        assertThat(report.getRejected(), is(equalTo(0L)));
+
+        UserDto expectedUser = createSampleUser(DEFAULT_USERNAME, DEFAULT_INSTITUTION);
+        assertThat(databaseService.getUser(expectedUser), is(equalTo(expectedUser)));
+    }
+
+    @Test
+    public void handleRequestReplacesExistingUsersWhenRequestSetsOverwrite()
+        throws IOException, InvalidEntryInternalException, NotFoundException, ConflictException, InvalidInputException {
+        insertSampleUserToDatabase(DEFAULT_USERNAME, DEFAULT_INSTITUTION);
+        String csv = UserImporter.CSV_HEADER + "\n" + DEFAULT_USERNAME + "," + SOME_OTHER_INSTITUTION + ","
+            + DEFAULT_ROLE + "\n";
+        when(s3Client.getObject(SOME_BUCKET, SOME_KEY)).thenReturn(s3Object(csv));
+        UserImportRequest request = new UserImportRequest(SOME_BUCKET, SOME_KEY);
+        request.setOverwrite(true);
+
+        importUsersHandler.handleRequest(toInputStream(request.toJsonString()), new ByteArrayOutputStream(), context);
+
+        UserDto expectedUser = createSampleUser(DEFAULT_USERNAME, SOME_OTHER_INSTITUTION);
+        assertThat(databaseService.getUser(expectedUser), is(equalTo(expectedUser)));
+    }
+
+    @Test
+    public void handleRequestThrowsExceptionWhenRequestDoesNotNameAnS3Object() {
+        InputStream input = toInputStream(new UserImportRequest(SOME_BUCKET, null).toJsonString());
+        Executable action = () -> importUsersHandler.handleRequest(input, new ByteArrayOutputStream(), context);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, action);
+        assertThat(exception.getMessage(), is(equalTo(ImportUsersHandler.INVALID_IMPORT_REQUEST_ERROR)));
+    }
+
+    private static S3Object s3Object(String content) {
+        S3Object s3Object = new S3Object();
+        s3Object.setObjectContent(toInputStream(content));
+        return s3Object;
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,11 +1,15 @@
 package no.unit.nva.handlers;
 
+import static java.util.Objects.nonNull;
+import static no.unit.nva.handlers.ListByInstitutionHandler.CURSOR_QUERY_PARAMETER;
 import static no.unit.nva.handlers.ListByInstitutionHandler.INSTITUTION_ID_PATH_PARAMETER;
+import static no.unit.nva.handlers.ListByInstitutionHandler.LIMIT_QUERY_PARAMETER;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -21,12 +25,17 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import no.unit.nva.database.PaginationCursorCodec;
+import no.unit.nva.exceptions.BadRequestException;
 import no.unit.nva.exceptions.ConflictException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
 import no.unit.nva.model.UserDto;
 import no.unit.nva.model.UserList;
+import no.unit.nva.model.UserListPage;
+import no.unit.nva.model.UsernameList;
 import no.unit.nva.testutils.HandlerRequestBuilder;
+import nva.commons.exceptions.ApiGatewayException;
 import nva.commons.handlers.GatewayResponse;
 import nva.commons.handlers.RequestInfo;
 import nva.commons.utils.JsonUtils;
@@ -34,11 +43,16 @@ import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class ListByInstitutionHandlerTest extends HandlerTest {
 
     public static final String SOME_OTHER_USERNAME = "SomeOtherUsername";
     public static final String SOME_OTHER_INSTITUTION = "SomeOtherInstitution";
+    public static final String THIRD_USERNAME = "ThirdUsername";
+    public static final String SINGLE_USER_PER_PAGE = "1";
+    public static final String MODIFIED_CURSOR_PREFIX = "A";
     private ListByInstitutionHandler listByInstitutionHandler;
     private Context context;
 
@@ -116,6 +130,97 @@ class ListByInstitutionHandlerTest extends HandlerTest {
         assertThat(exception.getMessage(), containsString(ListByInstitutionHandler.MISSING_PATH_PARAMETER_ERROR));
     }
 
+    @Test
+    public void processInputReturnsPagesContainingAllUsersOfInstitutionWhenLimitIsGiven()
+        throws ApiGatewayException {
+        UserList expectedUsers = insertTwoUsersOfSameInstitution();
+        insertSampleUserToDatabase(THIRD_USERNAME, SOME_OTHER_INSTITUTION);
+
+        List<UserDto> actualUsers = new ArrayList<>();
+        UserListPage page = requestPage(Map.of(LIMIT_QUERY_PARAMETER, SINGLE_USER_PER_PAGE));
+        actualUsers.addAll(page.getUsers());
+        while (nonNull(page.getNextCursor())) {
+            assertThat(page.getUsers().size(), is(lessThanOrEqualTo(1)));
+            page = requestPage(Map.of(LIMIT_QUERY_PARAMETER, SINGLE_USER_PER_PAGE,
+                CURSOR_QUERY_PARAMETER, page.getNextCursor()));
+            actualUsers.addAll(page.getUsers());
+        }
+
+        assertThatListsAreEquivalent(expectedUsers, UserList.fromList(actualUsers));
+    }
+
+    @Test
+    public void processInputThrowsInvalidInputExceptionWhenCursorHasBeenModified() throws ApiGatewayException {
+        insertTwoUsersOfSameInstitution();
+        UserListPage firstPage = requestPage(Map.of(LIMIT_QUERY_PARAMETER, SINGLE_USER_PER_PAGE));
+        String modifiedCursor = MODIFIED_CURSOR_PREFIX + firstPage.getNextCursor();
+
+        RequestInfo requestInfo = createPaginatedRequestInfo(DEFAULT_INSTITUTION,
+            Map.of(CURSOR_QUERY_PARAMETER, modifiedCursor));
+        Executable action = () -> listByInstitutionHandler.processInput(null, requestInfo, context);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(PaginationCursorCodec.INVALID_CURSOR_ERROR));
+    }
+
+    @Test
+    public void processInputThrowsInvalidInputExceptionWhenCursorWasIssuedForAnotherInstitution()
+        throws ApiGatewayException {
+        insertTwoUsersOfSameInstitution();
+        UserListPage firstPage = requestPage(Map.of(LIMIT_QUERY_PARAMETER, SINGLE_USER_PER_PAGE));
+
+        RequestInfo requestInfo = createPaginatedRequestInfo(SOME_OTHER_INSTITUTION,
+            Map.of(CURSOR_QUERY_PARAMETER, firstPage.getNextCursor()));
+        Executable action = () -> listByInstitutionHandler.processInput(null, requestInfo, context);
+        assertThrows(InvalidInputException.class, action);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "1001", "notANumber"})
+    public void processInputThrowsBadRequestExceptionWhenLimitIsInvalid(String invalidLimit) {
+        RequestInfo requestInfo = createPaginatedRequestInfo(DEFAULT_INSTITUTION,
+            Map.of(LIMIT_QUERY_PARAMETER, invalidLimit));
+        Executable action = () -> listByInstitutionHandler.processInput(null, requestInfo, context);
+        BadRequestException exception = assertThrows(BadRequestException.class, action);
+        assertThat(exception.getMessage(), containsString(ListByInstitutionHandler.INVALID_LIMIT_ERROR));
+    }
+
+    @Test
+    public void processInputReturnsOnlyUsernamesOfInstitutionWhenUsernamesOnlyIsRequested()
+        throws ApiGatewayException {
+        insertTwoUsersOfSameInstitution();
+        insertSampleUserToDatabase(THIRD_USERNAME, SOME_OTHER_INSTITUTION);
+
+        RequestInfo requestInfo = createPaginatedRequestInfo(DEFAULT_INSTITUTION,
+            Map.of(ListByInstitutionHandler.USERNAMES_ONLY_QUERY_PARAMETER, Boolean.TRUE.toString()));
+        UsernameList usernames = (UsernameList) listByInstitutionHandler.processInput(null, requestInfo, context);
+
+        assertThat(usernames.getUsernames(), containsInAnyOrder(DEFAULT_USERNAME, SOME_OTHER_USERNAME));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {LIMIT_QUERY_PARAMETER, CURSOR_QUERY_PARAMETER})
+    public void processInputThrowsBadRequestExceptionWhenUsernamesOnlyIsCombinedWithPagination(
+        String paginationParameter) {
+        RequestInfo requestInfo = createPaginatedRequestInfo(DEFAULT_INSTITUTION,
+            Map.of(ListByInstitutionHandler.USERNAMES_ONLY_QUERY_PARAMETER, Boolean.TRUE.toString(),
+                paginationParameter, SINGLE_USER_PER_PAGE));
+        Executable action = () -> listByInstitutionHandler.processInput(null, requestInfo, context);
+        BadRequestException exception = assertThrows(BadRequestException.class, action);
+        assertThat(exception.getMessage(), is(ListByInstitutionHandler.PAGINATED_USERNAMES_ONLY_ERROR));
+    }
+
+    private UserListPage requestPage(Map<String, String> queryParameters) throws ApiGatewayException {
+        RequestInfo requestInfo = createPaginatedRequestInfo(DEFAULT_INSTITUTION, queryParameters);
+        return (UserListPage) listByInstitutionHandler.processInput(null, requestInfo, context);
+    }
+
+    private RequestInfo createPaginatedRequestInfo(String institution, Map<String, String> queryParameters) {
+        RequestInfo requestInfo = new RequestInfo();
+        requestInfo.setPathParameters(Map.of(INSTITUTION_ID_PATH_PARAMETER, institution));
+        requestInfo.setQueryParameters(queryParameters);
+        return requestInfo;
+    }
+
     private void assertThatResponseIsSuccessful(GatewayResponse<UserList> response) {
         assertThat(response.getStatusCode(), is(HttpStatus.SC_OK));
     }
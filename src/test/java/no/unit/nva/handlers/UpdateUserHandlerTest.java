@@ -22,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.UserDb;
 import no.unit.nva.exceptions.ConflictException;
 import no.unit.nva.exceptions.InvalidEntryInternalException;
 import no.unit.nva.exceptions.InvalidInputException;
@@ -35,6 +36,7 @@ import nva.commons.exceptions.ApiGatewayException;
 import nva.commons.exceptions.InvalidOrMissingTypeException;
 import nva.commons.handlers.ApiGatewayHandler;
 import nva.commons.handlers.GatewayResponse;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -48,6 +50,7 @@ public class UpdateUserHandlerTest extends HandlerTest {
     public static final String SAMPLE_INSTITUTION = "somewhere";
     public static final String ANOTHER_ROLE = "ANOTHER_ROLE";
     public static final String SOME_OTHER_USERNAME = "SomeOtherUsername";
+    public static final String STALE_ENTITY_TAG = "\"staleVersion\"";
     private DatabaseServiceImpl databaseService;
     private Context context;
 
@@ -173,6 +176,34 @@ public class UpdateUserHandlerTest extends HandlerTest {
         assertThat(problem.getDetail(), containsString(USER_NOT_FOUND_MESSAGE));
     }
 
+    @DisplayName("handleRequest() returns Accepted and the new ETag when If-Match matches the stored user")
+    @Test
+    public void handleRequestReturnsAcceptedAndNewEntityTagWhenIfMatchMatchesStoredUser()
+        throws ApiGatewayException, IOException {
+        UserDto existingUser = storeUserInDatabase(sampleUser());
+        UserDto userUpdate = createUserUpdate(existingUser);
+        String currentEntityTag = entityTagOf(existingUser);
+
+        GatewayResponse<Void> gatewayResponse = sendUpdateRequest(userUpdate, currentEntityTag);
+
+        assertThat(gatewayResponse.getStatusCode(), is(equalTo(HttpStatus.SC_ACCEPTED)));
+        assertThat(gatewayResponse.getHeaders().get(HttpHeaders.ETAG), is(equalTo(entityTagOf(userUpdate))));
+        assertThat(databaseService.getUser(existingUser), is(equalTo(userUpdate)));
+    }
+
+    @DisplayName("handleRequest() returns PreconditionFailed when If-Match does not match the stored user")
+    @Test
+    public void handleRequestReturnsPreconditionFailedWhenIfMatchDoesNotMatchStoredUser()
+        throws ApiGatewayException, IOException {
+        UserDto existingUser = storeUserInDatabase(sampleUser());
+        UserDto userUpdate = createUserUpdate(existingUser);
+
+        GatewayResponse<Problem> gatewayResponse = sendUpdateRequest(userUpdate, STALE_ENTITY_TAG);
+
+        assertThat(gatewayResponse.getStatusCode(), is(equalTo(HttpStatus.SC_PRECONDITION_FAILED)));
+        assertThat(databaseService.getUser(existingUser), is(equalTo(existingUser)));
+    }
+
     @Test
     public void handleRequestReturnsBadRequestWhenInputUserHasNoType()
         throws InvalidEntryInternalException, IOException {
@@ -230,6 +261,22 @@ public class UpdateUserHandlerTest extends HandlerTest {
         return GatewayResponse.fromOutputStream(output);
     }
 
+    private <O> GatewayResponse<O> sendUpdateRequest(UserDto userUpdate, String ifMatch) throws IOException {
+        UpdateUserHandler updateUserHandler = new UpdateUserHandler(envWithTableName, databaseService);
+        InputStream input = new HandlerRequestBuilder<UserDto>(objectMapper)
+            .withPathParameters(Collections.singletonMap(USERNAME_PATH_PARAMETER, userUpdate.getUsername()))
+            .withHeaders(Collections.singletonMap(HttpHeaders.IF_MATCH, ifMatch))
+            .withBody(userUpdate)
+            .build();
+        updateUserHandler.handleRequest(input, output, context);
+        return GatewayResponse.fromOutputStream(output);
+    }
+
+    private String entityTagOf(UserDto user) throws InvalidEntryInternalException {
+        UserDb userDb = user.toUserDb();
+        return "\"" + userDb.getVersion() + "\"";
+    }
+
     private GatewayResponse<Problem> sendUpdateRequestWithoutPathParameters(UserDto userUpdate)
         throws IOException {
         UpdateUserHandler updateUserHandler = new UpdateUserHandler(envWithTableName, databaseService);
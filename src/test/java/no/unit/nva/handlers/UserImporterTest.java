@@ -0,0 +1,222 @@
+package no.unit.nva.handlers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import no.unit.nva.exceptions.ConflictException;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.exceptions.InvalidInputException;
+import no.unit.nva.exceptions.NotFoundException;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserImportReport;
+import no.unit.nva.model.UserImportReport.LineError;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+public class UserImporterTest extends HandlerTest {
+
+    public static final int MULTI_BATCH_IMPORT_SIZE = 4 * UserImporter.DEFAULT_BATCH_SIZE + 1;
+    public static final int HIGH_VOLUME_IMPORT_SIZE = 100_000;
+    public static final int SMALL_BATCH_SIZE = 2;
+    public static final String SOME_OTHER_ROLE = "SomeOtherRole";
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername@inst";
+    public static final String USERNAME_PREFIX = "user";
+    public static final String NEW_LINE = "\n";
+
+    private UserImporter userImporter;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        userImporter = new UserImporter(databaseService);
+    }
+
+    @DisplayName("importUsers() writes the valid NDJSON records and reports the invalid lines")
+    @Test
+    public void importUsersWritesValidNdjsonRecordsAndReportsInvalidLines()
+        throws IOException, InvalidEntryInternalException, NotFoundException {
+        String ndjson = String.join(NEW_LINE,
+            "{\"username\":\"" + DEFAULT_USERNAME + "\",\"institution\":\"" + DEFAULT_INSTITUTION + "\","
+                + "\"roles\":[\"" + DEFAULT_ROLE + "\",\"" + SOME_OTHER_ROLE + "\"]}",
+            "",
+            "{\"institution\":\"" + DEFAULT_INSTITUTION + "\"}",
+            "{\"username\":",
+            "{\"username\":\"" + DEFAULT_USERNAME + "\"}",
+            "{\"username\":\"" + SOME_OTHER_USERNAME + "\",\"roles\":[{\"rolename\":\"" + DEFAULT_ROLE + "\"}]}");
+
+        UserImportReport report = userImporter.importUsers(toInputStream(ndjson));
+
+        assertThat(report.getAccepted(), is(equalTo(2L)));
+        assertThat(report.getRejected(), is(equalTo(3L)));
+        assertThat(rejectedLines(report), contains(3L, 4L, 5L));
+        UserDto expectedUser = userWithRoles(DEFAULT_USERNAME, DEFAULT_INSTITUTION, DEFAULT_ROLE, SOME_OTHER_ROLE);
+        assertThat(databaseService.getUser(expectedUser), is(equalTo(expectedUser)));
+    }
+
+    @DisplayName("importUsers() writes the valid CSV records and reports the invalid lines")
+    @Test
+    public void importUsersWritesValidCsvRecordsAndReportsInvalidLines()
+        throws IOException, InvalidEntryInternalException, NotFoundException {
+        String csv = String.join(NEW_LINE,
+            UserImporter.CSV_HEADER,
+            DEFAULT_USERNAME + "," + DEFAULT_INSTITUTION + "," + DEFAULT_ROLE + ";" + SOME_OTHER_ROLE,
+            "," + DEFAULT_INSTITUTION + "," + DEFAULT_ROLE,
+            SOME_OTHER_USERNAME + ",,",
+            "too,many,fields,here");
+
+        UserImportReport report = userImporter.importUsers(toInputStream(csv));
+
+        assertThat(report.getAccepted(), is(equalTo(2L)));
+        assertThat(rejectedLines(report), contains(3L, 5L));
+        UserDto expectedUser = userWithRoles(DEFAULT_USERNAME, DEFAULT_INSTITUTION, DEFAULT_ROLE, SOME_OTHER_ROLE);
+        assertThat(databaseService.getUser(expectedUser), is(equalTo(expectedUser)));
+    }
+
+    @DisplayName("importUsers() rejects a CSV import without header")
+    @Test
+    public void importUsersRejectsCsvImportWithoutHeader() throws IOException {
+        String csv = DEFAULT_USERNAME + "," + DEFAULT_INSTITUTION + "," + DEFAULT_ROLE;
+
+        UserImportReport report = userImporter.importUsers(toInputStream(csv));
+
+        assertThat(report.getAccepted(), is(equalTo(0L)));
+        assertThat(report.getErrors(), contains(new LineError(1, UserImporter.INVALID_CSV_HEADER_ERROR)));
+    }
+
+    @DisplayName("importUsers() rejects a username that was read in an earlier batch")
+    @Test
+    public void importUsersRejectsUsernameReadInEarlierBatch() throws IOException {
+        UserImporter smallBatchImporter = new UserImporter(databaseService, SMALL_BATCH_SIZE);
+        String csv = String.join(NEW_LINE,
+            UserImporter.CSV_HEADER,
+            DEFAULT_USERNAME + "," + DEFAULT_INSTITUTION + ",",
+            SOME_OTHER_USERNAME + "," + DEFAULT_INSTITUTION + ",",
+            USERNAME_PREFIX + "," + DEFAULT_INSTITUTION + ",",
+            DEFAULT_USERNAME + "," + DEFAULT_INSTITUTION + ",");
+
+        UserImportReport report = smallBatchImporter.importUsers(toInputStream(csv));
+
+        assertThat(report.getAccepted(), is(equalTo(3L)));
+        assertThat(report.getErrors(),
+            contains(new LineError(5, UserImporter.DUPLICATE_USERNAME_ERROR + DEFAULT_USERNAME)));
+    }
+
+    @DisplayName("importUsers() rejects users that already exist")
+    @Test
+    public void importUsersRejectsUsersThatAlreadyExist()
+        throws IOException, InvalidEntryInternalException, NotFoundException, ConflictException, InvalidInputException {
+        UserDto existingUser = userWithRoles(DEFAULT_USERNAME, DEFAULT_INSTITUTION, DEFAULT_ROLE);
+        databaseService.addUser(existingUser);
+        String csv = String.join(NEW_LINE,
+            UserImporter.CSV_HEADER,
+            SOME_OTHER_USERNAME + "," + DEFAULT_INSTITUTION + ",",
+            DEFAULT_USERNAME + ",someOtherInstitution," + SOME_OTHER_ROLE);
+
+        UserImportReport report = userImporter.importUsers(toInputStream(csv));
+
+        assertThat(report.getAccepted(), is(equalTo(1L)));
+        assertThat(report.getErrors(),
+            contains(new LineError(3, UserImporter.EXISTING_USER_ERROR + DEFAULT_USERNAME)));
+        assertThat(databaseService.getUser(existingUser), is(equalTo(existingUser)));
+    }
+
+    @DisplayName("importUsers() replaces users that already exist when overwrite is set")
+    @Test
+    public void importUsersReplacesUsersThatAlreadyExistWhenOverwriteIsSet()
+        throws IOException, InvalidEntryInternalException, NotFoundException, ConflictException, InvalidInputException {
+        databaseService.addUser(userWithRoles(DEFAULT_USERNAME, DEFAULT_INSTITUTION, DEFAULT_ROLE));
+        String csv = String.join(NEW_LINE,
+            UserImporter.CSV_HEADER,
+            DEFAULT_USERNAME + "," + DEFAULT_INSTITUTION + "," + SOME_OTHER_ROLE);
+
+        UserImportReport report = userImporter.importUsers(toInputStream(csv), true);
+
+        assertThat(report.getAccepted(), is(equalTo(1L)));
+        assertThat(report.getErrors(), is(empty()));
+        UserDto expectedUser = userWithRoles(DEFAULT_USERNAME, DEFAULT_INSTITUTION, SOME_OTHER_ROLE);
+        assertThat(databaseService.getUser(expectedUser), is(equalTo(expectedUser)));
+    }
+
+    @DisplayName("importUsers() imports an NDJSON stream in batches")
+    @Test
+    public void importUsersImportsNdjsonStreamInBatches() throws IOException, InvalidEntryInternalException {
+        assertThatGeneratedImportIsWritten(MULTI_BATCH_IMPORT_SIZE);
+    }
+
+    @DisplayName("importUsers() imports a 100k-line NDJSON stream")
+    @Tag("large")
+    @Test
+    public void importUsersImportsHighVolumeNdjsonStream() throws IOException, InvalidEntryInternalException {
+        assertThatGeneratedImportIsWritten(HIGH_VOLUME_IMPORT_SIZE);
+    }
+
+    private void assertThatGeneratedImportIsWritten(int numberOfLines)
+        throws IOException, InvalidEntryInternalException {
+        UserImportReport report = userImporter.importUsers(generatedNdjson(numberOfLines));
+
+        assertThat(report.getAccepted(), is(equalTo((long) numberOfLines)));
+        assertThat(report.getErrors(), is(empty()));
+
+        List<String> sampleUsernames = List.of(USERNAME_PREFIX + 1, USERNAME_PREFIX + numberOfLines / 2,
+            USERNAME_PREFIX + numberOfLines);
+        Map<String, UserDto> sampleUsers = databaseService.getUsers(sampleUsernames);
+        assertThat(sampleUsers.size(), is(equalTo(sampleUsernames.size())));
+    }
+
+    private static List<Long> rejectedLines(UserImportReport report) {
+        return report.getErrors().stream().map(LineError::getLine).collect(Collectors.toList());
+    }
+
+    private static UserDto userWithRoles(String username, String institution, String... roleNames)
+        throws InvalidEntryInternalException {
+        List<RoleDto> roles = new ArrayList<>();
+        for (String roleName : roleNames) {
+            roles.add(RoleDto.newBuilder().withName(roleName).build());
+        }
+        return UserDto.newBuilder().withUsername(username).withInstitution(institution).withRoles(roles).build();
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Generates the lines while they are read, so the fixture is never held in memory as a whole.
+     */
+    private static InputStream generatedNdjson(int numberOfLines) {
+        Iterator<InputStream> lines = IntStream.rangeClosed(1, numberOfLines)
+            .mapToObj(index -> "{\"username\":\"" + USERNAME_PREFIX + index + "\",\"institution\":\""
+                + DEFAULT_INSTITUTION + "\",\"roles\":[\"" + DEFAULT_ROLE + "\"]}" + NEW_LINE)
+            .map(UserImporterTest::toInputStream)
+            .iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return lines.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return lines.next();
+            }
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package no.unit.nva.handlers.authorizer;
+
+import static java.util.Objects.isNull;
+import static nva.commons.utils.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.amazonaws.services.secretsmanager.model.AWSSecretsManagerException;
+import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
+import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
+import com.amazonaws.services.secretsmanager.model.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ApiSecretCacheTest {
+
+    public static final String SECRET_NAME = "someSecretName";
+    public static final String SECRET_KEY = "someSecretKey";
+    public static final String CURRENT_SECRET = "currentSecret";
+    public static final String PREVIOUS_SECRET = "previousSecret";
+    public static final String ROTATED_SECRET = "rotatedSecret";
+    public static final String WRONG_SECRET = "wrongSecret";
+    public static final long TTL_SECONDS = 300;
+    public static final long MIN_RELOAD_INTERVAL_SECONDS = 10;
+    public static final long ROTATION_GRACE_SECONDS = 900;
+
+    private final Map<String, String> secretVersions = new HashMap<>();
+    private final List<Boolean> acceptedDuringReload = new ArrayList<>();
+    private Date currentVersionCreatedAt;
+    private AtomicLong clock;
+    private AWSSecretsManager secretsManager;
+    private ApiSecretCache secretCache;
+
+    /**
+     * Creates a cache reading from a stand-in Secrets Manager, with a clock controlled by the test.
+     */
+    @BeforeEach
+    public void init() {
+        secretVersions.put(ApiSecretCache.CURRENT_VERSION_STAGE, CURRENT_SECRET);
+        secretVersions.put(ApiSecretCache.PREVIOUS_VERSION_STAGE, PREVIOUS_SECRET);
+        clock = new AtomicLong();
+        secretsManager = mock(AWSSecretsManager.class);
+        when(secretsManager.getSecretValue(any(GetSecretValueRequest.class)))
+            .thenAnswer(invocation -> readSecret(invocation.getArgument(0)));
+        secretCache = new ApiSecretCache(secretsManager, SECRET_NAME, SECRET_KEY, TTL_SECONDS,
+            MIN_RELOAD_INTERVAL_SECONDS, ROTATION_GRACE_SECONDS, TimeUnit.SECONDS, clock::get);
+    }
+
+    @Test
+    public void acceptsReadsSecretOnlyOnceWithinTimeToLive() {
+        secretCache.accepts(CURRENT_SECRET);
+        secretCache.accepts(CURRENT_SECRET);
+        secretCache.accepts(PREVIOUS_SECRET);
+
+        verify(secretsManager, times(2)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    public void acceptsCurrentAndPreviousVersionsAndRejectsOtherSecrets() {
+        assertThat(secretCache.accepts(CURRENT_SECRET), is(true));
+        assertThat(secretCache.accepts(PREVIOUS_SECRET), is(true));
+        assertThat(secretCache.accepts(WRONG_SECRET), is(false));
+        assertThat(secretCache.accepts(null), is(false));
+    }
+
+    @Test
+    public void acceptsCurrentVersionWhenSecretHasNoPreviousVersion() {
+        secretVersions.remove(ApiSecretCache.PREVIOUS_VERSION_STAGE);
+
+        assertThat(secretCache.accepts(CURRENT_SECRET), is(true));
+        assertThat(secretCache.accepts(PREVIOUS_SECRET), is(false));
+    }
+
+    @Test
+    public void acceptsReloadsExpiredEntryInlineOnce() {
+        secretCache.accepts(CURRENT_SECRET);
+        rotateSecret();
+        advanceClock(TTL_SECONDS);
+
+        assertThat(secretCache.accepts(ROTATED_SECRET), is(true));
+        assertThat(secretCache.accepts(PREVIOUS_SECRET), is(false));
+        verify(secretsManager, times(4)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    public void acceptsKeepsExpiredEntryForOtherCallersWhileItIsReloaded() {
+        secretCache.accepts(CURRENT_SECRET);
+        advanceClock(TTL_SECONDS);
+        doAnswer(invocation -> {
+            acceptedDuringReload.add(secretCache.accepts(CURRENT_SECRET));
+            return readSecret(invocation.getArgument(0));
+        }).when(secretsManager).getSecretValue(any(GetSecretValueRequest.class));
+
+        assertThat(secretCache.accepts(CURRENT_SECRET), is(true));
+        assertThat(acceptedDuringReload, contains(true, true));
+        verify(secretsManager, times(4)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    public void acceptsKeepsExpiredEntryWhenReloadFails() {
+        secretCache.accepts(CURRENT_SECRET);
+        advanceClock(TTL_SECONDS);
+        doThrow(new AWSSecretsManagerException(WRONG_SECRET))
+            .when(secretsManager).getSecretValue(any(GetSecretValueRequest.class));
+
+        assertThat(secretCache.accepts(CURRENT_SECRET), is(true));
+        assertThat(secretCache.accepts(PREVIOUS_SECRET), is(true));
+    }
+
+    @Test
+    public void acceptsRotatedOutSecretOnlyDuringRotationGraceWindow() {
+        secretCache.accepts(CURRENT_SECRET);
+        rotateSecret();
+        advanceClock(TTL_SECONDS);
+
+        assertThat(secretCache.accepts(ROTATED_SECRET), is(true));
+        assertThat(secretCache.accepts(CURRENT_SECRET), is(true));
+
+        advanceClock(ROTATION_GRACE_SECONDS);
+
+        assertThat(secretCache.accepts(CURRENT_SECRET), is(false));
+        assertThat(secretCache.accepts(ROTATED_SECRET), is(true));
+    }
+
+    @Test
+    public void acceptsRejectsPreviousVersionWhenCurrentVersionWasCreatedBeforeRotationGraceWindow() {
+        advanceClock(ROTATION_GRACE_SECONDS);
+        currentVersionCreatedAt = new Date(0);
+
+        assertThat(secretCache.accepts(CURRENT_SECRET), is(true));
+        assertThat(secretCache.accepts(PREVIOUS_SECRET), is(false));
+    }
+
+    @Test
+    public void acceptsReloadsOnceWhenUnknownSecretIsPresentedAfterMinReloadInterval() {
+        secretCache.accepts(CURRENT_SECRET);
+        rotateSecret();
+
+        assertThat(secretCache.accepts(ROTATED_SECRET), is(false));
+
+        advanceClock(MIN_RELOAD_INTERVAL_SECONDS);
+
+        assertThat(secretCache.accepts(ROTATED_SECRET), is(true));
+        assertThat(secretCache.accepts(WRONG_SECRET), is(false));
+        verify(secretsManager, times(4)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    private void rotateSecret() {
+        secretVersions.put(ApiSecretCache.PREVIOUS_VERSION_STAGE, secretVersions.get(
+            ApiSecretCache.CURRENT_VERSION_STAGE));
+        secretVersions.put(ApiSecretCache.CURRENT_VERSION_STAGE, ROTATED_SECRET);
+    }
+
+    private void advanceClock(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    private GetSecretValueResult readSecret(GetSecretValueRequest request) throws JsonProcessingException {
+        String value = secretVersions.get(request.getVersionStage());
+        if (!SECRET_NAME.equals(request.getSecretId()) || isNull(value)) {
+            throw new ResourceNotFoundException(request.getVersionStage());
+        }
+        Date createdAt = ApiSecretCache.CURRENT_VERSION_STAGE.equals(request.getVersionStage())
+            ? currentVersionCreatedAt
+            : null;
+        return new GetSecretValueResult()
+            .withName(SECRET_NAME)
+            .withCreatedDate(createdAt)
+            .withSecretString(objectMapper.writeValueAsString(Map.of(SECRET_KEY, value)));
+    }
+}
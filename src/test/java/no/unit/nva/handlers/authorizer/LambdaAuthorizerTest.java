@@ -5,6 +5,8 @@ import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazonaws.services.lambda.runtime.Context;
@@ -46,6 +48,11 @@ public class LambdaAuthorizerTest implements WithEnvironment {
     public static final String METHOD_ARN_REQUEST_FIELD = "methodArn";
     public static final String WRONG_SECRET_NAME = "WrongSecretName";
     private static final String WRONG_SECRET_KEY = "WrongSecretKey";
+    private static final int SECRET_VERSIONS_READ_ON_FIRST_REQUEST = 2;
+    private static final String WRONG_SECRET_VALUE = "WrongSecretValue";
+    private static final String LOWER_CASE_AUTHORIZATION_HEADER = "authorization";
+    private static final String STAGE_RESOURCE_PATTERN =
+        "arn:aws:execute-api:eu-west-1:884807050265:2lcqynkwke/Prod/*/*";
 
     private final Environment envWithCorrectValues;
     private Context context;
@@ -105,6 +112,74 @@ public class LambdaAuthorizerTest implements WithEnvironment {
         assertThat(actualEffect, is(equalTo(ACTION_DENIED)));
     }
 
+    @Test
+    public void authorizerReadsSecretOnlyOnceForConsecutiveRequests() throws IOException {
+        AWSSecretsManager awsSecretsManager = secretsManager();
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(awsSecretsManager, envWithCorrectValues);
+
+        sendRequest(authorizer);
+        AuthorizerResponse response = sendRequest(authorizer);
+
+        StatementElement statement = response.getPolicyDocument().getStatement().get(UNIQUE_STATEMENT);
+        assertThat(statement.getEffect(), is(equalTo(ACTION_ALLOWED)));
+        verify(awsSecretsManager, times(SECRET_VERSIONS_READ_ON_FIRST_REQUEST))
+            .getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    public void authorizerReusesDecisionForRepeatedRequestsWithSameSecret() throws IOException {
+        ApiSecretCache secretCache = mock(ApiSecretCache.class);
+        when(secretCache.accepts(CORRECT_SECRET_VALUE)).thenReturn(true);
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(secretCache, envWithCorrectValues);
+
+        sendRequest(authorizer, CORRECT_SECRET_VALUE);
+        AuthorizerResponse response = sendRequest(authorizer, CORRECT_SECRET_VALUE);
+
+        StatementElement statement = response.getPolicyDocument().getStatement().get(UNIQUE_STATEMENT);
+        assertThat(statement.getEffect(), is(equalTo(ACTION_ALLOWED)));
+        verify(secretCache, times(1)).accepts(CORRECT_SECRET_VALUE);
+    }
+
+    @Test
+    public void authorizerDoesNotReuseDecisionForOtherSecret() throws IOException {
+        ApiSecretCache secretCache = mock(ApiSecretCache.class);
+        when(secretCache.accepts(CORRECT_SECRET_VALUE)).thenReturn(true);
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(secretCache, envWithCorrectValues);
+
+        sendRequest(authorizer, CORRECT_SECRET_VALUE);
+        AuthorizerResponse response = sendRequest(authorizer, WRONG_SECRET_VALUE);
+
+        StatementElement statement = response.getPolicyDocument().getStatement().get(UNIQUE_STATEMENT);
+        assertThat(statement.getEffect(), is(equalTo(ACTION_DENIED)));
+    }
+
+    @Test
+    public void authorizerReturnsAcceptPolicyWhenAuthorizationHeaderIsLowerCase() throws IOException {
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(secretsManager(), envWithCorrectValues);
+        InputStream request = buildRequest(Map.of(LOWER_CASE_AUTHORIZATION_HEADER, CORRECT_SECRET_VALUE));
+
+        AuthorizerResponse response = sendRequest(authorizer, request);
+
+        StatementElement statement = response.getPolicyDocument().getStatement().get(UNIQUE_STATEMENT);
+        assertThat(statement.getEffect(), is(equalTo(ACTION_ALLOWED)));
+    }
+
+    @Test
+    public void authorizerReturnsDenyPolicyWhenAuthorizationHeaderIsMissing() throws IOException {
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(secretsManager(), envWithCorrectValues);
+
+        AuthorizerResponse response = sendRequest(authorizer, buildRequest(Map.of()));
+
+        StatementElement statement = response.getPolicyDocument().getStatement().get(UNIQUE_STATEMENT);
+        assertThat(statement.getEffect(), is(equalTo(ACTION_DENIED)));
+    }
+
+    @Test
+    public void toResourcePatternReplacesMethodAndResourcePathWithWildcards() {
+        assertThat(LambdaAuthorizer.toResourcePattern(DEFAULT_METHOD_ARN), is(equalTo(STAGE_RESOURCE_PATTERN)));
+        assertThat(LambdaAuthorizer.toResourcePattern(STAGE_RESOURCE_PATTERN), is(equalTo(STAGE_RESOURCE_PATTERN)));
+    }
+
     private AWSSecretsManager secretsManager() {
         AWSSecretsManager awsSecretsManager = mock(AWSSecretsManager.class);
         when(awsSecretsManager.getSecretValue(any(GetSecretValueRequest.class)))
@@ -113,17 +188,27 @@ public class LambdaAuthorizerTest implements WithEnvironment {
     }
 
     private AuthorizerResponse sendRequest(Environment environment) throws IOException {
-        LambdaAuthorizer authorizer = new LambdaAuthorizer(secretsManager(), environment);
-        InputStream request = buildRequest();
+        return sendRequest(new LambdaAuthorizer(secretsManager(), environment));
+    }
+
+    private AuthorizerResponse sendRequest(LambdaAuthorizer authorizer) throws IOException {
+        return sendRequest(authorizer, CORRECT_SECRET_VALUE);
+    }
+
+    private AuthorizerResponse sendRequest(LambdaAuthorizer authorizer, String presentedSecret) throws IOException {
+        return sendRequest(authorizer, buildRequest(Map.of(HttpHeaders.AUTHORIZATION, presentedSecret)));
+    }
+
+    private AuthorizerResponse sendRequest(LambdaAuthorizer authorizer, InputStream request) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         authorizer.handleRequest(request, outputStream, context);
         AuthorizerResponse response = AuthorizerResponse.fromOutputStream(outputStream);
         return response;
     }
 
-    private InputStream buildRequest() throws JsonProcessingException {
+    private InputStream buildRequest(Map<String, String> headers) throws JsonProcessingException {
         return new HandlerRequestBuilder<Void>(JsonUtils.objectMapper)
-            .withHeaders(Map.of(HttpHeaders.AUTHORIZATION, CORRECT_SECRET_VALUE))
+            .withHeaders(headers)
             .withOtherProperties(Map.of(METHOD_ARN_REQUEST_FIELD, DEFAULT_METHOD_ARN))
             .build();
     }
@@ -0,0 +1,51 @@
+package no.unit.nva.model;
+
+import static no.unit.nva.utils.EntityUtils.createUserWithRolesAndInstitution;
+import static nva.commons.utils.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.List;
+import java.util.stream.Stream;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import org.junit.jupiter.api.Test;
+
+public class StreamingUserListTest {
+
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername";
+    public static final String FETCH_ERROR_MESSAGE = "fetching next page failed";
+
+    @Test
+    public void streamingUserListIsSerializedAsTheEquivalentUserList()
+        throws InvalidEntryInternalException, JsonProcessingException {
+        UserDto someUser = createUserWithRolesAndInstitution();
+        UserDto someOtherUser = someUser.copy().withUsername(SOME_OTHER_USERNAME).build();
+        List<UserDto> users = List.of(someUser, someOtherUser);
+
+        String expectedJson = objectMapper.writeValueAsString(UserList.fromList(users));
+        String actualJson = objectMapper.writeValueAsString(StreamingUserList.fromStream(users.stream()));
+
+        assertThat(actualJson, is(equalTo(expectedJson)));
+        UserList deserialized = objectMapper.readValue(actualJson, UserList.class);
+        assertThat(deserialized, is(equalTo(UserList.fromList(users))));
+    }
+
+    @Test
+    public void fromStreamThrowsErrorOfTheStreamWhenListIsCreated() throws InvalidEntryInternalException {
+        UserDto someUser = createUserWithRolesAndInstitution();
+        Stream<UserDto> failingUsers = Stream.<UserDto>of(someUser, null).map(user -> {
+            if (user == null) {
+                throw new IllegalStateException(FETCH_ERROR_MESSAGE);
+            }
+            return user;
+        });
+
+        IllegalStateException exception =
+            assertThrows(IllegalStateException.class, () -> StreamingUserList.fromStream(failingUsers));
+
+        assertThat(exception.getMessage(), is(equalTo(FETCH_ERROR_MESSAGE)));
+    }
+}
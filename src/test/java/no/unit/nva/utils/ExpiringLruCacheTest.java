@@ -0,0 +1,97 @@
+package no.unit.nva.utils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class ExpiringLruCacheTest {
+
+    public static final int MAX_SIZE = 2;
+    public static final long TIME_TO_LIVE_SECONDS = 10;
+    public static final String KEY_1 = "key1";
+    public static final String KEY_2 = "key2";
+    public static final String KEY_3 = "key3";
+    public static final String VALUE_1 = "value1";
+    public static final String VALUE_2 = "value2";
+    public static final String VALUE_3 = "value3";
+
+    private AtomicLong clock;
+    private ExpiringLruCache<String, String> cache;
+
+    @BeforeEach
+    public void init() {
+        clock = new AtomicLong();
+        cache = new ExpiringLruCache<>(MAX_SIZE, TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS, clock::get);
+    }
+
+    @Test
+    public void getReturnsStoredValueBeforeTimeToLiveHasPassed() {
+        cache.put(KEY_1, VALUE_1);
+        advanceClock(TIME_TO_LIVE_SECONDS - 1);
+
+        assertThat(cache.get(KEY_1), is(equalTo(Optional.of(VALUE_1))));
+    }
+
+    @Test
+    public void getReturnsEmptyAfterTimeToLiveHasPassed() {
+        cache.put(KEY_1, VALUE_1);
+        advanceClock(TIME_TO_LIVE_SECONDS);
+
+        assertThat(cache.get(KEY_1), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics().getExpirations(), is(equalTo(1L)));
+        assertThat(cache.statistics().getSize(), is(equalTo(0)));
+    }
+
+    @Test
+    public void putEvictsLeastRecentlyUsedEntryWhenCacheIsFull() {
+        cache.put(KEY_1, VALUE_1);
+        cache.put(KEY_2, VALUE_2);
+        cache.get(KEY_1);
+        cache.put(KEY_3, VALUE_3);
+
+        assertThat(cache.get(KEY_1), is(equalTo(Optional.of(VALUE_1))));
+        assertThat(cache.get(KEY_2), is(equalTo(Optional.empty())));
+        assertThat(cache.get(KEY_3), is(equalTo(Optional.of(VALUE_3))));
+        assertThat(cache.statistics().getEvictions(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void invalidateRemovesEntry() {
+        cache.put(KEY_1, VALUE_1);
+        cache.invalidate(KEY_1);
+
+        assertThat(cache.get(KEY_1), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void statisticsCountHitsAndMisses() {
+        cache.put(KEY_1, VALUE_1);
+        cache.get(KEY_1);
+        cache.get(KEY_1);
+        cache.get(KEY_2);
+
+        CacheStatistics expected = new CacheStatistics(2, 1, 0, 0, 1);
+        assertThat(cache.statistics(), is(equalTo(expected)));
+        assertThat(cache.statistics().getHitRate(), is(equalTo(2.0 / 3)));
+    }
+
+    @Test
+    public void constructorThrowsIllegalArgumentExceptionWhenMaxSizeIsNotPositive() {
+        Executable action = () -> new ExpiringLruCache<String, String>(0, TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, action);
+
+        assertThat(exception.getMessage(), is(equalTo(ExpiringLruCache.INVALID_MAX_SIZE_ERROR)));
+    }
+
+    private void advanceClock(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,57 @@
+package no.unit.nva.utils;
+
+import static no.unit.nva.utils.EntityUtils.SOME_ROLENAME;
+import static no.unit.nva.utils.EntityUtils.createRole;
+import static no.unit.nva.utils.EntityUtils.createUserWithRolesAndInstitution;
+import static nva.commons.utils.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.List;
+import no.unit.nva.exceptions.InvalidEntryInternalException;
+import no.unit.nva.model.RoleDto;
+import no.unit.nva.model.UserDto;
+import no.unit.nva.model.UserList;
+import org.junit.jupiter.api.Test;
+
+public class JsonReadersAndWritersTest {
+
+    @Test
+    public void writerForReturnsTheSameWriterForTheSameType() {
+        assertThat(JsonReadersAndWriters.writerFor(UserDto.class),
+            is(sameInstance(JsonReadersAndWriters.writerFor(UserDto.class))));
+        assertThat(JsonReadersAndWriters.readerFor(UserDto.class),
+            is(sameInstance(JsonReadersAndWriters.readerFor(UserDto.class))));
+    }
+
+    @Test
+    public void writerForWritesTheSameJsonAsTheObjectMapper()
+        throws InvalidEntryInternalException, JsonProcessingException {
+        UserDto user = createUserWithRolesAndInstitution();
+        RoleDto role = createRole(SOME_ROLENAME);
+        UserList users = UserList.fromList(List.of(user));
+
+        assertThat(JsonReadersAndWriters.writerFor(UserDto.class).writeValueAsString(user),
+            is(equalTo(objectMapper.writeValueAsString(user))));
+        assertThat(JsonReadersAndWriters.writerFor(RoleDto.class).writeValueAsString(role),
+            is(equalTo(objectMapper.writeValueAsString(role))));
+        assertThat(JsonReadersAndWriters.writerFor(UserList.class).writeValueAsString(users),
+            is(equalTo(objectMapper.writeValueAsString(users))));
+    }
+
+    @Test
+    public void readerForReadsTheJsonWrittenByTheWriter()
+        throws InvalidEntryInternalException, JsonProcessingException {
+        UserDto user = createUserWithRolesAndInstitution();
+        JsonReadersAndWriters.prefetch(UserDto.class);
+
+        String json = user.toJsonString();
+        UserDto readUser = JsonReadersAndWriters.readerFor(UserDto.class).readValue(json);
+
+        assertThat(readUser, is(equalTo(user)));
+        assertThat(json, is(equalTo(user.toJsonString(objectMapper))));
+    }
+}